@@ -0,0 +1,98 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for the per-request work NodeServlet does before it spools a published file: assembling the metadata
+ * from the request headers and cleaning the strings that are logged.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeServletBenchmark {
+
+    private HttpServletRequest request;
+    private String path;
+
+    /**
+     * Build a publish request carrying the headers a typical publisher sends.
+     */
+    @Setup
+    public void setUp() {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        headers.put("Host", List.of("dmaap-dr-node:8443"));
+        headers.put("Authorization", List.of("Basic dXNlcjE6cGFzc3dvcmQx"));
+        headers.put("Content-Type", List.of("application/octet-stream"));
+        headers.put("Content-Length", List.of("1048576"));
+        headers.put("X-DMAAP-DR-META", List.of("{\"productName\":\"AF\",\"vendorName\":\"Ericsson\","
+            + "\"lastEpochMicrosec\":\"1538478000000\",\"sourceName\":\"oteNB5309\","
+            + "\"startEpochMicrosec\":\"1538478900000\",\"timeZoneOffset\":\"UTC+05:00\"}"));
+        headers.put("X-ONAP-RequestID", List.of("a6e7a1c4-7a46-4c5c-a4f5-3d2c6c3a6c62"));
+        headers.put("X-Custom-Trace", List.of("trace-1", "trace-2"));
+        headers.put("Expect", List.of("100-continue"));
+        request = (HttpServletRequest) Proxy.newProxyInstance(HttpServletRequest.class.getClassLoader(),
+            new Class<?>[]{HttpServletRequest.class}, (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getMethod":
+                        return "PUT";
+                    case "getHeaderNames":
+                        return Collections.enumeration(headers.keySet());
+                    case "getHeaders":
+                        return Collections.enumeration(headers.getOrDefault(args[0], List.of()));
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                }
+            });
+        path = "/publish/1/A20181002.1000+0500-1015+0500_oteNB5309.xml.gz";
+    }
+
+    @Benchmark
+    public NodeServlet.PublishMetadata buildMetadata() {
+        return NodeServlet.buildMetadata(request, "A20181002.1000+0500-1015+0500_oteNB5309.xml.gz", true, false,
+            "1538479000123.dmaap-dr-node");
+    }
+
+    @Benchmark
+    public String cleanString() {
+        return NodeServlet.PathUtil.cleanString(path);
+    }
+}
@@ -0,0 +1,115 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.config;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.onap.dmaap.datarouter.node.Target;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark for resolving the routing of a file received from another node into its delivery targets.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeConfigBenchmark {
+
+    @Param({"1", "10", "100"})
+    private int subscriptions;
+
+    private NodeConfig nodeConfig;
+    private String routing;
+
+    /**
+     * Provision one feed with the given number of subscriptions, half delivered locally and half through another node.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        JSONObject feed = new JSONObject();
+        feed.put("feedid", "1");
+        feed.put("name", "Feed1");
+        feed.put("version", "m1.0");
+        feed.put("suspend", false);
+        feed.put("deleted", false);
+        feed.put("authorization", new JSONObject().put("endpoint_ids", new JSONArray()
+            .put(new JSONObject().put("id", "user1").put("password", "password1"))));
+        JSONArray subs = new JSONArray();
+        JSONObject egress = new JSONObject();
+        StringBuilder sb = new StringBuilder();
+        for (int i = 1; i <= subscriptions; i++) {
+            JSONObject delivery = new JSONObject();
+            delivery.put("url", "https://subscriber" + i + ":8443/delivery");
+            delivery.put("user", "user" + i);
+            delivery.put("password", "password" + i);
+            delivery.put("use100", true);
+            JSONObject sub = new JSONObject();
+            sub.put("subid", String.valueOf(i));
+            sub.put("feedid", "1");
+            sub.put("suspend", false);
+            sub.put("metadataOnly", false);
+            sub.put("privilegedSubscriber", false);
+            sub.put("follow_redirect", false);
+            sub.put("decompress", false);
+            sub.put("delivery", delivery);
+            subs.put(sub);
+            if (i % 2 == 0) {
+                egress.put(String.valueOf(i), "dmaap-dr-node-1");
+                sb.append("dmaap-dr-node-1/").append(i).append(' ');
+            } else {
+                sb.append(i).append(' ');
+            }
+        }
+        JSONObject parameters = new JSONObject();
+        parameters.put("PROV_NAME", "dmaap-dr-prov");
+        parameters.put("PROV_DOMAIN", "");
+        parameters.put("NODES", new JSONArray().put("dmaap-dr-node-0").put("dmaap-dr-node-1"));
+        JSONObject prov = new JSONObject();
+        prov.put("feeds", new JSONArray().put(feed));
+        prov.put("subscriptions", subs);
+        prov.put("parameters", parameters);
+        prov.put("egress", egress);
+        nodeConfig = new NodeConfig(new ProvData(new StringReader(prov.toString())), "dmaap-dr-node-0",
+            "spool", 8443, "Key");
+        routing = sb.toString();
+    }
+
+    @Benchmark
+    public Target[] parseRouting() {
+        return nodeConfig.parseRouting(routing);
+    }
+}
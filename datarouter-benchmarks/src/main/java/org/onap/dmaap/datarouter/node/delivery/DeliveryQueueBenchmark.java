@@ -0,0 +1,169 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.onap.dmaap.datarouter.node.DestInfo;
+import org.onap.dmaap.datarouter.node.DestInfoBuilder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for picking the next file to deliver from a spool directory holding a backlog of files.
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeliveryQueueBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int files;
+
+    private Path spool;
+    private DestInfo destInfo;
+    private DeliveryQueue queue;
+
+    private final DeliveryQueueHelper helper = new DeliveryQueueHelper() {
+        public long getInitFailureTimer() {
+            return 10000L;
+        }
+
+        public long getWaitForFileProcessFailureTimer() {
+            return 600000L;
+        }
+
+        public double getFailureBackoff() {
+            return 2.0;
+        }
+
+        public long getMaxFailureTimer() {
+            return 3600000L;
+        }
+
+        public long getExpirationTimer() {
+            return 86400000L;
+        }
+
+        public int getFairFileLimit() {
+            return 100;
+        }
+
+        public long getFairTimeLimit() {
+            return 60000L;
+        }
+
+        public String getDestURL(DestInfo destinationInfo, String fileid) {
+            return destinationInfo.getURL() + "/" + fileid;
+        }
+
+        public void handleUnreachable(DestInfo destinationInfo) {
+        }
+
+        public boolean handleRedirection(DestInfo destinationInfo, String location, String fileid) {
+            return false;
+        }
+
+        public boolean isFollowRedirects() {
+            return false;
+        }
+
+        public String getFeedId(String subid) {
+            return "1";
+        }
+    };
+
+    /**
+     * Fill a spool directory with the given number of published files, all within the expiration time.
+     */
+    @Setup(Level.Trial)
+    public void createSpool() throws IOException {
+        spool = Files.createTempDirectory("dr-spool");
+        byte[] metadata = DeliveryTaskMetadataBenchmark.METADATA.getBytes(StandardCharsets.UTF_8);
+        byte[] data = new byte[1024];
+        long base = System.currentTimeMillis() - files;
+        for (int i = 0; i < files; i++) {
+            String pubid = (base + i) + ".dmaap-dr-node-0";
+            Files.write(spool.resolve(pubid), data);
+            Files.write(spool.resolve(pubid + ".M"), metadata);
+        }
+        destInfo = new DestInfoBuilder().setName("s:1").setSpool(spool.toString()).setSubid("1").setLogdata("1")
+            .setUrl("https://subscriber:8443/delivery").setAuthuser("user1").setAuthentication("Basic dXNlcjE=")
+            .setMetaonly(false).setUse100(true).setPrivilegedSubscriber(false).setFollowRedirects(false)
+            .setDecompress(false).createDestInfo();
+    }
+
+    @Setup(Level.Invocation)
+    public void createQueue() {
+        queue = new DeliveryQueue(helper, destInfo);
+    }
+
+    /**
+     * Remove the spool directory.
+     */
+    @TearDown(Level.Trial)
+    public void deleteSpool() throws IOException {
+        try (Stream<Path> paths = Files.walk(spool)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    /**
+     * The first look at a queue, which indexes the spool and loads the first batch of tasks.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public DeliveryTask firstPeek() {
+        return queue.peekNext();
+    }
+
+    /**
+     * Take every file in the spool from the queue in order, as the delivery threads would.
+     */
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    public int drain() {
+        int count = 0;
+        while (queue.getNext() != null) {
+            count++;
+        }
+        return count;
+    }
+}
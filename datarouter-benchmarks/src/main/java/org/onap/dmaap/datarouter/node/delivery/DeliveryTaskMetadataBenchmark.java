@@ -0,0 +1,66 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for parsing the .M metadata file of a spooled file into a delivery task.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DeliveryTaskMetadataBenchmark {
+
+    static final String METADATA = "PUT\tA20181002.1000+0500-1015+0500_oteNB5309.xml.gz\n"
+        + "Content-Type\tapplication/octet-stream\n"
+        + "X-DMAAP-DR-META\t{\"productName\":\"AF\",\"vendorName\":\"Ericsson\","
+        + "\"lastEpochMicrosec\":\"1538478000000\",\"sourceName\":\"oteNB5309\","
+        + "\"startEpochMicrosec\":\"1538478900000\",\"timeZoneOffset\":\"UTC+05:00\"}\n"
+        + "X-ONAP-RequestID\ta6e7a1c4-7a46-4c5c-a4f5-3d2c6c3a6c62\n"
+        + "X-InvocationID\t2b6a3f0e-12d7-4b39-9f8c-0f2e6e3f5b11\n"
+        + "X-DMAAP-DR-RECEIVED\t1538479000123.dmaap-dr-node-1,1538479000456.dmaap-dr-node-0\n";
+
+    private static final String ROUTED_METADATA = METADATA
+        + "X-DMAAP-DR-ROUTING\t1 dmaap-dr-node-1/2 3 dmaap-dr-node-1/4 5\n";
+
+    @Benchmark
+    public DeliveryTaskMetadata parse() {
+        return DeliveryTaskMetadata.parse(METADATA);
+    }
+
+    @Benchmark
+    public DeliveryTaskMetadata parseRouted() {
+        return DeliveryTaskMetadata.parse(ROUTED_METADATA);
+    }
+}
@@ -0,0 +1,103 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark comparing how DeliveryTask sends a spooled file through {@link SpoolFileEntity} with the 1MiB byte array
+ * copy it used before. Run with {@code -prof gc} to see the bytes allocated per delivery
+ * ({@code gc.alloc.rate.norm}) as well as the time taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpoolFileEntityBenchmark {
+
+    @Param({"4096", "4194304"})
+    private int size;
+
+    private Path datafile;
+    private final OutputStream target = OutputStream.nullOutputStream();
+
+    /**
+     * Create a spooled data file of random bytes.
+     */
+    @Setup(Level.Trial)
+    public void createFile() throws IOException {
+        byte[] content = new byte[size];
+        new Random(42).nextBytes(content);
+        datafile = Files.createTempFile("dr-delivery", null);
+        Files.write(datafile, content);
+    }
+
+    /**
+     * Remove the data file.
+     */
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(datafile);
+    }
+
+    @Benchmark
+    public long send() throws IOException {
+        SpoolFileEntity entity = new SpoolFileEntity(datafile.toFile(), size);
+        entity.writeTo(target);
+        return entity.getBytesSent();
+    }
+
+    @Benchmark
+    public long sendLegacy() throws IOException {
+        long total = 0;
+        try (InputStream is = new FileInputStream(datafile.toFile())) {
+            byte[] buf = new byte[1024 * 1024];
+            int len;
+            while ((len = is.read(buf)) > 0) {
+                target.write(buf, 0, len);
+                total += len;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,147 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.utils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark comparing how NodeServlet spools the body of a publish request through {@link SpoolFileWriter} with the
+ * 1MiB byte array and FileOutputStream it used before, from one thread and from 64 threads at once, as when many
+ * publishers send files together. Run with {@code -prof gc} to see the bytes allocated per file
+ * ({@code gc.alloc.rate.norm}) as well as the time taken.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SpoolFileWriterBenchmark {
+
+    @Param({"4096", "1048576"})
+    private int size;
+
+    private byte[] body;
+    private Path spool;
+    private final SpoolFileWriter writer = new SpoolFileWriter(262144, 64);
+
+    /**
+     * Where each benchmark thread writes its file, so that threads do not truncate each other's files.
+     */
+    @State(Scope.Thread)
+    public static class SpoolFile {
+        private File file;
+
+        @Setup(Level.Trial)
+        public void createFile(SpoolFileWriterBenchmark benchmark) throws IOException {
+            file = Files.createTempFile(benchmark.spool, "pub", null).toFile();
+        }
+    }
+
+    /**
+     * Create the spool directory and a body of random bytes.
+     */
+    @Setup(Level.Trial)
+    public void createSpool() throws IOException {
+        spool = Files.createTempDirectory("dr-ingest");
+        body = new byte[size];
+        new Random(42).nextBytes(body);
+    }
+
+    /**
+     * Remove the spool directory.
+     */
+    @TearDown(Level.Trial)
+    public void deleteSpool() throws IOException {
+        try (Stream<Path> paths = Files.walk(spool)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public long spool(SpoolFile target) throws IOException {
+        return writer.write(new ByteArrayInputStream(body), target.file.toPath(), null);
+    }
+
+    @Benchmark
+    public byte[] spoolWithMd5(SpoolFile target) throws IOException, NoSuchAlgorithmException {
+        MessageDigest md5 = MessageDigest.getInstance("MD5");
+        writer.write(new ByteArrayInputStream(body), target.file.toPath(), md5);
+        return md5.digest();
+    }
+
+    @Benchmark
+    public long spoolLegacy(SpoolFile target) throws IOException {
+        return legacyWrite(new ByteArrayInputStream(body), target.file);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long spoolContended(SpoolFile target) throws IOException {
+        return writer.write(new ByteArrayInputStream(body), target.file.toPath(), null);
+    }
+
+    @Benchmark
+    @Threads(64)
+    public long spoolLegacyContended(SpoolFile target) throws IOException {
+        return legacyWrite(new ByteArrayInputStream(body), target.file);
+    }
+
+    private static long legacyWrite(InputStream is, File data) throws IOException {
+        byte[] buf = new byte[1024 * 1024];
+        long total = 0;
+        int bytesRead;
+        try (OutputStream dos = new FileOutputStream(data)) {
+            while ((bytesRead = is.read(buf)) > 0) {
+                dos.write(buf, 0, bytesRead);
+                total += bytesRead;
+            }
+        }
+        return total;
+    }
+}
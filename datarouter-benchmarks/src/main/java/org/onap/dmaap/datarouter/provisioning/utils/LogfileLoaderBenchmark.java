@@ -0,0 +1,145 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.onap.dmaap.datarouter.provisioning.InternalServlet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of {@link LogfileLoader} loading a logfile of publish records into the LOG_RECORDS table of an in-memory
+ * H2 database, set up with the same scripts as the provisioning server unit tests. The parser threads of the loader
+ * are read from the provisioning properties when it is created, so each value of {@code threads} runs in its own
+ * fork. The time includes the JDBC batches and their commits, but not the network and disk of a real MariaDB.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogfileLoaderBenchmark {
+
+    @Param({"10000", "100000"})
+    private int records;
+
+    @Param({"1", "4"})
+    private int threads;
+
+    private Path dir;
+    private File logfile;
+    private LogfileLoader loader;
+
+    /**
+     * Create the database and the loader, and write the logfile outside the spool directory, so that the loader
+     * thread leaves it alone.
+     */
+    @Setup(Level.Trial)
+    public void createLoader() throws IOException, InterruptedException {
+        dir = Files.createTempDirectory("dr-logfileloader");
+        Path spool = Files.createDirectory(dir.resolve("spool"));
+        Path scripts = Files.createDirectory(dir.resolve("scripts"));
+        for (int i = 1; i <= 3; i++) {
+            String script = String.format("sql_init_%02d.sql", i);
+            try (InputStream in = LogfileLoaderBenchmark.class.getResourceAsStream("/h2/" + script)) {
+                Files.copy(in, scripts.resolve(script));
+            }
+        }
+        Properties props = new Properties();
+        props.setProperty("org.onap.dmaap.datarouter.db.driver", "org.h2.Driver");
+        props.setProperty("org.onap.dmaap.datarouter.db.url", "jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+        props.setProperty("org.onap.dmaap.datarouter.provserver.spooldir", spool.toString());
+        props.setProperty("org.onap.dmaap.datarouter.provserver.dbscripts", scripts.toString());
+        props.setProperty("org.onap.dmaap.datarouter.provserver.tlsenabled", "false");
+        props.setProperty("org.onap.dmaap.datarouter.provserver.sync_interval", "86400000");
+        props.setProperty("org.onap.dmaap.datarouter.provserver.logloader.threads", Integer.toString(threads));
+        Path propsFile = dir.resolve("provserver.properties");
+        try (OutputStream out = Files.newOutputStream(propsFile)) {
+            props.store(out, null);
+        }
+        System.setProperty("org.onap.dmaap.datarouter.provserver.properties", propsFile.toString());
+        ProvDbUtils.getInstance().initProvDB();
+        // Reads the PARAMETERS table, which the loader needs to choose its range of record IDs
+        new InternalServlet();
+        loader = LogfileLoader.getLoader();
+        while (!loader.isIdle()) {
+            Thread.sleep(100);
+        }
+        logfile = dir.resolve("IN.benchmark").toFile();
+        try (BufferedWriter out = Files.newBufferedWriter(logfile.toPath())) {
+            for (int i = 0; i < records; i++) {
+                out.write("2018-08-29-10-10-10-543.|PUB|" + i + "|1|https://dmaap-dr-prov:8443/publish/1/file" + i
+                    + "/|POST|application/vnd.att-dr.feed|2|128.0.0.9|user123|200\n");
+            }
+        }
+    }
+
+    /**
+     * Empty LOG_RECORDS, so that every load inserts into an empty table.
+     */
+    @Setup(Level.Invocation)
+    public void clearRecords() throws SQLException {
+        try (Connection conn = ProvDbUtils.getInstance().getConnection();
+            Statement stmt = conn.createStatement()) {
+            stmt.execute("delete from LOG_RECORDS");
+        }
+    }
+
+    /**
+     * Remove the spool directory, scripts and logfile.
+     */
+    @TearDown(Level.Trial)
+    public void deleteDir() throws IOException {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+        }
+    }
+
+    @Benchmark
+    public int[] load() {
+        return loader.process(logfile);
+    }
+}
@@ -0,0 +1,151 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark comparing the array based {@link RLEBitSet} with the TreeSet based one it replaced, for the operations the
+ * LogfileLoader and SynchronizerTask use: looking up a record ID, adding the next record ID, comparing the local and
+ * remote sets, and converting a set to and from the /internal/drlogs text format.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RLEBitSetBenchmark {
+
+    private static final int PROBES = 1024;
+
+    /**
+     * Number of runs of set bits, i.e. the number of gaps in the record IDs.
+     */
+    @Param({"100", "10000"})
+    private int runs;
+
+    private RLEBitSet local;
+    private RLEBitSet remote;
+    private LegacyRLEBitSet legacyLocal;
+    private LegacyRLEBitSet legacyRemote;
+    private String remoteText;
+    private long[] probes;
+    private int probe;
+    private long nextId;
+
+    /**
+     * Build the local set with runs of 50 IDs and gaps of 10, and the remote set offset from it by 25 IDs.
+     */
+    @Setup
+    public void setUp() {
+        StringBuilder localText = new StringBuilder();
+        StringBuilder remoteTextBuilder = new StringBuilder();
+        for (int i = 0; i < runs; i++) {
+            long start = i * 60L;
+            localText.append(i == 0 ? "" : ",").append(start).append('-').append(start + 49);
+            remoteTextBuilder.append(i == 0 ? "" : ",").append(start + 25).append('-').append(start + 74);
+        }
+        local = new RLEBitSet(localText.toString());
+        remote = new RLEBitSet(remoteTextBuilder.toString());
+        legacyLocal = new LegacyRLEBitSet(localText.toString());
+        legacyRemote = new LegacyRLEBitSet(remoteTextBuilder.toString());
+        remoteText = remoteTextBuilder.toString();
+        probes = new long[PROBES];
+        Random random = new Random(runs);
+        for (int i = 0; i < PROBES; i++) {
+            probes[i] = (long) (random.nextDouble() * runs * 60L);
+        }
+        nextId = local.length();
+    }
+
+    @Benchmark
+    public boolean get() {
+        return local.get(probes[probe++ & (PROBES - 1)]);
+    }
+
+    @Benchmark
+    public boolean getLegacy() {
+        return legacyLocal.get(probes[probe++ & (PROBES - 1)]);
+    }
+
+    /**
+     * Set the next record ID, as the LogfileLoader does for each record it loads.
+     */
+    @Benchmark
+    public void setNext() {
+        local.set(nextId++);
+    }
+
+    @Benchmark
+    public void setNextLegacy() {
+        legacyLocal.set(nextId++);
+    }
+
+    /**
+     * Find the records the remote POD has that this one does not, as the SynchronizerTask does.
+     */
+    @Benchmark
+    public boolean andNot() {
+        RLEBitSet missing = (RLEBitSet) remote.clone();
+        missing.andNot(local);
+        return missing.isEmpty();
+    }
+
+    @Benchmark
+    public boolean andNotLegacy() {
+        LegacyRLEBitSet missing = (LegacyRLEBitSet) legacyRemote.clone();
+        missing.andNot(legacyLocal);
+        return missing.isEmpty();
+    }
+
+    @Benchmark
+    public RLEBitSet parse() {
+        return new RLEBitSet(remoteText);
+    }
+
+    @Benchmark
+    public LegacyRLEBitSet parseLegacy() {
+        return new LegacyRLEBitSet(remoteText);
+    }
+
+    @Benchmark
+    public String format() {
+        return remote.toString();
+    }
+
+    @Benchmark
+    public String formatLegacy() {
+        return legacyRemote.toString();
+    }
+}
@@ -47,7 +47,8 @@ CREATE TABLE SUBSCRIPTIONS (
     SUSPENDED                   BOOLEAN DEFAULT FALSE,
     PRIVILEGED_SUBSCRIBER       BOOLEAN DEFAULT FALSE,
     CREATED_DATE                TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    DECOMPRESS                  BOOLEAN DEFAULT FALSE
+    DECOMPRESS                  BOOLEAN DEFAULT FALSE,
+    MAX_IN_FLIGHT               INT DEFAULT 1
 
 );
 
@@ -82,11 +83,49 @@ CREATE TABLE LOG_RECORDS (
     CONTENT_LENGTH_2 BIGINT,
     FILENAME       VARCHAR(256),        /* Name of the file being published on DR */
 
-    INDEX (FEEDID) USING BTREE,
-    INDEX (DELIVERY_SUBID) USING BTREE,
+    INDEX (FEEDID, TYPE, EVENT_TIME) USING BTREE,
+    INDEX (DELIVERY_SUBID, EVENT_TIME) USING BTREE,
     INDEX (RECORD_ID) USING BTREE
 ) ENGINE = MyISAM;
 
+CREATE TABLE LOG_ROLLUP_HOURLY (
+    PERIOD_START       BIGINT NOT NULL,           /* start of the hour, in ms */
+    FEEDID             INT UNSIGNED NOT NULL,     /* pointer to feed in FEEDS */
+    SUBID              INT UNSIGNED NOT NULL,     /* pointer to subscription in SUBSCRIPTIONS, 0 for publishes */
+    FILES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    BYTES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    FILES_DELIVERED    BIGINT NOT NULL DEFAULT 0, /* successful deliveries only */
+    BYTES_DELIVERED    BIGINT NOT NULL DEFAULT 0,
+    FILES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    BYTES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    DELAY_SUM          BIGINT NOT NULL DEFAULT 0, /* total ms from publish to delivery */
+    DELAY_COUNT        BIGINT NOT NULL DEFAULT 0,
+    LAST_PUBLISH_TIME  BIGINT NOT NULL DEFAULT 0,
+    LAST_DELIVERY_TIME BIGINT NOT NULL DEFAULT 0,
+    SUBSCRIBER_URL     VARCHAR(256),
+
+    PRIMARY KEY (FEEDID, SUBID, PERIOD_START)
+);
+
+CREATE TABLE LOG_ROLLUP_DAILY (
+    PERIOD_START       BIGINT NOT NULL,           /* start of the UTC day, in ms */
+    FEEDID             INT UNSIGNED NOT NULL,     /* pointer to feed in FEEDS */
+    SUBID              INT UNSIGNED NOT NULL,     /* pointer to subscription in SUBSCRIPTIONS, 0 for publishes */
+    FILES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    BYTES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    FILES_DELIVERED    BIGINT NOT NULL DEFAULT 0, /* successful deliveries only */
+    BYTES_DELIVERED    BIGINT NOT NULL DEFAULT 0,
+    FILES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    BYTES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    DELAY_SUM          BIGINT NOT NULL DEFAULT 0, /* total ms from publish to delivery */
+    DELAY_COUNT        BIGINT NOT NULL DEFAULT 0,
+    LAST_PUBLISH_TIME  BIGINT NOT NULL DEFAULT 0,
+    LAST_DELIVERY_TIME BIGINT NOT NULL DEFAULT 0,
+    SUBSCRIBER_URL     VARCHAR(256),
+
+    PRIMARY KEY (FEEDID, SUBID, PERIOD_START)
+);
+
 CREATE TABLE INGRESS_ROUTES (
     SEQUENCE  INT UNSIGNED NOT NULL,
     FEEDID    INT UNSIGNED NOT NULL,
@@ -43,6 +43,7 @@ public class DestInfo {
     private boolean privilegedSubscriber;
     private boolean decompress;
     private boolean followRedirects;
+    private int maxInFlight;
 
     /**
      * Create a destination information object.
@@ -62,6 +63,7 @@ public class DestInfo {
         this.privilegedSubscriber = destInfoBuilder.isPrivilegedSubscriber();
         this.followRedirects = destInfoBuilder.isFollowRedirects();
         this.decompress = destInfoBuilder.isDecompress();
+        this.maxInFlight = destInfoBuilder.getMaxInFlight();
     }
 
     /**
@@ -84,6 +86,7 @@ public class DestInfo {
         this.privilegedSubscriber = subscription.isPrivilegedSubscriber();
         this.followRedirects = subscription.getFollowRedirect();
         this.decompress = subscription.isDecompress();
+        this.maxInFlight = subscription.getMaxInFlight();
     }
 
     public boolean equals(Object object) {
@@ -199,5 +202,13 @@ public class DestInfo {
         return (decompress);
     }
 
+    /**
+     * Get the maximum number of files that may be in flight to this destination at once.
+     *
+     * @return The number of delivery threads that may work on this destination concurrently, at least 1.
+     */
+    public int getMaxInFlight() {
+        return (Math.max(1, maxInFlight));
+    }
 
 }
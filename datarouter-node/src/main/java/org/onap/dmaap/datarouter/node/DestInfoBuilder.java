@@ -34,6 +34,7 @@ public class DestInfoBuilder {
     private boolean destInfoPrivilegedSubscriber;
     private boolean destInfoFollowRedirects;
     private boolean destInfoDecompress;
+    private int destInfoMaxInFlight = 1;
 
     public String getName() {
         return destInfoName;
@@ -143,6 +144,15 @@ public class DestInfoBuilder {
         return this;
     }
 
+    int getMaxInFlight() {
+        return destInfoMaxInFlight;
+    }
+
+    public DestInfoBuilder setMaxInFlight(int maxInFlight) {
+        this.destInfoMaxInFlight = maxInFlight;
+        return this;
+    }
+
     public DestInfo createDestInfo() {
         return new DestInfo(this);
     }
@@ -35,16 +35,26 @@ import java.io.IOException;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Objects;
 import java.util.Properties;
 import java.util.Timer;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.json.JSONObject;
 import org.onap.dmaap.datarouter.node.config.NodeConfig;
 import org.onap.dmaap.datarouter.node.config.ProvData;
 import org.onap.dmaap.datarouter.node.delivery.DeliveryQueueHelper;
 import org.onap.dmaap.datarouter.node.eelf.EelfMsgs;
+import org.onap.dmaap.datarouter.node.log.NodeMetrics;
 import org.onap.dmaap.datarouter.node.utils.NodeTlsManager;
 import org.onap.dmaap.datarouter.node.utils.NodeUtils;
 
@@ -62,6 +72,8 @@ import org.onap.dmaap.datarouter.node.utils.NodeUtils;
 public class NodeConfigManager implements DeliveryQueueHelper {
 
     private static final String NODE_CONFIG_MANAGER = "NodeConfigManager";
+    private static final String PROV_VERSION_HEADER = "X-DMAAP-DR-PROV-VERSION";
+    private static final String PROV_INSTANCE_HEADER = "X-DMAAP-DR-PROV-INSTANCE";
     private static final EELFLogger eelfLogger = EELFManager.getInstance().getLogger(NodeConfigManager.class);
     private long maxfailuretimer;
     private long initfailuretimer;
@@ -90,15 +102,36 @@ public class NodeConfigManager implements DeliveryQueueHelper {
     private final String eventlogsuffix;
     private String eventloginterval;
     private boolean followredirects;
+    private final boolean deliveryConnectionPooling;
+    private final int deliveryPoolMaxPerDest;
+    private final long deliveryPoolIdleTimeout;
+    private final long eventLogFlushInterval;
+    private final boolean eventLogFsync;
+    private final int eventLogQueueSize;
+    private final int ingestBufferSize;
+    private final int ingestBufferPoolSize;
+    private final boolean ingestVerifyContentMd5;
     private final TaskList configtasks = new TaskList();
     private final PublishId publishId;
     private final IsFrom provcheck;
     private final RedirManager rdmgr;
     private final Timer timer = new Timer("Node Configuration Timer", true);
     private final RateLimitedOperation pfetcher;
+    private final ExecutorService reloader = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "node-config-reload");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicLong configReloads = new AtomicLong();
+    private final AtomicLong configReloadFailures = new AtomicLong();
+    private volatile long lastConfigReloadTime;
+    private volatile int lastConfigChangedDests;
     private static NodeConfigManager base;
     private static NodeTlsManager nodeTlsManager;
-    private NodeConfig nodeConfig;
+    private volatile NodeConfig nodeConfig;
+    private JSONObject provDocument;
+    private String provVersion;
+    private String provInstance;
     private static Properties drNodeProperties;
 
     public static Properties getDrNodeProperties() {
@@ -167,9 +200,20 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         logretention = Long.parseLong(getDrNodeProperties().getProperty("LogRetention", "30")) * 86400000L;
         eventlogprefix = logdir + "/events";
         eventlogsuffix = ".log";
+        eventLogFlushInterval = Long.parseLong(getDrNodeProperties().getProperty("EventLogFlushInterval", "200"));
+        eventLogFsync = Boolean.parseBoolean(getDrNodeProperties().getProperty("EventLogFsync", "false"));
+        eventLogQueueSize = Integer.parseInt(getDrNodeProperties().getProperty("EventLogQueueSize", "10000"));
+        ingestBufferSize = Integer.parseInt(getDrNodeProperties().getProperty("IngestBufferSize", "262144"));
+        ingestBufferPoolSize = Integer.parseInt(getDrNodeProperties().getProperty("IngestBufferPoolSize", "64"));
+        ingestVerifyContentMd5 = Boolean.parseBoolean(
+            getDrNodeProperties().getProperty("IngestVerifyContentMD5", "false"));
         String redirfile = getDrNodeProperties().getProperty("RedirectionFile", "etc/redirections.dat");
         publishId = new PublishId(myname);
         nak = getDrNodeProperties().getProperty("NodeAuthKey", "Node123!");
+        deliveryConnectionPooling = !"urlconnection".equalsIgnoreCase(
+            getDrNodeProperties().getProperty("DeliveryTransport", "pooled"));
+        deliveryPoolMaxPerDest = Integer.parseInt(getDrNodeProperties().getProperty("DeliveryPoolMaxPerDest", "8"));
+        deliveryPoolIdleTimeout = Long.parseLong(getDrNodeProperties().getProperty("DeliveryPoolIdleTimeout", "60000"));
         quiesce = new File(getDrNodeProperties().getProperty("QuiesceFile", "etc/SHUTDOWN"));
         rdmgr = new RedirManager(redirfile,
             Long.parseLong(getDrNodeProperties().getProperty("MinRedirSaveInterval", "10000")), timer);
@@ -271,16 +315,57 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         }
     }
 
+    /**
+     * Fetch the provisioning data and switch to the configuration built from it. The new configuration is built and
+     * checked while the old one stays in use, then published with a single write, so servlet threads never see a
+     * partly built configuration. The config tasks run after the switch, on the thread doing the fetch; the first
+     * fetch is done by the constructor, later ones by the node-config-reload thread or the timer.
+     */
     private void fetchNodeConfigFromProv() {
+        long start = System.nanoTime();
         try {
             eelfLogger.debug("NodeConfigMan.fetchNodeConfigFromProv: provurl:: {}", provurl);
-            URL url = new URL(provurl);
-            Reader reader = new InputStreamReader(url.openStream());
-            nodeConfig = new NodeConfig(new ProvData(reader), myname, spooldir, extHttpsPort, nak);
+            String fetchurl = provurl;
+            if (provDocument != null) {
+                fetchurl += (provurl.contains("?") ? "&" : "?") + "since=" + provVersion + "&instance="
+                        + URLEncoder.encode(provInstance, StandardCharsets.UTF_8);
+            }
+            URLConnection conn = new URL(fetchurl).openConnection();
+            JSONObject received;
+            try (Reader reader = new InputStreamReader(conn.getInputStream())) {
+                received = ProvData.parse(reader);
+            }
+            JSONObject document = received;
+            if (received.optBoolean("delta") && provDocument != null) {
+                ProvData.applyDelta(provDocument, received);
+                eelfLogger.debug("NODE0315 Applied provisioning changes since version " + provVersion);
+                document = provDocument;
+            }
+            provVersion = conn.getHeaderField(PROV_VERSION_HEADER);
+            provInstance = conn.getHeaderField(PROV_INSTANCE_HEADER);
+            // Only ask for changes if the provisioning server said which version this is
+            provDocument = (provVersion == null || provInstance == null) ? null : document;
+            if (!document.has("parameters") || !document.has("feeds")) {
+                throw new IOException("Provisioning data has no parameters or feeds");
+            }
+            NodeConfig next = new NodeConfig(new ProvData(document), myname, spooldir, extHttpsPort, nak);
+            NodeConfig previous = nodeConfig;
+            int changed = countChangedDests(previous == null ? new DestInfo[0] : previous.getAllDests(),
+                next.getAllDests());
+            nodeConfig = next;
             localconfig();
             configtasks.startRun();
             runTasks();
+            lastConfigChangedDests = changed;
+            long elapsed = System.nanoTime() - start;
+            lastConfigReloadTime = TimeUnit.NANOSECONDS.toMillis(elapsed);
+            configReloads.incrementAndGet();
+            NodeMetrics.recordConfigReload(elapsed);
+            eelfLogger.debug("NODE0316 Configuration reloaded in " + lastConfigReloadTime + " ms, " + changed
+                    + " destinations changed");
         } catch (Exception e) {
+            configReloadFailures.incrementAndGet();
+            provDocument = null;
             NodeUtils.setIpAndFqdnForEelf("fetchNodeConfigFromProv");
             eelfLogger.error(EelfMsgs.MESSAGE_CONF_FAILED, e.toString());
             eelfLogger.error("NODE0306 Configuration failed {} - try again later", e);
@@ -299,15 +384,40 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         }
     }
 
+    /**
+     * Count the destinations that were added, removed, or pointed somewhere else by a configuration change.
+     */
+    static int countChangedDests(DestInfo[] before, DestInfo[] after) {
+        HashMap<String, DestInfo> old = new HashMap<>();
+        for (DestInfo di : before) {
+            old.put(di.getSpool(), di);
+        }
+        int changed = 0;
+        for (DestInfo di : after) {
+            DestInfo was = old.remove(di.getSpool());
+            if (was == null || !Objects.equals(was.getURL(), di.getURL())
+                    || !Objects.equals(was.getAuth(), di.getAuth())
+                    || !Objects.equals(was.getAuthUser(), di.getAuthUser())
+                    || was.isMetaDataOnly() != di.isMetaDataOnly() || was.isUsing100() != di.isUsing100()
+                    || was.isPrivilegedSubscriber() != di.isPrivilegedSubscriber()
+                    || was.isFollowRedirects() != di.isFollowRedirects() || was.isDecompress() != di.isDecompress()
+                    || was.getMaxInFlight() != di.getMaxInFlight()) {
+                changed++;
+            }
+        }
+        return changed + old.size();
+    }
+
     /**
      * Process a gofetch request from a particular IP address.  If the IP address is not an IP address we would go to to
      * fetch the provisioning data, ignore the request.  If the data has been fetched very recently (default 10
-     * seconds), wait a while before fetching again.
+     * seconds), wait a while before fetching again. The fetch is done by the node-config-reload thread, so the request
+     * returns at once.
      */
-    synchronized void gofetch(String remoteAddr) {
+    void gofetch(String remoteAddr) {
         if (provcheck.isReachable(remoteAddr)) {
             eelfLogger.debug("NODE0307 Received configuration fetch request from provisioning server " + remoteAddr);
-            pfetcher.request();
+            reloader.execute(pfetcher::request);
         } else {
             eelfLogger.debug("NODE0308 Received configuration fetch request from unexpected server " + remoteAddr);
         }
@@ -320,6 +430,34 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         return nodeConfig != null;
     }
 
+    /**
+     * Get the number of times the configuration has been loaded from the provisioning data.
+     */
+    public long getConfigReloads() {
+        return configReloads.get();
+    }
+
+    /**
+     * Get the number of attempts to load the configuration that failed.
+     */
+    public long getConfigReloadFailures() {
+        return configReloadFailures.get();
+    }
+
+    /**
+     * Get how long the last successful configuration load took, in milliseconds, including the config tasks.
+     */
+    public long getLastConfigReloadTime() {
+        return lastConfigReloadTime;
+    }
+
+    /**
+     * Get the number of destinations added, removed or changed by the last successful configuration load.
+     */
+    public int getLastConfigChangedDests() {
+        return lastConfigChangedDests;
+    }
+
     /**
      * Am I shut down.
      */
@@ -617,6 +755,27 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         return deliverythreads;
     }
 
+    /**
+     * Should deliveries reuse pooled, persistent connections rather than opening a new HttpURLConnection per file.
+     */
+    public boolean isDeliveryConnectionPooling() {
+        return deliveryConnectionPooling;
+    }
+
+    /**
+     * Get the maximum number of open delivery connections to a single destination.
+     */
+    public int getDeliveryPoolMaxPerDest() {
+        return deliveryPoolMaxPerDest;
+    }
+
+    /**
+     * Get how long (in milliseconds) an idle delivery connection is kept open.
+     */
+    public long getDeliveryPoolIdleTimeout() {
+        return deliveryPoolIdleTimeout;
+    }
+
     /**
      * Get the URL for uploading the event log data.
      */
@@ -645,6 +804,50 @@ public class NodeConfigManager implements DeliveryQueueHelper {
         return eventloginterval;
     }
 
+    /**
+     * Get how often (in milliseconds) queued events are written to the event log, or 0 to write each one as it
+     * happens.
+     */
+    public long getEventLogFlushInterval() {
+        return eventLogFlushInterval;
+    }
+
+    /**
+     * Should the event log be forced to disk each time it is flushed.
+     */
+    public boolean isEventLogFsync() {
+        return eventLogFsync;
+    }
+
+    /**
+     * Get the most events that can wait to be written to the event log.
+     */
+    public int getEventLogQueueSize() {
+        return eventLogQueueSize;
+    }
+
+    /**
+     * Get the size of the buffers a published file is written to the spool through.
+     */
+    public int getIngestBufferSize() {
+        return ingestBufferSize;
+    }
+
+    /**
+     * Get the most buffers kept for writing published files, which is how many files can be received at once
+     * without allocating new buffers.
+     */
+    public int getIngestBufferPoolSize() {
+        return ingestBufferPoolSize;
+    }
+
+    /**
+     * Should the Content-MD5 header of a publish request, when there is one, be checked against the file received.
+     */
+    public boolean isIngestVerifyContentMd5() {
+        return ingestVerifyContentMd5;
+    }
+
     /**
      * Should I follow redirects from subscribers.
      */
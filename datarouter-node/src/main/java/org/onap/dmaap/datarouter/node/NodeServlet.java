@@ -30,15 +30,16 @@ import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
 import jakarta.servlet.http.HttpServlet;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Enumeration;
 import java.util.regex.Pattern;
 import jakarta.servlet.http.HttpServletRequest;
@@ -46,8 +47,10 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.jetbrains.annotations.Nullable;
 import org.onap.dmaap.datarouter.node.delivery.Delivery;
 import org.onap.dmaap.datarouter.node.eelf.EelfMsgs;
+import org.onap.dmaap.datarouter.node.log.NodeMetrics;
 import org.onap.dmaap.datarouter.node.log.StatusLog;
 import org.onap.dmaap.datarouter.node.utils.NodeUtils;
+import org.onap.dmaap.datarouter.node.utils.SpoolFileWriter;
 import org.slf4j.MDC;
 
 /**
@@ -57,6 +60,8 @@ import org.slf4j.MDC;
  * <br>
  * GET http://<i>node</i>/internal/fetchProv - fetch the provisioning data
  * <br>
+ * GET http://<i>node</i>/internal/metrics - get the node's metrics, in the Prometheus text format
+ * <br>
  * PUT/DELETE https://<i>node</i>/internal/publish/<i>fileid</i> - n2n transfer
  * <br>
  * PUT/DELETE https://<i>node</i>/publish/<i>feedid</i>/<i>fileid</i> - publsh request
@@ -83,10 +88,12 @@ public class NodeServlet extends HttpServlet {
     }
 
     private final Delivery delivery;
+    private final SpoolFileWriter spoolWriter;
 
     NodeServlet(Delivery delivery, NodeConfigManager nodeConfigManager) {
         config = nodeConfigManager;
         this.delivery = delivery;
+        spoolWriter = new SpoolFileWriter(config.getIngestBufferSize(), config.getIngestBufferPoolSize());
     }
 
     /**
@@ -107,7 +114,7 @@ public class NodeServlet extends HttpServlet {
     }
 
     /**
-     * Handle a GET for /internal/fetchProv.
+     * Handle a GET for /internal/fetchProv, /internal/resetSubscription or /internal/metrics.
      */
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) {
@@ -117,6 +124,11 @@ public class NodeServlet extends HttpServlet {
         try {
             eelfLogger.debug(EelfMsgs.MESSAGE_WITH_BEHALF_AND_FEEDID, req.getHeader(ON_BEHALF_OF),
                 getIdFromPath(req) + "");
+            if ("/internal/metrics".equals(req.getPathInfo())) {
+                // Served even while quiesced or unconfigured, so the node can still be watched
+                sendMetrics(resp);
+                return;
+            }
             if (down(resp)) {
                 return;
             }
@@ -146,6 +158,16 @@ public class NodeServlet extends HttpServlet {
         }
     }
 
+    private void sendMetrics(HttpServletResponse resp) {
+        resp.setStatus(HttpServletResponse.SC_OK);
+        resp.setContentType("text/plain; version=0.0.4; charset=utf-8");
+        try {
+            NodeMetrics.write(resp.getWriter(), config, delivery);
+        } catch (IOException ioe) {
+            eelfLogger.error("NODE0118 Failed to write metrics: " + ioe.getMessage(), ioe);
+        }
+    }
+
     /**
      * Handle all PUT requests.
      */
@@ -187,6 +209,7 @@ public class NodeServlet extends HttpServlet {
         final String INTERNAL_PUBLISH = "/internal/publish/";
         final String HTTPS = "https://";
         final String USER = " user ";
+        long start = System.nanoTime();
         String fileid = getFileId(req, resp);
         if (fileid == null) {
             return;
@@ -296,74 +319,49 @@ public class NodeServlet extends HttpServlet {
         String fbase = PathUtil.cleanString(config.getSpoolDir() + "/" + pubid);  //Fortify scan fixes-Path manipulation
         File data = new File(fbase);
         File meta = new File(fbase + ".M");
+        File routedMeta = new File(fbase + ".R");
         Writer mw = null;
         try {
-            StringBuilder mx = new StringBuilder();
-            mx.append(req.getMethod()).append('\t').append(fileid).append('\n');
-            Enumeration<String> hnames = req.getHeaderNames();
-            String ctype = null;
-            boolean hasRequestIdHeader = false;
-            boolean hasInvocationIdHeader = false;
-            while (hnames.hasMoreElements()) {
-                String hn = hnames.nextElement();
-                String hnlc = hn.toLowerCase();
-                if ((isput && ("content-type".equals(hnlc)
-                    || "content-language".equals(hnlc)
-                    || "content-md5".equals(hnlc)
-                    || "content-range".equals(hnlc)))
-                    || "x-dmaap-dr-meta".equals(hnlc)
-                    || (feedid == null && "x-dmaap-dr-received".equals(hnlc))
-                    || (hnlc.startsWith("x-") && !hnlc.startsWith("x-dmaap-dr-"))) {
-                    Enumeration<String> hvals = req.getHeaders(hn);
-                    while (hvals.hasMoreElements()) {
-                        String hv = hvals.nextElement();
-                        if ("content-type".equals(hnlc)) {
-                            ctype = hv;
-                        }
-                        if ("x-onap-requestid".equals(hnlc)) {
-                            hasRequestIdHeader = true;
-                        }
-                        if ("x-invocationid".equals(hnlc)) {
-                            hasInvocationIdHeader = true;
-                        }
-                        if ("x-dmaap-dr-meta".equals(hnlc)) {
-                            if (hv.length() > 4096) {
-                                eelfLogger.error("NODE0109 Rejecting publish attempt with metadata too long for feed "
-                                    + PathUtil.cleanString(feedid) + USER + PathUtil.cleanString(user) + " ip "
-                                    + PathUtil.cleanString(ip));  //Fortify scan fixes - log forging
-                                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Metadata too long");
-                                eelfLogger.info(EelfMsgs.EXIT);
-                                return;
-                            }
-                            if (!metaDataPattern.matcher(hv.replaceAll("\\\\.", "X")).matches()) {
-                                eelfLogger.error("NODE0109 Rejecting publish attempt with malformed metadata for feed "
-                                    + PathUtil.cleanString(feedid) + USER + PathUtil.cleanString(user) + " ip "
-                                    + PathUtil.cleanString(ip));  //Fortify scan fixes - log forging
-                                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Malformed metadata");
-                                eelfLogger.info(EelfMsgs.EXIT);
-                                return;
-                            }
-                        }
-                        mx.append(hn).append('\t').append(hv).append('\n');
-                    }
-                }
-            }
-            if (!hasRequestIdHeader) {
-                mx.append("X-ONAP-RequestID\t").append(MDC.get("RequestId")).append('\n');
-            }
-            if (!hasInvocationIdHeader) {
-                mx.append("X-InvocationID\t").append(MDC.get("InvocationId")).append('\n');
+            PublishMetadata pm = buildMetadata(req, fileid, isput, feedid == null, rcvd);
+            if (pm.getError() != null) {
+                eelfLogger.error("NODE0109 Rejecting publish attempt with " + pm.getError().toLowerCase() + " for feed "
+                    + PathUtil.cleanString(feedid) + USER + PathUtil.cleanString(user) + " ip "
+                    + PathUtil.cleanString(ip));  //Fortify scan fixes - log forging
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, pm.getError());
+                eelfLogger.info(EelfMsgs.EXIT);
+                return;
             }
-            mx.append("X-DMAAP-DR-RECEIVED\t").append(rcvd).append('\n');
-            String metadata = mx.toString();
+            String ctype = pm.getContentType();
+            String metadata = pm.getText();
             long exlen = getExlen(req);
-            String message = writeInputStreamToFile(req, data);
+            String contentMd5 = config.isIngestVerifyContentMd5() ? req.getHeader("Content-MD5") : null;
+            MessageDigest md5 = (contentMd5 == null) ? null : newMd5();
+            String message = writeInputStreamToFile(req, data, md5);
             if (message != null) {
                 StatusLog.logPubFail(pubid, feedid, logurl, req.getMethod(), ctype, exlen, data.length(), ip, user,
                     message);
                 throw new IOException(message);
             }
+            if (md5 != null && !contentMd5.trim().equals(Base64.getEncoder().encodeToString(md5.digest()))) {
+                eelfLogger.error("NODE0119 Rejecting publish attempt with mismatched Content-MD5 for feed "
+                    + PathUtil.cleanString(feedid) + USER + PathUtil.cleanString(user) + " ip "
+                    + PathUtil.cleanString(ip));
+                StatusLog.logPubFail(pubid, feedid, logurl, req.getMethod(), ctype, exlen, data.length(), ip, user,
+                    "Content-MD5 mismatch");
+                resp.sendError(HttpServletResponse.SC_BAD_REQUEST, "Content-MD5 does not match the content");
+                eelfLogger.info(EelfMsgs.EXIT);
+                return;
+            }
             Path dpath = Paths.get(fbase);
+            Path mpath = meta.toPath();
+            mw = new FileWriter(meta);
+            mw.write(metadata);
+            mw.close();
+            // Each target still costs two links, so a publish stays linear in the number of targets, but no
+            // metadata is written per subscription. A manifest per spool, appended to once per publish, was not
+            // used: delivery, privileged subscriber deletes, expiry, spool cleanup and the free disk checks all
+            // work on a data file and a .M file in each queue's spool, and the links make the data file's
+            // removal reference counted across the queues.
             for (Target t : targets) {
                 DestInfo di = t.getDestInfo();
                 if (di == null) {
@@ -373,14 +371,20 @@ public class NodeServlet extends HttpServlet {
                 String dbase = PathUtil
                     .cleanString(di.getSpool() + "/" + pubid);  //Fortify scan fixes-Path Manipulation
                 Files.createLink(Paths.get(dbase), dpath);
-                mw = new FileWriter(meta);
-                mw.write(metadata);
-                if (di.getSubId() == null) {
-                    mw.write("X-DMAAP-DR-ROUTING\t" + t.getRouting() + "\n");
+                if (di.getSubId() != null) {
+                    // Subscriptions all get the same metadata, so they share one copy of it
+                    Files.createLink(Paths.get(dbase + ".M"), mpath);
+                    delivery.addPending(di.getSpool(), pubid);
+                    continue;
                 }
+                mw = new FileWriter(routedMeta);
+                mw.write(metadata);
+                mw.write("X-DMAAP-DR-ROUTING\t" + t.getRouting() + "\n");
                 mw.close();
-                if (!meta.renameTo(new File(dbase + ".M"))) {
+                if (!routedMeta.renameTo(new File(dbase + ".M"))) {
                     eelfLogger.error("Rename of file " + dbase + " failed.");
+                } else {
+                    delivery.addPending(di.getSpool(), pubid);
                 }
             }
             resp.setStatus(HttpServletResponse.SC_NO_CONTENT);
@@ -396,8 +400,10 @@ public class NodeServlet extends HttpServlet {
                 throw ioe;
             }
 
-            StatusLog.logPub(pubid, feedid, logurl, req.getMethod(), ctype, data.length(), ip, user,
+            long length = data.length();
+            StatusLog.logPub(pubid, feedid, logurl, req.getMethod(), ctype, length, ip, user,
                 HttpServletResponse.SC_NO_CONTENT);
+            NodeMetrics.recordPublish(feedid, length, System.nanoTime() - start);
         } catch (IOException ioe) {
             eelfLogger.error("NODE0110 IO Exception receiving publish attempt for feed " + feedid + USER + user
                 + " ip " + ip + " " + ioe.toString(), ioe);
@@ -412,8 +418,9 @@ public class NodeServlet extends HttpServlet {
                 }
             }
             try {
-                Files.delete(data.toPath());
-                Files.delete(meta.toPath());
+                Files.deleteIfExists(data.toPath());
+                Files.deleteIfExists(meta.toPath());
+                Files.deleteIfExists(routedMeta.toPath());
             } catch (Exception e) {
                 eelfLogger.error("NODE0533 Exception common: " + e);
             }
@@ -431,14 +438,71 @@ public class NodeServlet extends HttpServlet {
         throw new IOException("Invalid Header X-DMAAP-DR-PUBLISH-ID");
     }
 
-    private String writeInputStreamToFile(HttpServletRequest req, File data) {
-        byte[] buf = new byte[1024 * 1024];
-        int bytesRead;
-        try (OutputStream dos = new FileOutputStream(data);
-            InputStream is = req.getInputStream()) {
-            while ((bytesRead = is.read(buf)) > 0) {
-                dos.write(buf, 0, bytesRead);
+    /**
+     * Build the metadata that is spooled with a published file: the method and file ID, followed by the request
+     * headers that are passed on to subscribers.
+     *
+     * @param req The publish request
+     * @param fileid The file ID
+     * @param isput Is this a PUT (so content headers are kept)?
+     * @param internal Is this a node to node transfer (so an incoming X-DMAAP-DR-RECEIVED header is kept)?
+     * @param rcvd The X-DMAAP-DR-RECEIVED entry for this node
+     */
+    static PublishMetadata buildMetadata(HttpServletRequest req, String fileid, boolean isput, boolean internal,
+        String rcvd) {
+        StringBuilder mx = new StringBuilder();
+        mx.append(req.getMethod()).append('\t').append(fileid).append('\n');
+        Enumeration<String> hnames = req.getHeaderNames();
+        String ctype = null;
+        boolean hasRequestIdHeader = false;
+        boolean hasInvocationIdHeader = false;
+        while (hnames.hasMoreElements()) {
+            String hn = hnames.nextElement();
+            String hnlc = hn.toLowerCase();
+            if ((isput && ("content-type".equals(hnlc)
+                || "content-language".equals(hnlc)
+                || "content-md5".equals(hnlc)
+                || "content-range".equals(hnlc)))
+                || "x-dmaap-dr-meta".equals(hnlc)
+                || (internal && "x-dmaap-dr-received".equals(hnlc))
+                || (hnlc.startsWith("x-") && !hnlc.startsWith("x-dmaap-dr-"))) {
+                Enumeration<String> hvals = req.getHeaders(hn);
+                while (hvals.hasMoreElements()) {
+                    String hv = hvals.nextElement();
+                    if ("content-type".equals(hnlc)) {
+                        ctype = hv;
+                    }
+                    if ("x-onap-requestid".equals(hnlc)) {
+                        hasRequestIdHeader = true;
+                    }
+                    if ("x-invocationid".equals(hnlc)) {
+                        hasInvocationIdHeader = true;
+                    }
+                    if ("x-dmaap-dr-meta".equals(hnlc)) {
+                        if (hv.length() > 4096) {
+                            return new PublishMetadata(null, ctype, "Metadata too long");
+                        }
+                        if (!metaDataPattern.matcher(hv.replaceAll("\\\\.", "X")).matches()) {
+                            return new PublishMetadata(null, ctype, "Malformed metadata");
+                        }
+                    }
+                    mx.append(hn).append('\t').append(hv).append('\n');
+                }
             }
+        }
+        if (!hasRequestIdHeader) {
+            mx.append("X-ONAP-RequestID\t").append(MDC.get("RequestId")).append('\n');
+        }
+        if (!hasInvocationIdHeader) {
+            mx.append("X-InvocationID\t").append(MDC.get("InvocationId")).append('\n');
+        }
+        mx.append("X-DMAAP-DR-RECEIVED\t").append(rcvd).append('\n');
+        return new PublishMetadata(mx.toString(), ctype, null);
+    }
+
+    private String writeInputStreamToFile(HttpServletRequest req, File data, MessageDigest digest) {
+        try (InputStream is = req.getInputStream()) {
+            spoolWriter.write(is, data.toPath(), digest);
         } catch (IOException ioe) {
             eelfLogger.error("NODE0530 Exception common: " + ioe, ioe);
             eelfLogger.info(EelfMsgs.EXIT);
@@ -447,6 +511,14 @@ public class NodeServlet extends HttpServlet {
         return null;
     }
 
+    private static MessageDigest newMd5() throws IOException {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+    }
+
     private long getExlen(HttpServletRequest req) {
         long exlen = -1;
         try {
@@ -556,6 +628,37 @@ public class NodeServlet extends HttpServlet {
         }
     }
 
+    /**
+     * The metadata built for a publish request, or the reason it was rejected.
+     */
+    static class PublishMetadata {
+
+        private final String text;
+        private final String contentType;
+        private final String error;
+
+        PublishMetadata(String text, String contentType, String error) {
+            this.text = text;
+            this.contentType = contentType;
+            this.error = error;
+        }
+
+        String getText() {
+            return text;
+        }
+
+        String getContentType() {
+            return contentType;
+        }
+
+        /**
+         * Get the reason the request's metadata was rejected, or null if it was accepted.
+         */
+        String getError() {
+            return error;
+        }
+    }
+
     /**
      * Utility class that validates the path url formed from
      * the string passed in the request parameters.
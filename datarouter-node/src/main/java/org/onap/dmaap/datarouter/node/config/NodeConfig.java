@@ -691,6 +691,7 @@ public class NodeConfig {
         private final boolean privilegedSubscriber;
         private final boolean followRedirect;
         private final boolean decompress;
+        private final int maxInFlight;
 
         /**
          * Construct a subscription configuration entry.
@@ -706,10 +707,11 @@ public class NodeConfig {
          * @param privilegedSubscriber Can we wait to receive a delete file call before deleting file
          * @param followRedirect Is follow redirect of destination enabled?
          * @param decompress To see if they want their information compressed or decompressed
+         * @param maxInFlight How many files may be delivered to this subscription concurrently
          */
         public ProvSubscription(String subid, String feedid, String url, String authuser, String credentials,
                 boolean metaonly, boolean use100, boolean privilegedSubscriber, boolean followRedirect,
-                boolean decompress) {
+                boolean decompress, int maxInFlight) {
             this.subid = subid;
             this.feedid = feedid;
             this.url = url;
@@ -720,6 +722,7 @@ public class NodeConfig {
             this.privilegedSubscriber = privilegedSubscriber;
             this.followRedirect = followRedirect;
             this.decompress = decompress;
+            this.maxInFlight = maxInFlight;
         }
 
         /**
@@ -792,6 +795,13 @@ public class NodeConfig {
         public boolean getFollowRedirect() {
             return (followRedirect);
         }
+
+        /**
+         * Get the number of files that may be delivered to this subscription concurrently.
+         */
+        public int getMaxInFlight() {
+            return (maxInFlight);
+        }
     }
 
     /**
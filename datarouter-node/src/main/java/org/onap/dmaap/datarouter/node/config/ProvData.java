@@ -29,6 +29,10 @@ import com.att.eelf.configuration.EELFManager;
 import java.io.IOException;
 import java.io.Reader;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
 import org.jetbrains.annotations.Nullable;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -74,6 +78,15 @@ public class ProvData {
      * @param reader The reader for the JSON text.
      */
     public ProvData(Reader reader) throws IOException {
+        this(parse(reader));
+    }
+
+    /**
+     * Construct raw provisioning data entries from an already parsed provisioning document.
+     *
+     * @param jsonObject The provisioning document.
+     */
+    public ProvData(JSONObject jsonObject) throws IOException {
         ArrayList<ProvNode> provNodeArrayList = new ArrayList<>();
         ArrayList<NodeConfig.ProvParam> provParamArrayList = new ArrayList<>();
         ArrayList<NodeConfig.ProvFeed> provFeedArrayList = new ArrayList<>();
@@ -84,23 +97,12 @@ public class ProvData {
         ArrayList<NodeConfig.ProvForceEgress> provForceEgressArrayList = new ArrayList<>();
         ArrayList<NodeConfig.ProvHop> provHopArrayList = new ArrayList<>();
         try {
-            JSONTokener jsonTokener = new JSONTokener(reader);
-            JSONObject jsonObject = new JSONObject(jsonTokener);
-            char nextCleanChar = jsonTokener.nextClean();
-            if (nextCleanChar != '\0') {
-                throw new JSONException("Spurious characters following configuration");
-            }
-            reader.close();
             addJSONFeeds(provFeedArrayList, provFeedUserArrayList, provFeedSubnetArrayList, jsonObject);
             addJSONSubs(provSubscriptionArrayList, jsonObject);
             addJSONParams(provNodeArrayList, provParamArrayList, jsonObject);
             addJSONRoutingInformation(provForceIngressArrayList, provForceEgressArrayList, provHopArrayList, jsonObject);
         } catch (JSONException jse) {
-            NodeUtils.setIpAndFqdnForEelf("ProvData");
-            eelfLogger.error(EelfMsgs.MESSAGE_PARSING_ERROR, jse.toString());
-            eelfLogger
-                    .error("NODE0201 Error parsing configuration data from provisioning server " + jse.toString(), jse);
-            throw new IOException(jse.toString(), jse);
+            throw parsingError(jse);
         }
         provNodes = provNodeArrayList.toArray(new ProvNode[0]);
         provParams = provParamArrayList.toArray(new ProvParam[0]);
@@ -113,6 +115,98 @@ public class ProvData {
         provHops = provHopArrayList.toArray(new ProvHop[0]);
     }
 
+    /**
+     * Parse the text (JSON) provisioning document, or delta, received from the provisioning server.
+     *
+     * @param reader The reader for the JSON text. It is closed once the document has been read.
+     * @return The parsed document.
+     */
+    public static JSONObject parse(Reader reader) throws IOException {
+        try (Reader jsonReader = reader) {
+            JSONTokener jsonTokener = new JSONTokener(jsonReader);
+            JSONObject jsonObject = new JSONObject(jsonTokener);
+            char nextCleanChar = jsonTokener.nextClean();
+            if (nextCleanChar != '\0') {
+                throw new JSONException("Spurious characters following configuration");
+            }
+            return jsonObject;
+        } catch (JSONException jse) {
+            throw parsingError(jse);
+        }
+    }
+
+    /**
+     * Apply a delta from the provisioning server to a provisioning document.
+     *
+     * <p>Feeds and subscriptions listed as changed replace the entry with the same ID, or are added if there is none,
+     * and those listed as deleted are removed. Any other section present in the delta replaces the whole section.
+     *
+     * @param document The provisioning document, which is updated in place.
+     * @param delta The delta, as returned by /internal/prov?since=...
+     */
+    public static void applyDelta(JSONObject document, JSONObject delta) throws IOException {
+        try {
+            for (String key : delta.keySet()) {
+                switch (key) {
+                    case "delta":
+                    case "since":
+                    case "version":
+                        break;
+                    case "feeds":
+                        applyEntityDelta(document, delta.getJSONObject(key), key, FEED_ID);
+                        break;
+                    case "subscriptions":
+                        applyEntityDelta(document, delta.getJSONObject(key), key, "subid");
+                        break;
+                    default:
+                        document.put(key, delta.get(key));
+                        break;
+                }
+            }
+        } catch (JSONException jse) {
+            throw parsingError(jse);
+        }
+    }
+
+    private static void applyEntityDelta(JSONObject document, JSONObject changes, String section, String idKey) {
+        JSONArray entities = document.optJSONArray(section);
+        if (entities == null) {
+            entities = new JSONArray();
+        }
+        Map<String, JSONObject> changed = new LinkedHashMap<>();
+        JSONArray changedArray = changes.getJSONArray("changed");
+        for (int i = 0; i < changedArray.length(); i++) {
+            JSONObject entity = changedArray.getJSONObject(i);
+            changed.put(entity.get(idKey).toString(), entity);
+        }
+        Set<String> deleted = new HashSet<>();
+        JSONArray deletedArray = changes.getJSONArray("deleted");
+        for (int i = 0; i < deletedArray.length(); i++) {
+            deleted.add(deletedArray.get(i).toString());
+        }
+        JSONArray updated = new JSONArray();
+        for (int i = 0; i < entities.length(); i++) {
+            JSONObject entity = entities.getJSONObject(i);
+            String id = entity.get(idKey).toString();
+            if (deleted.contains(id)) {
+                continue;
+            }
+            JSONObject replacement = changed.remove(id);
+            updated.put(replacement == null ? entity : replacement);
+        }
+        for (JSONObject entity : changed.values()) {
+            updated.put(entity);
+        }
+        document.put(section, updated);
+    }
+
+    private static IOException parsingError(JSONException jse) {
+        NodeUtils.setIpAndFqdnForEelf("ProvData");
+        eelfLogger.error(EelfMsgs.MESSAGE_PARSING_ERROR, jse.toString());
+        eelfLogger.error("NODE0201 Error parsing configuration data from provisioning server " + jse.toString(), jse);
+        return new IOException(jse.toString(), jse);
+    }
+
     private static String[] gvasa(JSONObject object, String key) {
         return (gvasa(object.opt(key)));
     }
@@ -299,8 +393,9 @@ public class ProvData {
         boolean privilegedSubscriber = jsub.getBoolean("privilegedSubscriber");
         boolean decompress = jsub.getBoolean("decompress");
         boolean followRedirect = jsub.getBoolean("follow_redirect");
+        int maxInFlight = jsub.optInt("maxInFlight", 1);
         psv.add(new ProvSubscription(sid, fid, delurl, id, NodeUtils.getAuthHdr(id, password), monly, use100,
-                privilegedSubscriber, followRedirect, decompress));
+                privilegedSubscriber, followRedirect, decompress, maxInFlight));
     }
 
     private void addJSONParams(ArrayList<ProvNode> pnv, ArrayList<ProvParam> ppv, JSONObject jcfg) {
@@ -28,10 +28,11 @@ import com.att.eelf.configuration.EELFManager;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Map;
 import java.util.Objects;
+import java.util.PriorityQueue;
 import org.onap.dmaap.datarouter.node.DestInfo;
 import org.onap.dmaap.datarouter.node.NodeConfigManager;
 
@@ -42,7 +43,8 @@ import org.onap.dmaap.datarouter.node.NodeConfigManager;
  * delivery queues as configuration changes. DeliveryQueues are assigned threads based on a modified round-robin
  * approach giving priority to queues with more work as measured by both bytes to deliver and files to deliver and lower
  * priority to queues that already have delivery threads working. A delivery thread continues to work for a delivery
- * queue as long as that queue has more files to deliver.
+ * queue as long as that queue has more files to deliver. A queue is offered to further idle threads until as many
+ * threads are working on it as its destination's max in flight allows.
  */
 public class Delivery {
 
@@ -54,10 +56,12 @@ public class Delivery {
     private int threads;
     private int curthreads;
     private NodeConfigManager config;
-    private HashMap<String, DeliveryQueue> dqs = new HashMap<>();
+    private volatile HashMap<String, DeliveryQueue> dqs = new HashMap<>();
     private DeliveryQueue[] queues = new DeliveryQueue[0];
     private int qpos = 0;
     private long nextcheck;
+    private DeliveryConnectionPool connectionPool;
+    private volatile boolean spoolChecked;
 
     /**
      * Constructs a new Delivery system using the specified configuration manager.
@@ -66,17 +70,30 @@ public class Delivery {
      */
     public Delivery(NodeConfigManager config) {
         this.config = config;
+        if (config.isDeliveryConnectionPooling()) {
+            connectionPool = new DeliveryConnectionPool(config.getDeliveryPoolMaxPerDest(),
+                config.getDeliveryPoolIdleTimeout());
+        }
         Runnable cmon = this::checkconfig;
         config.registerConfigTask(cmon);
     }
 
     /**
-     * Reset the retry timer for a delivery queue.
+     * Get the delivery queues for the current configuration.
+     */
+    public Collection<DeliveryQueue> getQueues() {
+        return dqs.values();
+    }
+
+    /**
+     * Reset the retry timer for a delivery queue, and have it scan its spool directory again, so that files put
+     * there other than by a publish are picked up.
      */
     public synchronized void resetQueue(String spool) {
         if (spool != null) {
             DeliveryQueue dq = dqs.get(spool);
             if (dq != null) {
+                dq.requestRescan();
                 dq.resetQueue();
             }
         }
@@ -96,6 +113,18 @@ public class Delivery {
         return succeeded;
     }
 
+    /**
+     * Tell the delivery queue for a spool directory that a new file has been spooled for it.
+     * If there is no queue for the spool directory yet, the file will be found when the queue
+     * is created and scans its spool directory.
+     */
+    public void addPending(String spool, String pubid) {
+        DeliveryQueue dq = dqs.get(spool);
+        if (dq != null) {
+            dq.addPending(pubid);
+        }
+    }
+
     private void cleardir(String dir) {
         if (dqs.get(dir) != null) {
             return;
@@ -121,21 +150,15 @@ public class Delivery {
         if (cur >= start) {
             return;
         }
-        ArrayList<DelItem> cv = new ArrayList<>();
-        for (String sdir : dqs.keySet()) {
-            for (String meta : (new File(sdir)).list()) {
-                if (!meta.endsWith(".M") || meta.charAt(0) == '.') {
-                    continue;
-                }
-                cv.add(new DelItem(meta.substring(0, meta.length() - 2), sdir));
-            }
-        }
-        DelItem[] items = cv.toArray(new DelItem[cv.size()]);
-        Arrays.sort(items);
         long stop = (long) (tspace * fdstop);
+        long spooled = 0;
+        for (DeliveryQueue dq : dqs.values()) {
+            spooled += dq.getPendingBytes();
+        }
         logger.warn(
-            "NODE0501 Free disk space below red threshold.  current=" + cur + " red=" + start + TOTAL + tspace);
-        if (determineFreeDiskSpace(spoolfile, tspace, stop, cur, items)) {
+            "NODE0501 Free disk space below red threshold.  current=" + cur + " red=" + start + TOTAL + tspace
+                + " spooled=" + spooled);
+        if (determineFreeDiskSpace(spoolfile, tspace, stop, cur)) {
             return;
         }
         cur = spoolfile.getUsableSpace();
@@ -178,9 +201,22 @@ public class Delivery {
         }
     }
 
-    private synchronized void checkconfig() {
+    /**
+     * Pick up a new configuration. The queues are switched over while holding the lock; clearing out the spool
+     * directories of dropped destinations walks the whole spool tree, so it is done afterwards, without the lock, and
+     * only when a destination was actually dropped (or on the first configuration, for ones dropped while the node was
+     * down).
+     */
+    private void checkconfig() {
+        if (switchQueues()) {
+            cleardirs();
+            spoolChecked = true;
+        }
+    }
+
+    private synchronized boolean switchQueues() {
         if (!config.isConfigured()) {
-            return;
+            return false;
         }
         fdstart = config.getFreeDiskStart();
         fdstop = config.getFreeDiskStop();
@@ -196,16 +232,19 @@ public class Delivery {
             String spl = di.getSpool();
             DeliveryQueue dq = dqs.get(spl);
             if (dq == null) {
-                dq = new DeliveryQueue(config, di);
+                dq = new DeliveryQueue(config, di, connectionPool);
             } else {
                 dq.config(di);
             }
             ndqs.put(spl, dq);
             nqs[qpos++] = dq;
         }
+        boolean dropped = !spoolChecked || !ndqs.keySet().containsAll(dqs.keySet());
         queues = nqs;
         dqs = ndqs;
-        cleardirs();
+        if (connectionPool != null) {
+            connectionPool.retain(alldis);
+        }
         while (curthreads < threads) {
             curthreads++;
             (new Thread("del-thread-" + curthreads) {
@@ -217,12 +256,17 @@ public class Delivery {
         }
         nextcheck = 0;
         notifyAll();
+        return dropped;
     }
 
     private void dodelivery() {
         DeliveryQueue dq;
         while ((dq = getNextQueue()) != null) {
-            dq.run();
+            try {
+                dq.run();
+            } finally {
+                dq.releaseRunner();
+            }
         }
     }
 
@@ -233,10 +277,14 @@ public class Delivery {
                 return (null);
             }
             if (qpos < queues.length) {
-                DeliveryQueue dq = queues[qpos++];
-                if (dq.isSkipSet()) {
+                DeliveryQueue dq = queues[qpos];
+                if (dq.isSkipSet() || !dq.claimRunner()) {
+                    qpos++;
                     continue;
                 }
+                if (!dq.hasRunnerCapacity()) {
+                    qpos++;
+                }
                 nextcheck = 0;
                 notifyAll();
                 return (dq);
@@ -254,13 +302,51 @@ public class Delivery {
                 nextcheck = now + 5000;
                 qpos = 0;
                 freeDiskCheck();
+                closeIdleConnections();
             }
         }
     }
 
-    private boolean determineFreeDiskSpace(File spoolfile, long tspace, long stop, long cur, DelItem[] items) {
-        for (DelItem item : items) {
-            long amount = dqs.get(item.getSpool()).cancelTask(item.getPublishId());
+    private void closeIdleConnections() {
+        if (connectionPool == null) {
+            return;
+        }
+        connectionPool.closeIdle();
+        logger.debug("NODE0541 Delivery connection pools=" + connectionPool.getPoolCount() + " hits="
+            + connectionPool.getHits() + " misses=" + connectionPool.getMisses() + " handshakesAvoided="
+            + connectionPool.getHandshakesAvoided() + " staleRetries=" + connectionPool.getStaleRetries());
+    }
+
+    /**
+     * Get the pool of persistent connections used for deliveries.
+     *
+     * @return The connection pool or null if deliveries use a new HttpURLConnection for each file.
+     */
+    public DeliveryConnectionPool getConnectionPool() {
+        return (connectionPool);
+    }
+
+    /**
+     * Discard files, oldest first across all queues, until free space reaches the yellow threshold.  Only the oldest
+     * remaining file of each queue is held at a time, so the cost depends on the number of files discarded rather
+     * than on the number spooled.
+     */
+    private boolean determineFreeDiskSpace(File spoolfile, long tspace, long stop, long cur) {
+        PriorityQueue<DelItem> oldest = new PriorityQueue<>();
+        for (Map.Entry<String, DeliveryQueue> entry : dqs.entrySet()) {
+            String pubid = entry.getValue().getNextPending(null);
+            if (pubid != null) {
+                oldest.add(new DelItem(pubid, entry.getKey()));
+            }
+        }
+        DelItem item;
+        while ((item = oldest.poll()) != null) {
+            DeliveryQueue dq = dqs.get(item.getSpool());
+            String next = dq.getNextPending(item.getPublishId());
+            if (next != null) {
+                oldest.add(new DelItem(next, item.getSpool()));
+            }
+            long amount = dq.cancelTask(item.getPublishId());
             logger.debug("NODE0502 Attempting to discard " + item.getSpool() + "/" + item.getPublishId()
                 + " to free up disk");
             if (amount > 0) {
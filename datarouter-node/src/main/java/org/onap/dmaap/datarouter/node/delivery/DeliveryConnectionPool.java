@@ -0,0 +1,289 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpException;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ManagedHttpClientConnection;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+import org.onap.dmaap.datarouter.node.DestInfo;
+
+/**
+ * Persistent HTTP connections for delivering files to destinations.
+ *
+ * <p>Each destination (keyed by its spool directory) gets its own pool of keep-alive connections, so consecutive
+ * deliveries to the same subscriber endpoint reuse an open connection instead of connecting (and, for https,
+ * doing a TLS handshake) for every file. The pool also counts how often a delivery was able to reuse a connection.
+ *
+ * <p>A subscriber may close a keep-alive connection while it sits in the pool. Connections idle for more than two
+ * seconds are checked before they are reused, but one closed more recently only shows up as no response to the
+ * delivery request. A request that gets no response on a reused connection is sent once more, on a new connection,
+ * rather than being counted as a failed delivery.
+ *
+ * <p>Deliveries lease a destination's client for the length of a request. When a destination is no longer
+ * configured its pool is closed once the last delivery still using it finishes, not while that delivery is in
+ * flight.
+ */
+public class DeliveryConnectionPool {
+
+    private static final EELFLogger logger = EELFManager.getInstance().getLogger(DeliveryConnectionPool.class);
+    private static final String REUSED = DeliveryConnectionPool.class.getName() + ".reused";
+    private static final Registry<ConnectionSocketFactory> socketFactories =
+        RegistryBuilder.<ConnectionSocketFactory>create()
+            .register("http", PlainConnectionSocketFactory.getSocketFactory())
+            .register("https", SSLConnectionSocketFactory.getSystemSocketFactory()).build();
+    private final int maxPerDest;
+    private final long idleTimeout;
+    private final RequestConfig requestConfig;
+    private final HashMap<String, Pool> pools = new HashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong handshakesAvoided = new AtomicLong();
+    private final AtomicLong staleRetries = new AtomicLong();
+
+    /**
+     * Create the delivery connection pools.
+     *
+     * @param maxPerDest The maximum number of open connections to a single destination
+     * @param idleTimeout How long (milliseconds) an unused connection is kept open
+     */
+    public DeliveryConnectionPool(int maxPerDest, long idleTimeout) {
+        this.maxPerDest = maxPerDest;
+        this.idleTimeout = idleTimeout;
+        requestConfig = RequestConfig.custom().setConnectTimeout(60000).setSocketTimeout(60000)
+            .setRedirectsEnabled(false).build();
+    }
+
+    /**
+     * Lease the HTTP client for delivering to a destination. The lease must be closed when the delivery is done.
+     */
+    public synchronized Lease lease(DestInfo destInfo) {
+        Pool pool = pools.computeIfAbsent(destInfo.getSpool(), spool -> new Pool());
+        pool.leases++;
+        return new Lease(pool);
+    }
+
+    /**
+     * Give back a lease, closing its pool if the destination was removed and this was the last delivery using it.
+     */
+    private synchronized void release(Pool pool) {
+        if (--pool.leases == 0 && pool.retired) {
+            pool.close();
+        }
+    }
+
+    /**
+     * Get the request configuration (timeouts, redirects) for delivery requests.
+     */
+    public RequestConfig getRequestConfig() {
+        return requestConfig;
+    }
+
+    /**
+     * Record whether a delivery request is being sent on an already open connection.
+     */
+    private void recordConnection(HttpClientConnection connection, HttpContext context) {
+        boolean reused = connection.getMetrics().getRequestCount() > 0;
+        context.setAttribute(REUSED, reused);
+        if (reused) {
+            hits.incrementAndGet();
+            if (connection instanceof ManagedHttpClientConnection
+                && ((ManagedHttpClientConnection) connection).getSSLSession() != null) {
+                handshakesAvoided.incrementAndGet();
+            }
+        } else {
+            misses.incrementAndGet();
+        }
+    }
+
+    /**
+     * Decide whether to send a request again after it failed. Only a request that got no response on a reused
+     * connection, which the destination most likely closed while it was idle, is sent again, and only once.
+     */
+    private boolean retryStale(IOException exception, int executionCount, HttpContext context) {
+        if (executionCount > 1 || !(exception instanceof NoHttpResponseException)
+            || !Boolean.TRUE.equals(context.getAttribute(REUSED))) {
+            return false;
+        }
+        staleRetries.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Close connections that have been idle for longer than the idle timeout.
+     */
+    public synchronized void closeIdle() {
+        for (Pool pool : pools.values()) {
+            pool.manager.closeExpiredConnections();
+            pool.manager.closeIdleConnections(idleTimeout, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Close the pools of any destinations that are no longer configured. A pool still leased by a delivery is closed
+     * when that delivery finishes.
+     */
+    public synchronized void retain(DestInfo[] destInfos) {
+        Set<String> spools = new HashSet<>();
+        for (DestInfo destInfo : destInfos) {
+            spools.add(destInfo.getSpool());
+        }
+        pools.entrySet().removeIf(entry -> {
+            if (spools.contains(entry.getKey())) {
+                return false;
+            }
+            Pool pool = entry.getValue();
+            pool.retired = true;
+            if (pool.leases == 0) {
+                pool.close();
+            }
+            return true;
+        });
+    }
+
+    /**
+     * Get the number of deliveries that reused an open connection.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of deliveries that needed a new connection.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Get the number of TLS handshakes avoided by reusing connections.
+     */
+    public long getHandshakesAvoided() {
+        return handshakesAvoided.get();
+    }
+
+    /**
+     * Get the number of deliveries sent again because a reused connection turned out to be closed.
+     */
+    public long getStaleRetries() {
+        return staleRetries.get();
+    }
+
+    /**
+     * Get the number of destinations with a connection pool.
+     */
+    public synchronized int getPoolCount() {
+        return pools.size();
+    }
+
+    private class Pool {
+
+        private final PoolingHttpClientConnectionManager manager;
+        private final CloseableHttpClient client;
+        private int leases;
+        private boolean retired;
+
+        Pool() {
+            manager = new PoolingHttpClientConnectionManager(socketFactories);
+            manager.setMaxTotal(maxPerDest);
+            manager.setDefaultMaxPerRoute(maxPerDest);
+            manager.setValidateAfterInactivity(2000);
+            client = HttpClients.custom().useSystemProperties().setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig).disableRedirectHandling()
+                .setRetryHandler(DeliveryConnectionPool.this::retryStale).disableContentCompression()
+                .setRequestExecutor(new CountingRequestExecutor()).build();
+        }
+
+        void close() {
+            try {
+                client.close();
+            } catch (IOException e) {
+                logger.error("NODE0540 Failed to close delivery connection pool", e);
+            }
+        }
+    }
+
+    /**
+     * A delivery's use of a destination's HTTP client. Closing the lease does not close the client, but lets the pool
+     * be closed once the destination is no longer configured.
+     */
+    public final class Lease implements Closeable {
+
+        private final Pool pool;
+        private boolean released;
+
+        private Lease(Pool pool) {
+            this.pool = pool;
+        }
+
+        /**
+         * Get the HTTP client for the leased destination.
+         */
+        public CloseableHttpClient getClient() {
+            return pool.client;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(pool);
+            }
+        }
+    }
+
+    /**
+     * Sends requests, recording for each whether it went on an open connection. Request interceptors run before the
+     * connection is leased from the pool, so this is the first point at which the connection is known.
+     */
+    private class CountingRequestExecutor extends HttpRequestExecutor {
+
+        @Override
+        public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+            throws IOException, HttpException {
+            recordConnection(conn, context);
+            return super.execute(request, conn, context);
+        }
+    }
+}
@@ -28,11 +28,15 @@ import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
 import java.io.File;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 import org.jetbrains.annotations.Nullable;
 import org.onap.dmaap.datarouter.node.DestInfo;
+import org.onap.dmaap.datarouter.node.log.NodeMetrics;
 import org.onap.dmaap.datarouter.node.log.StatusLog;
 
 /**
@@ -58,21 +62,39 @@ import org.onap.dmaap.datarouter.node.log.StatusLog;
  * The queue maintains 3 collections of files to deliver: A todoList of
  * files that will be attempted, a working set of files that are being
  * attempted, and a retry set of files that were attempted and failed.
- * Whenever the todoList is empty and needs to be refilled, a scan of the
- * spool directory is made and the file names sorted.  Any files in the working set are ignored.
+ * It also keeps a time ordered index of the publish IDs of all files
+ * pending in the spool directory, along with the number of bytes they hold.
+ * The index is built from a scan of the
+ * spool directory when the queue is created, and is then kept up to date
+ * as files are spooled (see addPending()) and cleaned.  The spool directory
+ * is only scanned again if the index is found to be out of step with it.
+ * Whenever the todoList is empty and needs to be refilled, the next batch
+ * of (at most TODO_BATCH_SIZE) files is taken from the index, continuing
+ * from where the previous batch left off, or from the oldest file once the
+ * end of the index is reached.  Any files in the working set are ignored.
  * If a DeliveryTask for the file is in the retry set, then that delivery
  * task is placed on the todoList.  Otherwise, a new DeliveryTask for the
- * file is created and placed on the todoList.
+ * file is created and placed on the todoList.  The parsed metadata of the
+ * most recently used METADATA_CACHE_SIZE files is kept, so a new
+ * DeliveryTask for a file seen on an earlier pass does not read its
+ * metadata file again.  It is dropped when the file is cleaned.
  * If, when a DeliveryTask is about to be removed from the todoList, its
  * age exceeds DeliveryQueueHelper.getExpirationTimer(), then it is instead
  * marked as expired.
  *
  * <p>A delivery queue also maintains a skip flag.  This flag is true if the
  * failure timer is active or if no files are found in a directory scan.
+ *
+ * <p>At most DestInfo.getMaxInFlight() delivery threads work on a queue at
+ * the same time (see claimRunner()).  With the default of 1, files are
+ * delivered to the destination one at a time, in publish order.
  */
 public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
+    private static final int TODO_BATCH_SIZE = 1000;
+    private static final int METADATA_CACHE_SIZE = 2 * TODO_BATCH_SIZE;
     private static EELFLogger logger = EELFManager.getInstance().getLogger(DeliveryQueue.class);
     private DeliveryQueueHelper deliveryQueueHelper;
+    private DeliveryConnectionPool connectionPool;
 
     private DestInfo destinationInfo;
     private HashMap<String, DeliveryTask> working = new HashMap<>();
@@ -83,13 +105,34 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
     private long resumetime;
     private File dir;
     private List<DeliveryTask> todoList = new ArrayList<>();
+    private TreeMap<String, Long> pending = new TreeMap<>();
+    private long pendingBytes;
+    private String lastQueued;
+    private boolean rescanNeeded = true;
+    private int runners;
+    private LinkedHashMap<String, DeliveryTaskMetadata> metadataCache =
+            new LinkedHashMap<String, DeliveryTaskMetadata>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, DeliveryTaskMetadata> eldest) {
+                    return size() > METADATA_CACHE_SIZE;
+                }
+            };
 
     /**
      * Create a delivery queue for a given destination info.
      */
     public DeliveryQueue(DeliveryQueueHelper deliveryQueueHelper, DestInfo destinationInfo) {
+        this(deliveryQueueHelper, destinationInfo, null);
+    }
+
+    /**
+     * Create a delivery queue for a given destination info that delivers using pooled connections.
+     */
+    public DeliveryQueue(DeliveryQueueHelper deliveryQueueHelper, DestInfo destinationInfo,
+            DeliveryConnectionPool connectionPool) {
         this.deliveryQueueHelper = deliveryQueueHelper;
         this.destinationInfo = destinationInfo;
+        this.connectionPool = connectionPool;
         dir = new File(destinationInfo.getSpool());
         dir.mkdirs();
     }
@@ -114,7 +157,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
             }
         }
         if (dt == null) {
-            dt = new DeliveryTask(this, pubid);
+            dt = new DeliveryTask(this, pubid, getMetadata(pubid));
             if (dt.getFileId() == null) {
                 return (0);
             }
@@ -124,7 +167,8 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         }
         StatusLog.logExp(dt.getPublishId(), dt.getFeedId(), dt.getSubId(), dt.getURL(),
                 dt.getMethod(), dt.getCType(), dt.getLength(), "diskFull", dt.getAttempts());
-        dt.clean();
+        NodeMetrics.recordExpiry(destinationInfo.getName());
+        clean(dt);
         return (dt.getLength());
     }
 
@@ -134,7 +178,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
     private synchronized void markSuccess(DeliveryTask task) {
         working.remove(task.getPublishId());
         logger.info(task.getPublishId() + " marked as success.");
-        task.clean();
+        clean(task);
         failed = false;
         failduration = 0;
     }
@@ -144,7 +188,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
      */
     private synchronized void markExpired(DeliveryTask task) {
         logger.info(task.getPublishId() + " marked as expired.");
-        task.clean();
+        clean(task);
     }
 
     /**
@@ -153,11 +197,33 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
     private synchronized void markFailNoRetry(DeliveryTask task) {
         working.remove(task.getPublishId());
         logger.info(task.getPublishId() + " marked as failed permanently");
-        task.clean();
+        clean(task);
         failed = false;
         failduration = 0;
     }
 
+    /**
+     * Remove the files for a delivery task and drop it from the pending index.
+     */
+    private void clean(DeliveryTask task) {
+        task.clean();
+        removePending(task.getPublishId());
+    }
+
+    private void removePending(String pubid) {
+        Long length = pending.remove(pubid);
+        if (length != null) {
+            pendingBytes -= length;
+        }
+        metadataCache.remove(pubid);
+    }
+
+    private void putPending(String pubid) {
+        long length = new File(dir, pubid).length();
+        Long old = pending.put(pubid, length);
+        pendingBytes += length - (old == null ? 0 : old);
+    }
+
     private void fdupdate() {
         if (!failed) {
             failed = true;
@@ -221,21 +287,76 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
                 return (null);
             }
         }
-        while (true) {
-            if (todoindex >= todoList.size()) {
-                todoindex = 0;
-                todoList = new ArrayList<>();
-                String[] files = dir.list();
-                if (files != null) {
-                    Arrays.sort(files);
-                    scanForNextTask(files);
-                }
-                retry = new HashMap<>();
-            }
-            return getDeliveryTask(mindate);
+        if (todoindex >= todoList.size()) {
+            refillTodoList();
+        }
+        return getDeliveryTask(mindate);
+    }
+
+    /**
+     * Record that a file has been placed in the spool directory for this queue.
+     *
+     * @param pubid The publish ID of the newly spooled file
+     */
+    public synchronized void addPending(String pubid) {
+        putPending(pubid);
+    }
+
+    /**
+     * Rebuild the pending index from the spool directory before the next batch of files is taken from it.
+     */
+    public synchronized void requestRescan() {
+        rescanNeeded = true;
+    }
+
+    /**
+     * Get the number of files pending in the spool directory for this queue.
+     */
+    public synchronized int getPendingFileCount() {
+        return pending.size();
+    }
+
+    /**
+     * Get the number of bytes in the data files pending in the spool directory for this queue.
+     */
+    public synchronized long getPendingBytes() {
+        return pendingBytes;
+    }
+
+    /**
+     * Get the time the oldest file pending for this queue was published.
+     *
+     * @return The time in milliseconds, taken from its publish ID, or 0 if there are no pending files.
+     */
+    public synchronized long getOldestPendingTime() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+        String pubid = pending.firstKey();
+        int dot = pubid.indexOf('.');
+        try {
+            return Long.parseLong(dot < 0 ? pubid : pubid.substring(0, dot));
+        } catch (NumberFormatException e) {
+            return 0;
         }
     }
 
+    /**
+     * Get the oldest file pending for this queue that was published after a given file.
+     *
+     * @param pubid The publish ID to start after, or null to get the oldest pending file.
+     * @return The publish ID, or null if there are no more pending files.
+     */
+    public synchronized String getNextPending(String pubid) {
+        if (rescanNeeded) {
+            rescanSpool();
+        }
+        if (pubid == null) {
+            return pending.isEmpty() ? null : pending.firstKey();
+        }
+        return pending.higherKey(pubid);
+    }
+
     /**
      * Update the destination info for this delivery queue.
      */
@@ -270,6 +391,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
     void reportExpiry(DeliveryTask task) {
         StatusLog.logExp(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                 task.getCType(), task.getLength(), "retriesExhausted", task.getAttempts());
+        NodeMetrics.recordExpiry(destinationInfo.getName());
         markExpired(task);
     }
 
@@ -280,6 +402,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         if (status < 300) {
             StatusLog.logDel(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                     task.getCType(), task.getLength(), destinationInfo.getAuthUser(), status, xpubid);
+            NodeMetrics.recordDelivery(destinationInfo.getName(), task.getLength());
             if (destinationInfo.isPrivilegedSubscriber()) {
                 task.setResumeTime(System.currentTimeMillis()
                                            + deliveryQueueHelper.getWaitForFileProcessFailureTimer());
@@ -291,10 +414,12 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
             StatusLog.logDel(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                     task.getCType(), task.getLength(), destinationInfo.getAuthUser(), status, location);
             if (deliveryQueueHelper.handleRedirection(destinationInfo, location, task.getFileId())) {
+                NodeMetrics.recordRetry(destinationInfo.getName());
                 markRedirect(task);
             } else {
                 StatusLog.logExp(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(),
                         task.getMethod(), task.getCType(), task.getLength(), "notRetryable", task.getAttempts());
+                NodeMetrics.recordExpiry(destinationInfo.getName());
                 markFailNoRetry(task);
             }
         } else if (status < 500 && status != 429) {
@@ -304,10 +429,12 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
                     task.getCType(), task.getLength(), destinationInfo.getAuthUser(), status, location);
             StatusLog.logExp(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                     task.getCType(), task.getLength(), "notRetryable", task.getAttempts());
+            NodeMetrics.recordExpiry(destinationInfo.getName());
             markFailNoRetry(task);
         } else {
             StatusLog.logDel(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                     task.getCType(), task.getLength(), destinationInfo.getAuthUser(), status, location);
+            NodeMetrics.recordRetry(destinationInfo.getName());
             markFailWithRetry(task);
         }
     }
@@ -319,6 +446,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         StatusLog.logDel(task.getPublishId(), task.getFeedId(), task.getSubId(), task.getURL(), task.getMethod(),
                 task.getCType(), task.getLength(), destinationInfo.getAuthUser(), -1, exception.toString());
         deliveryQueueHelper.handleUnreachable(destinationInfo);
+        NodeMetrics.recordRetry(destinationInfo.getName());
         markFailWithRetry(task);
     }
 
@@ -332,6 +460,13 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         return (deliveryQueueHelper.getFeedId(subid));
     }
 
+    /**
+     * Get the pool of persistent connections to deliver with.
+     */
+    public DeliveryConnectionPool getConnectionPool() {
+        return (connectionPool);
+    }
+
     /**
      * Get the URL to deliver a message to given the file ID.
      */
@@ -356,6 +491,36 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         }
     }
 
+    /**
+     * Claim a delivery thread slot for this queue.
+     *
+     * @return true if fewer than DestInfo.getMaxInFlight() threads were working on this queue, in which case the
+     *      caller must call releaseRunner() once it stops working on it.
+     */
+    public synchronized boolean claimRunner() {
+        if (runners >= destinationInfo.getMaxInFlight()) {
+            return false;
+        }
+        runners++;
+        return true;
+    }
+
+    /**
+     * Is there a delivery thread slot free for this queue?.
+     */
+    public synchronized boolean hasRunnerCapacity() {
+        return (runners < destinationInfo.getMaxInFlight());
+    }
+
+    /**
+     * Release a delivery thread slot claimed by claimRunner().
+     */
+    public synchronized void releaseRunner() {
+        if (runners > 0) {
+            runners--;
+        }
+    }
+
     /**
      * Is there no work to do for this queue right now?.
      */
@@ -373,7 +538,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
     /**
      * Get task if in queue and mark as success.
      */
-    public boolean markTaskSuccess(String pubId) {
+    public synchronized boolean markTaskSuccess(String pubId) {
         DeliveryTask task = working.get(pubId);
         if (task != null) {
             markSuccess(task);
@@ -382,7 +547,7 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         task = retry.get(pubId);
         if (task != null) {
             retry.remove(pubId);
-            task.clean();
+            clean(task);
             resetQueue();
             failduration = 0;
             return true;
@@ -390,20 +555,75 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         return false;
     }
 
-    private void scanForNextTask(String[] files) {
-        for (String fname : files) {
-            String pubId = getPubId(fname);
-            if (pubId == null) {
+    private void refillTodoList() {
+        todoindex = 0;
+        todoList = new ArrayList<>();
+        if (rescanNeeded) {
+            rescanSpool();
+        }
+        scanForNextTask();
+        if (todoList.isEmpty() && lastQueued != null) {
+            // Reached the end of the index; start the next pass from the oldest file
+            lastQueued = null;
+            retry.keySet().retainAll(pending.keySet());
+            scanForNextTask();
+        }
+    }
+
+    private void rescanSpool() {
+        rescanNeeded = false;
+        lastQueued = null;
+        pending = new TreeMap<>();
+        pendingBytes = 0;
+        String[] files = dir.list();
+        if (files != null) {
+            for (String fname : files) {
+                String pubId = getPubId(fname);
+                if (pubId != null) {
+                    putPending(pubId);
+                }
+            }
+        }
+        retry.keySet().retainAll(pending.keySet());
+        metadataCache.keySet().retainAll(pending.keySet());
+    }
+
+    private void scanForNextTask() {
+        Iterator<String> iterator = (lastQueued == null ? pending : pending.tailMap(lastQueued, false)).keySet()
+                .iterator();
+        while (iterator.hasNext() && todoList.size() < TODO_BATCH_SIZE) {
+            String pubId = iterator.next();
+            lastQueued = pubId;
+            if (working.get(pubId) != null) {
                 continue;
             }
-            DeliveryTask dt = retry.get(pubId);
+            DeliveryTask dt = retry.remove(pubId);
             if (dt == null) {
-                dt = new DeliveryTask(this, pubId);
+                if (!new File(dir, pubId + ".M").exists()) {
+                    logger.warn("Pending file " + pubId + " missing from " + dir + ". Rescanning spool.");
+                    pendingBytes -= pending.get(pubId);
+                    iterator.remove();
+                    metadataCache.remove(pubId);
+                    rescanNeeded = true;
+                    continue;
+                }
+                dt = new DeliveryTask(this, pubId, getMetadata(pubId));
             }
             todoList.add(dt);
         }
     }
 
+    private DeliveryTaskMetadata getMetadata(String pubId) {
+        DeliveryTaskMetadata metadata = metadataCache.get(pubId);
+        if (metadata == null) {
+            metadata = DeliveryTaskMetadata.read(new File(dir, pubId + ".M"));
+            if (metadata.isValid()) {
+                metadataCache.put(pubId, metadata);
+            }
+        }
+        return metadata;
+    }
+
     @Nullable
     private DeliveryTask getDeliveryTask(long mindate) {
         if (todoindex < todoList.size()) {
@@ -443,9 +663,6 @@ public class DeliveryQueue implements Runnable, DeliveryTaskHelper {
         if (pidtime < 1000000000000L) {
             return null;
         }
-        if (working.get(fname2) != null) {
-            return null;
-        }
         return fname2;
     }
 }
\ No newline at end of file
@@ -29,10 +29,8 @@ import static org.onap.dmaap.datarouter.node.utils.NodeUtils.isFiletypeGzip;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -44,6 +42,16 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.UUID;
 import java.util.zip.GZIPInputStream;
+import org.apache.commons.io.output.CountingOutputStream;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.RequestBuilder;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.HttpEntityWrapper;
+import org.apache.http.util.EntityUtils;
 import org.jetbrains.annotations.Nullable;
 import org.onap.dmaap.datarouter.node.DestInfo;
 import org.onap.dmaap.datarouter.node.utils.NodeUtils;
@@ -89,6 +97,18 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
      *      is of the form (milliseconds since 1970).(fqdn of initial data router node)
      */
     public DeliveryTask(DeliveryTaskHelper deliveryTaskHelper, String pubid) {
+        this(deliveryTaskHelper, pubid, DeliveryTaskMetadata.read(
+                new File(deliveryTaskHelper.getDestinationInfo().getSpool() + File.separator + pubid + ".M")));
+    }
+
+    /**
+     * Create a delivery task from metadata that has already been read.
+     *
+     * @param deliveryTaskHelper The delivery task helper for the queue this task is in.
+     * @param pubid The publish ID for this file.
+     * @param metadata The parsed contents of the file's metadata file.
+     */
+    DeliveryTask(DeliveryTaskHelper deliveryTaskHelper, String pubid, DeliveryTaskMetadata metadata) {
         this.deliveryTaskHelper = deliveryTaskHelper;
         this.pubid = pubid;
         destInfo = deliveryTaskHelper.getDestinationInfo();
@@ -103,43 +123,39 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
         boolean monly = destInfo.isMetaDataOnly();
         date = Long.parseLong(pubid.substring(0, pubid.indexOf('.')));
         resumeTime = System.currentTimeMillis();
-        ArrayList<String[]> hdrv = new ArrayList<>();
-
-        try (BufferedReader br = new BufferedReader(new FileReader(metafile))) {
-            String line = br.readLine();
-            int index = line.indexOf('\t');
-            method = line.substring(0, index);
+        method = metadata.getMethod();
+        fileid = metadata.getFileId();
+        if (method != null) {
             NodeUtils.setIpAndFqdnForEelf(method);
             if (!"DELETE".equals(method) && !monly) {
                 length = datafile.length();
             }
-            fileid = line.substring(index + 1);
-            while ((line = br.readLine()) != null) {
-                index = line.indexOf('\t');
-                String header = line.substring(0, index);
-                String headerValue = line.substring(index + 1);
-                if ("x-dmaap-dr-routing".equalsIgnoreCase(header)) {
-                    subid = headerValue.replaceAll("[^ ]*/+", "");
-                    feedid = deliveryTaskHelper.getFeedId(subid.replaceAll(" .*", ""));
-                }
-                if (length == 0 && header.toLowerCase().startsWith("content-")) {
-                    continue;
-                }
-                if ("content-type".equalsIgnoreCase(header)) {
-                    ctype = headerValue;
-                }
-                if ("x-onap-requestid".equalsIgnoreCase(header)) {
-                    MDC.put(MDC_KEY_REQUEST_ID, headerValue);
-                }
-                if ("x-invocationid".equalsIgnoreCase(header)) {
-                    MDC.put("InvocationId", headerValue);
-                    headerValue = UUID.randomUUID().toString();
-                    newInvocationId = headerValue;
-                }
-                hdrv.add(new String[]{header, headerValue});
+        }
+        String routedSubIds = metadata.getRoutedSubIds();
+        if (routedSubIds != null) {
+            subid = routedSubIds;
+            int space = routedSubIds.indexOf(' ');
+            feedid = deliveryTaskHelper.getFeedId(space < 0 ? routedSubIds : routedSubIds.substring(0, space));
+        }
+        String[][] headers = metadata.getHeaders();
+        ArrayList<String[]> hdrv = new ArrayList<>(headers.length);
+        for (String[] nv : headers) {
+            String header = nv[0];
+            if (length == 0 && header.regionMatches(true, 0, "content-", 0, 8)) {
+                continue;
             }
-        } catch (Exception e) {
-            eelfLogger.error("Exception", e);
+            if ("content-type".equalsIgnoreCase(header)) {
+                ctype = nv[1];
+            }
+            if ("x-onap-requestid".equalsIgnoreCase(header)) {
+                MDC.put(MDC_KEY_REQUEST_ID, nv[1]);
+            }
+            if ("x-invocationid".equalsIgnoreCase(header)) {
+                MDC.put("InvocationId", nv[1]);
+                newInvocationId = UUID.randomUUID().toString();
+                nv = new String[]{header, newInvocationId};
+            }
+            hdrv.add(nv);
         }
         hdrs = hdrv.toArray(new String[hdrv.size()][]);
         url = deliveryTaskHelper.getDestURL(fileid);
@@ -197,6 +213,11 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
             }
             stripSuffixIfIsDecompress();
             url = deliveryTaskHelper.getDestURL(fileid);
+            DeliveryConnectionPool connectionPool = deliveryTaskHelper.getConnectionPool();
+            if (connectionPool != null) {
+                deliverWithPool(connectionPool);
+                return;
+            }
             URL urlObj = new URL(url);
             HttpURLConnection urlConnection = (HttpURLConnection) urlObj.openConnection();
             urlConnection.setConnectTimeout(60000);
@@ -235,6 +256,84 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
         }
     }
 
+    /**
+     * Attempt delivery over a pooled, persistent connection.
+     *
+     * @param connectionPool the pool to take the connection from
+     */
+    private void deliverWithPool(DeliveryConnectionPool connectionPool) throws IOException {
+        if (length <= 0) {
+            deliverWithPool(connectionPool, null, new ByteArrayEntity(new byte[0]));
+        } else if (!destInfo.isDecompress()) {
+            deliverWithPool(connectionPool, null, new SpoolFileEntity(datafile, length));
+        } else if (!isFiletypeGzip(datafile)) {
+            deliverWithPool(connectionPool, "UNSUPPORTED_FORMAT", new SpoolFileEntity(datafile, length));
+        } else {
+            try {
+                deliverWithPool(connectionPool, "SUCCESS", new DecompressingEntity(datafile));
+            } catch (DecompressionException e) {
+                eelfLogger.info("Could not decompress file", e);
+                deliverWithPool(connectionPool, "FAILURE", new SpoolFileEntity(datafile, length));
+            }
+        }
+    }
+
+    /**
+     * Send one delivery request over a pooled connection.
+     *
+     * @param connectionPool the pool to take the connection from
+     * @param decompressionStatus the Decompression_Status header value, or null for none
+     * @param body the request body, unless the method is DELETE
+     */
+    private void deliverWithPool(DeliveryConnectionPool connectionPool, String decompressionStatus, HttpEntity body)
+        throws IOException {
+        RequestBuilder requestBuilder = RequestBuilder.create(method).setUri(url);
+        for (String[] nv : hdrs) {
+            requestBuilder.addHeader(nv[0], nv[1]);
+        }
+        requestBuilder.setHeader("Authorization", destInfo.getAuth());
+        requestBuilder.setHeader("X-DMAAP-DR-PUBLISH-ID", pubid);
+        if (decompressionStatus != null) {
+            requestBuilder.setHeader(DECOMPRESSION_STATUS, decompressionStatus);
+        }
+        TrackedEntity entity = null;
+        if (!"DELETE".equals(method)) {
+            entity = new TrackedEntity(body);
+            requestBuilder.setEntity(entity);
+        }
+        boolean expect100 = length > 0 && destInfo.isUsing100();
+        requestBuilder.setConfig(RequestConfig.copy(connectionPool.getRequestConfig())
+            .setExpectContinueEnabled(expect100).build());
+        try (DeliveryConnectionPool.Lease lease = connectionPool.lease(destInfo);
+            CloseableHttpResponse response = lease.getClient().execute(requestBuilder.build())) {
+            if (expect100 && !entity.isStarted()) {
+                // Rcvd error instead of 100-continue
+                deliveryTaskHelper.reportDeliveryExtra(this, -1L);
+            }
+            int rc = response.getStatusLine().getStatusCode();
+            String rmsg = response.getStatusLine().getReasonPhrase();
+            String xpubid = null;
+            if (rc >= 200 && rc <= 299) {
+                xpubid = getHeaderValue(response.getFirstHeader("X-DMAAP-DR-PUBLISH-ID"));
+            } else if (rc >= 300 && rc <= 399) {
+                rmsg = getHeaderValue(response.getFirstHeader("Location"));
+            }
+            // Read the rest of the response so the connection can go back to the pool
+            EntityUtils.consume(response.getEntity());
+            deliveryTaskHelper.reportStatus(this, rc, xpubid, rmsg);
+        } catch (IOException e) {
+            if (entity != null && entity.isBroken() && !(e instanceof DecompressionException)) {
+                deliveryTaskHelper.reportDeliveryExtra(this, entity.getBytesSent());
+            }
+            throw e;
+        }
+    }
+
+    @Nullable
+    private String getHeaderValue(Header header) {
+        return header == null ? null : header.getValue();
+    }
+
     /**
      * To send decompressed gzip to the subscribers.
      *
@@ -271,24 +370,12 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
         if (os == null) {
             return;
         }
-        long sofar = 0;
-        try (InputStream is = new FileInputStream(datafile)) {
-            byte[] buf = new byte[1024 * 1024];
-            while (sofar < length) {
-                int len = buf.length;
-                if (sofar + len > length) {
-                    len = (int) (length - sofar);
-                }
-                len = is.read(buf, 0, len);
-                if (len <= 0) {
-                    throw new IOException("Unexpected problem reading data file " + datafile);
-                }
-                sofar += len;
-                os.write(buf, 0, len);
-            }
+        SpoolFileEntity entity = new SpoolFileEntity(datafile, length);
+        try {
+            entity.writeTo(os);
             os.close();
         } catch (IOException ioe) {
-            deliveryTaskHelper.reportDeliveryExtra(this, sofar);
+            deliveryTaskHelper.reportDeliveryExtra(this, entity.getBytesSent());
             throw ioe;
         }
     }
@@ -331,9 +418,12 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
                     sendDecompressedFile(uc);
                 } else {
                     uc.setRequestProperty(DECOMPRESSION_STATUS, "UNSUPPORTED_FORMAT");
+                    uc.setFixedLengthStreamingMode(length);
                     sendFile(uc);
                 }
             } else {
+                // Stream the file rather than letting the connection buffer the whole body in memory
+                uc.setFixedLengthStreamingMode(length);
                 sendFile(uc);
             }
         }
@@ -471,4 +561,115 @@ public class DeliveryTask implements Runnable, Comparable<DeliveryTask> {
     public boolean getFollowRedirects() {
         return (followRedirects);
     }
+
+    /**
+     * The body of a pooled delivery, recording how much of it was sent so a broken transfer can be reported.
+     */
+    private static class TrackedEntity extends HttpEntityWrapper {
+
+        private volatile CountingOutputStream counter;
+        private volatile boolean complete;
+
+        TrackedEntity(HttpEntity body) {
+            super(body);
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            complete = false;
+            counter = new CountingOutputStream(outputStream);
+            super.writeTo(counter);
+            complete = true;
+        }
+
+        /**
+         * Has sending the body begun.
+         */
+        boolean isStarted() {
+            return counter != null;
+        }
+
+        /**
+         * Did sending the body begin but not finish.
+         */
+        boolean isBroken() {
+            return counter != null && !complete;
+        }
+
+        /**
+         * Get the number of bytes sent by the most recent attempt to send the body.
+         */
+        long getBytesSent() {
+            return counter == null ? 0 : counter.getByteCount();
+        }
+    }
+
+    /**
+     * The body of a delivery to a subscriber that wants files decompressed, gunzipped from the spooled data file as
+     * it is sent.
+     */
+    private static class DecompressingEntity extends AbstractHttpEntity {
+
+        private final File datafile;
+
+        DecompressingEntity(File datafile) {
+            this.datafile = datafile;
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        @Override
+        public InputStream getContent() throws IOException {
+            return new GZIPInputStream(new FileInputStream(datafile));
+        }
+
+        @Override
+        public void writeTo(OutputStream outputStream) throws IOException {
+            byte[] buffer = new byte[8192];
+            try (InputStream fileInputStream = new FileInputStream(datafile)) {
+                InputStream gzipInputStream;
+                try {
+                    gzipInputStream = new GZIPInputStream(fileInputStream);
+                } catch (IOException e) {
+                    throw new DecompressionException(e);
+                }
+                int bytesRead;
+                while ((bytesRead = read(gzipInputStream, buffer)) > 0) {
+                    outputStream.write(buffer, 0, bytesRead);
+                }
+            }
+            outputStream.flush();
+        }
+
+        private static int read(InputStream gzipInputStream, byte[] buffer) throws DecompressionException {
+            try {
+                return gzipInputStream.read(buffer);
+            } catch (IOException e) {
+                throw new DecompressionException(e);
+            }
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
+    }
+
+    /**
+     * The spooled data file could not be gunzipped, as opposed to the transfer failing.
+     */
+    private static class DecompressionException extends IOException {
+
+        DecompressionException(IOException cause) {
+            super(cause);
+        }
+    }
 }
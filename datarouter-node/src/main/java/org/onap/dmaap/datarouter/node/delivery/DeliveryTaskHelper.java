@@ -83,4 +83,11 @@ public interface DeliveryTaskHelper {
      * @return The feed iD
      */
     String getFeedId(String subid);
+
+    /**
+     * Get the pool of persistent connections to deliver with.
+     *
+     * @return The connection pool or null if each delivery should open a new HttpURLConnection
+     */
+    DeliveryConnectionPool getConnectionPool();
 }
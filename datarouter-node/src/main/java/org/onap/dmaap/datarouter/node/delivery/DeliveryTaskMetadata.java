@@ -0,0 +1,163 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The parsed contents of a spooled file's metadata (.M) file.
+ *
+ * <p>The first line of a metadata file is the method and file ID, and each following line is a header name and value,
+ * all tab separated.  Instances are immutable, so a DeliveryQueue can keep them and build new DeliveryTasks for the
+ * same file without reading the metadata file again.
+ */
+final class DeliveryTaskMetadata {
+
+    private static EELFLogger eelfLogger = EELFManager.getInstance().getLogger(DeliveryTaskMetadata.class);
+    private static final String[][] NO_HEADERS = new String[0][];
+
+    private final String method;
+    private final String fileid;
+    private final String routedSubIds;
+    private final String[][] headers;
+
+    private DeliveryTaskMetadata(String method, String fileid, String routedSubIds, String[][] headers) {
+        this.method = method;
+        this.fileid = fileid;
+        this.routedSubIds = routedSubIds;
+        this.headers = headers;
+    }
+
+    /**
+     * Read a metadata file.
+     *
+     * @param metafile The metadata file
+     * @return The parsed metadata.  If the file could not be read, or is empty, isValid() is false.
+     */
+    static DeliveryTaskMetadata read(File metafile) {
+        String text;
+        try {
+            text = new String(Files.readAllBytes(metafile.toPath()), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            eelfLogger.error("Exception", e);
+            return new DeliveryTaskMetadata(null, null, null, NO_HEADERS);
+        }
+        return parse(text);
+    }
+
+    /**
+     * Parse the contents of a metadata file.  Parsing stops at the first line that is not tab separated.
+     */
+    static DeliveryTaskMetadata parse(String text) {
+        String method = null;
+        String fileid = null;
+        String routedSubIds = null;
+        List<String[]> headers = new ArrayList<>();
+        int len = text.length();
+        int start = 0;
+        while (start < len) {
+            int end = text.indexOf('\n', start);
+            if (end < 0) {
+                end = len;
+            }
+            int tab = text.indexOf('\t', start);
+            if (tab < 0 || tab > end) {
+                break;
+            }
+            int valueEnd = (end > tab + 1 && text.charAt(end - 1) == '\r') ? end - 1 : end;
+            String name = text.substring(start, tab);
+            String value = text.substring(tab + 1, valueEnd);
+            if (method == null) {
+                method = name;
+                fileid = value;
+            } else {
+                if ("x-dmaap-dr-routing".equalsIgnoreCase(name)) {
+                    routedSubIds = stripRoutingPaths(value);
+                }
+                headers.add(new String[]{name, value});
+            }
+            start = end + 1;
+        }
+        return new DeliveryTaskMetadata(method, fileid, routedSubIds, headers.toArray(NO_HEADERS));
+    }
+
+    /**
+     * Reduce each space separated entry of a routing header to the part after its last '/', so "node/node2/123
+     * 456" becomes "123 456".
+     */
+    static String stripRoutingPaths(String routing) {
+        if (routing.indexOf('/') < 0) {
+            return routing;
+        }
+        StringBuilder sb = new StringBuilder(routing.length());
+        int len = routing.length();
+        int tokenStart = 0;
+        for (int i = 0; i <= len; i++) {
+            if (i == len || routing.charAt(i) == ' ') {
+                int slash = routing.lastIndexOf('/', i - 1);
+                sb.append(routing, slash >= tokenStart ? slash + 1 : tokenStart, i);
+                if (i < len) {
+                    sb.append(' ');
+                }
+                tokenStart = i + 1;
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Was a method and file ID found, so the metadata is worth keeping.
+     */
+    boolean isValid() {
+        return method != null;
+    }
+
+    String getMethod() {
+        return method;
+    }
+
+    String getFileId() {
+        return fileid;
+    }
+
+    /**
+     * Get the subscription IDs from the x-dmaap-dr-routing header, with routing paths removed.
+     *
+     * @return The space separated subscription IDs, or null if there was no routing header.
+     */
+    String getRoutedSubIds() {
+        return routedSubIds;
+    }
+
+    /**
+     * Get the headers, in file order.  Callers must not modify the returned arrays.
+     */
+    String[][] getHeaders() {
+        return headers;
+    }
+}
@@ -0,0 +1,103 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.delivery;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import org.apache.commons.io.input.BoundedInputStream;
+import org.apache.http.entity.AbstractHttpEntity;
+
+/**
+ * The body of a delivery, streamed straight from the spooled data file.
+ *
+ * <p>The file is sent with FileChannel.transferTo() rather than being copied through a heap buffer, so a delivery
+ * attempt does not allocate a buffer proportional to the file or the transfer size.
+ */
+public class SpoolFileEntity extends AbstractHttpEntity {
+
+    private final File datafile;
+    private final long length;
+    private long sent;
+
+    /**
+     * Create the body for delivering a spooled data file.
+     *
+     * @param datafile The spooled data file
+     * @param length The number of bytes of the file to send
+     */
+    public SpoolFileEntity(File datafile, long length) {
+        this.datafile = datafile;
+        this.length = length;
+    }
+
+    @Override
+    public boolean isRepeatable() {
+        return true;
+    }
+
+    @Override
+    public long getContentLength() {
+        return length;
+    }
+
+    /**
+     * Get a stream of the bytes that writeTo() sends, which are only the first length bytes of the file.
+     */
+    @Override
+    public InputStream getContent() throws IOException {
+        return new BoundedInputStream(Files.newInputStream(datafile.toPath()), length);
+    }
+
+    @Override
+    public void writeTo(OutputStream outputStream) throws IOException {
+        sent = 0;
+        try (FileChannel channel = FileChannel.open(datafile.toPath(), StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(outputStream);
+            while (sent < length) {
+                long len = channel.transferTo(sent, length - sent, target);
+                if (len <= 0) {
+                    throw new IOException("Unexpected problem reading data file " + datafile);
+                }
+                sent += len;
+            }
+        }
+        outputStream.flush();
+    }
+
+    @Override
+    public boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * Get the number of bytes sent by the most recent call to writeTo().
+     */
+    public long getBytesSent() {
+        return sent;
+    }
+}
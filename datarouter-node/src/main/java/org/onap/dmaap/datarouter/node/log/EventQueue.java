@@ -0,0 +1,103 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.log;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A bounded queue with many producers and a single consumer, neither of which takes a lock.
+ *
+ * <p>When the queue is full, a producer wakes the consumer and waits for room instead of dropping its element, so
+ * producers are slowed down to the speed of the consumer. Each time a producer finds the queue full is counted.
+ *
+ * @param <E> the type of element held in the queue
+ */
+public final class EventQueue<E> {
+
+    private static final long OVERFLOW_WAIT = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final ConcurrentLinkedQueue<E> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong overflows = new AtomicLong();
+    private final int capacity;
+    private volatile Thread consumer;
+
+    /**
+     * Create a queue.
+     *
+     * @param capacity the most elements the queue holds; raised to 1 if smaller
+     */
+    public EventQueue(int capacity) {
+        this.capacity = Math.max(capacity, 1);
+    }
+
+    /**
+     * Add an element to the queue, waiting for the consumer to make room if it is full.
+     */
+    public void put(E element) {
+        if (!reserve()) {
+            overflows.incrementAndGet();
+            do {
+                LockSupport.unpark(consumer);
+                LockSupport.parkNanos(this, OVERFLOW_WAIT);
+            } while (!reserve());
+        }
+        queue.add(element);
+    }
+
+    /**
+     * Take the element at the head of the queue.
+     *
+     * @return the element, or null if the queue is empty
+     */
+    public E poll() {
+        E element = queue.poll();
+        if (element != null) {
+            size.decrementAndGet();
+        }
+        return element;
+    }
+
+    /**
+     * Wait, as the consumer, until the time is up or a producer finds the queue full.
+     *
+     * @param nanos the longest time to wait
+     */
+    public void await(long nanos) {
+        consumer = Thread.currentThread();
+        LockSupport.parkNanos(this, nanos);
+    }
+
+    /**
+     * Get the number of times a producer found the queue full and had to wait.
+     */
+    public long getOverflows() {
+        return overflows.get();
+    }
+
+    private boolean reserve() {
+        return size.getAndUpdate(count -> count < capacity ? count + 1 : count) < capacity;
+    }
+}
@@ -235,6 +235,7 @@ public class LogManager extends TimerTask {
                     String pid = config.getPublishId();
                     Files.createLink(Paths.get(uploaddir + "/" + pid), Paths.get(logdir + "/" + fn));
                     Files.createLink(Paths.get(uploaddir + "/" + pid + ".M"), Paths.get(uploaddir + META));
+                    dq.addPending(pid);
                 } catch (Exception e) {
                     logger.error(EXCEPTION, e);
                 }
@@ -0,0 +1,314 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.log;
+
+import java.io.File;
+import java.io.PrintWriter;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.onap.dmaap.datarouter.node.DestInfo;
+import org.onap.dmaap.datarouter.node.NodeConfigManager;
+import org.onap.dmaap.datarouter.node.delivery.Delivery;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryConnectionPool;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryQueue;
+
+/**
+ * Counters and latency histograms for the node, served in the Prometheus text format on /internal/metrics.
+ *
+ * <p>Publishes are counted per feed and delivery outcomes per destination (s:subid for subscriptions, n:node for
+ * node to node transfers). The counters are LongAdders found by a map lookup on the ID, so recording an event takes
+ * no lock and, once the feed or destination has been seen, allocates nothing. Queue depths, spool space and the
+ * configuration state are read when the metrics are written.
+ */
+public final class NodeMetrics {
+
+    private static final double[] PUBLISH_BUCKETS = {0.001, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10,
+        30, 60};
+    private static final double[] RELOAD_BUCKETS = {0.01, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10, 30, 60};
+    private static final ConcurrentHashMap<String, FeedCounters> feeds = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<String, DestCounters> dests = new ConcurrentHashMap<>();
+    private static final Histogram publishLatency = new Histogram(PUBLISH_BUCKETS);
+    private static final Histogram reloadLatency = new Histogram(RELOAD_BUCKETS);
+
+    private NodeMetrics() {
+    }
+
+    /**
+     * Record a file received for a feed, either from a publisher or from another node.
+     *
+     * @param feedid the feed ID
+     * @param bytes the size of the file
+     * @param nanos how long it took to receive and spool the file
+     */
+    public static void recordPublish(String feedid, long bytes, long nanos) {
+        if (feedid != null) {
+            FeedCounters counters = feeds.get(feedid);
+            if (counters == null) {
+                counters = feeds.computeIfAbsent(feedid, key -> new FeedCounters());
+            }
+            counters.publishes.increment();
+            counters.bytes.add(bytes);
+        }
+        publishLatency.observe(nanos);
+    }
+
+    /**
+     * Record a file delivered to a destination.
+     */
+    public static void recordDelivery(String dest, long bytes) {
+        DestCounters counters = dest(dest);
+        if (counters != null) {
+            counters.deliveries.increment();
+            counters.bytes.add(bytes);
+        }
+    }
+
+    /**
+     * Record a delivery attempt that failed and will be retried.
+     */
+    public static void recordRetry(String dest) {
+        DestCounters counters = dest(dest);
+        if (counters != null) {
+            counters.retries.increment();
+        }
+    }
+
+    /**
+     * Record a file given up on, because it was too old, could not be retried or had to make room on the disk.
+     */
+    public static void recordExpiry(String dest) {
+        DestCounters counters = dest(dest);
+        if (counters != null) {
+            counters.expiries.increment();
+        }
+    }
+
+    /**
+     * Record how long a configuration reload took.
+     */
+    public static void recordConfigReload(long nanos) {
+        reloadLatency.observe(nanos);
+    }
+
+    private static DestCounters dest(String dest) {
+        if (dest == null) {
+            return null;
+        }
+        DestCounters counters = dests.get(dest);
+        if (counters == null) {
+            counters = dests.computeIfAbsent(dest, key -> new DestCounters());
+        }
+        return counters;
+    }
+
+    /**
+     * Write all the metrics in the Prometheus text exposition format.
+     *
+     * @param out where to write them
+     * @param config the node configuration, or null to leave out the configuration and spool metrics
+     * @param delivery the delivery system, or null to leave out the queue metrics
+     */
+    public static void write(PrintWriter out, NodeConfigManager config, Delivery delivery) {
+        Map<String, FeedCounters> feedMap = new TreeMap<>(feeds);
+        header(out, "dr_node_publish_total", "counter", "Files received per feed.");
+        for (Map.Entry<String, FeedCounters> entry : feedMap.entrySet()) {
+            sample(out, "dr_node_publish_total", "feed", entry.getKey(), entry.getValue().publishes.sum());
+        }
+        header(out, "dr_node_publish_bytes_total", "counter", "Bytes received per feed.");
+        for (Map.Entry<String, FeedCounters> entry : feedMap.entrySet()) {
+            sample(out, "dr_node_publish_bytes_total", "feed", entry.getKey(), entry.getValue().bytes.sum());
+        }
+        publishLatency.write(out, "dr_node_publish_duration_seconds", "Time taken to receive and spool a file.");
+
+        Map<String, DestCounters> destMap = new TreeMap<>(dests);
+        header(out, "dr_node_deliveries_total", "counter", "Files delivered per destination.");
+        for (Map.Entry<String, DestCounters> entry : destMap.entrySet()) {
+            sample(out, "dr_node_deliveries_total", "destination", entry.getKey(), entry.getValue().deliveries.sum());
+        }
+        header(out, "dr_node_delivered_bytes_total", "counter", "Bytes delivered per destination.");
+        for (Map.Entry<String, DestCounters> entry : destMap.entrySet()) {
+            sample(out, "dr_node_delivered_bytes_total", "destination", entry.getKey(), entry.getValue().bytes.sum());
+        }
+        header(out, "dr_node_delivery_retries_total", "counter", "Delivery attempts to be retried per destination.");
+        for (Map.Entry<String, DestCounters> entry : destMap.entrySet()) {
+            sample(out, "dr_node_delivery_retries_total", "destination", entry.getKey(),
+                entry.getValue().retries.sum());
+        }
+        header(out, "dr_node_delivery_expiries_total", "counter", "Files given up on per destination.");
+        for (Map.Entry<String, DestCounters> entry : destMap.entrySet()) {
+            sample(out, "dr_node_delivery_expiries_total", "destination", entry.getKey(),
+                entry.getValue().expiries.sum());
+        }
+
+        if (delivery != null) {
+            writeQueues(out, delivery);
+            if (delivery.getConnectionPool() != null) {
+                writeConnectionPool(out, delivery.getConnectionPool());
+            }
+        }
+        if (config != null) {
+            File spool = new File(config.getSpoolBase());
+            header(out, "dr_node_spool_free_bytes", "gauge", "Usable space left on the spool file system.");
+            sample(out, "dr_node_spool_free_bytes", null, null, spool.getUsableSpace());
+            header(out, "dr_node_spool_total_bytes", "gauge", "Size of the spool file system.");
+            sample(out, "dr_node_spool_total_bytes", null, null, spool.getTotalSpace());
+            header(out, "dr_node_config_reloads_total", "counter", "Configuration reloads.");
+            sample(out, "dr_node_config_reloads_total", null, null, config.getConfigReloads());
+            header(out, "dr_node_config_reload_failures_total", "counter", "Configuration reloads that failed.");
+            sample(out, "dr_node_config_reload_failures_total", null, null, config.getConfigReloadFailures());
+            header(out, "dr_node_config_changed_destinations", "gauge",
+                "Destinations added, removed or changed by the last configuration reload.");
+            sample(out, "dr_node_config_changed_destinations", null, null, config.getLastConfigChangedDests());
+            header(out, "dr_node_event_log_queue_overflows_total", "counter",
+                "Times a reporting thread waited because the event log queue was full.");
+            sample(out, "dr_node_event_log_queue_overflows_total", null, null, StatusLog.getQueueOverflows());
+        }
+        reloadLatency.write(out, "dr_node_config_reload_duration_seconds", "Time taken to reload the configuration.");
+        out.flush();
+    }
+
+    private static void writeQueues(PrintWriter out, Delivery delivery) {
+        Map<String, DeliveryQueue> queues = new TreeMap<>();
+        for (DeliveryQueue dq : delivery.getQueues()) {
+            DestInfo di = dq.getDestinationInfo();
+            if (di != null && di.getName() != null) {
+                queues.put(di.getName(), dq);
+            }
+        }
+        long now = System.currentTimeMillis();
+        header(out, "dr_node_queue_files", "gauge", "Files waiting to be delivered per destination.");
+        for (Map.Entry<String, DeliveryQueue> entry : queues.entrySet()) {
+            sample(out, "dr_node_queue_files", "destination", entry.getKey(), entry.getValue().getPendingFileCount());
+        }
+        header(out, "dr_node_queue_bytes", "gauge", "Bytes waiting to be delivered per destination.");
+        for (Map.Entry<String, DeliveryQueue> entry : queues.entrySet()) {
+            sample(out, "dr_node_queue_bytes", "destination", entry.getKey(), entry.getValue().getPendingBytes());
+        }
+        header(out, "dr_node_queue_oldest_file_age_seconds", "gauge",
+            "Age of the oldest file waiting to be delivered per destination.");
+        for (Map.Entry<String, DeliveryQueue> entry : queues.entrySet()) {
+            long oldest = entry.getValue().getOldestPendingTime();
+            sample(out, "dr_node_queue_oldest_file_age_seconds", "destination", entry.getKey(),
+                oldest == 0 ? 0 : Math.max(0, now - oldest) / 1000.0);
+        }
+    }
+
+    private static void writeConnectionPool(PrintWriter out, DeliveryConnectionPool pool) {
+        header(out, "dr_node_delivery_connection_pools", "gauge", "Destinations with a pool of delivery connections.");
+        sample(out, "dr_node_delivery_connection_pools", null, null, pool.getPoolCount());
+        header(out, "dr_node_delivery_connection_reuses_total", "counter", "Deliveries sent on an open connection.");
+        sample(out, "dr_node_delivery_connection_reuses_total", null, null, pool.getHits());
+        header(out, "dr_node_delivery_connections_opened_total", "counter", "Deliveries that opened a connection.");
+        sample(out, "dr_node_delivery_connections_opened_total", null, null, pool.getMisses());
+        header(out, "dr_node_delivery_tls_handshakes_avoided_total", "counter",
+            "TLS handshakes avoided by reusing a connection.");
+        sample(out, "dr_node_delivery_tls_handshakes_avoided_total", null, null, pool.getHandshakesAvoided());
+        header(out, "dr_node_delivery_stale_connection_retries_total", "counter",
+            "Deliveries sent again because a reused connection had been closed.");
+        sample(out, "dr_node_delivery_stale_connection_retries_total", null, null, pool.getStaleRetries());
+    }
+
+    private static void header(PrintWriter out, String name, String type, String help) {
+        out.print("# HELP ");
+        out.print(name);
+        out.print(' ');
+        out.println(help);
+        out.print("# TYPE ");
+        out.print(name);
+        out.print(' ');
+        out.println(type);
+    }
+
+    private static void sample(PrintWriter out, String name, String label, String value, double sample) {
+        out.print(name);
+        if (label != null) {
+            out.print('{');
+            out.print(label);
+            out.print("=\"");
+            out.print(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"));
+            out.print("\"}");
+        }
+        out.print(' ');
+        if (sample == Math.rint(sample) && !Double.isInfinite(sample)) {
+            out.println((long) sample);
+        } else {
+            out.println(sample);
+        }
+    }
+
+    private static final class FeedCounters {
+        private final LongAdder publishes = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+    }
+
+    private static final class DestCounters {
+        private final LongAdder deliveries = new LongAdder();
+        private final LongAdder bytes = new LongAdder();
+        private final LongAdder retries = new LongAdder();
+        private final LongAdder expiries = new LongAdder();
+    }
+
+    /**
+     * A latency histogram with fixed bucket bounds, in seconds.
+     */
+    static final class Histogram {
+        private final double[] bounds;
+        private final long[] boundNanos;
+        private final LongAdder[] counts;
+        private final LongAdder sumNanos = new LongAdder();
+
+        Histogram(double[] bounds) {
+            this.bounds = bounds;
+            boundNanos = new long[bounds.length];
+            counts = new LongAdder[bounds.length + 1];
+            for (int i = 0; i < bounds.length; i++) {
+                boundNanos[i] = (long) (bounds[i] * TimeUnit.SECONDS.toNanos(1));
+            }
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = new LongAdder();
+            }
+        }
+
+        void observe(long nanos) {
+            int bucket = 0;
+            while (bucket < boundNanos.length && nanos > boundNanos[bucket]) {
+                bucket++;
+            }
+            counts[bucket].increment();
+            sumNanos.add(nanos);
+        }
+
+        void write(PrintWriter out, String name, String help) {
+            header(out, name, "histogram", help);
+            long cumulative = 0;
+            for (int i = 0; i < counts.length; i++) {
+                cumulative += counts[i].sum();
+                sample(out, name + "_bucket", "le", (i < bounds.length) ? Double.toString(bounds[i]) : "+Inf",
+                    cumulative);
+            }
+            sample(out, name + "_sum", null, null, sumNanos.sum() / 1e9);
+            sample(out, name + "_count", null, null, cumulative);
+        }
+    }
+}
@@ -25,14 +25,17 @@ package org.onap.dmaap.datarouter.node.log;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.onap.dmaap.datarouter.node.NodeConfigManager;
@@ -40,6 +43,16 @@ import org.onap.dmaap.datarouter.node.utils.NodeUtils;
 
 /**
  * Logging for data router delivery events (PUB/DEL/EXP).
+ *
+ * <p>Unless the node's EventLogFlushInterval is 0, events are not written by the threads that report them. They are
+ * added to a lock free queue and a single event-log-writer thread writes them, in batches, every flush interval.  Each
+ * event keeps the time it was reported, which is used both for its timestamp and for deciding which log file it goes
+ * in, so log files roll over exactly as they would if events were written immediately.
+ *
+ * <p>The queue holds at most EventLogQueueSize events.  Events are never dropped: when the queue is full, the reporting
+ * thread wakes the writer and waits for room, without taking any lock, and the overflow is counted.  So if the disk
+ * falls behind, reporters are slowed down to its speed.  The queue is an {@link EventQueue}, which is kept out of this
+ * class so that tests mocking the clock here do not intercept its calls into java.util.concurrent.
  */
 public class StatusLog {
 
@@ -54,8 +67,12 @@ public class StatusLog {
     private String plainfile;
     private String curfile;
     private long nexttime;
+    private FileOutputStream fos;
     private OutputStream os;
     private long intvl;
+    private volatile EventQueue<Event> pending;
+    private volatile Thread writer;
+    private boolean fsync;
     private static NodeConfigManager config = NodeConfigManager.getInstance();
 
     private StatusLog() {
@@ -136,6 +153,7 @@ public class StatusLog {
      */
     public static synchronized String getCurLogFile() {
         try {
+            instance.writePending();
             instance.checkRoll(System.currentTimeMillis());
         } catch (Exception e) {
             eelfLogger.error(EXCEPTION, e);
@@ -143,6 +161,14 @@ public class StatusLog {
         return (instance.curfile);
     }
 
+    /**
+     * Get the number of times a thread reporting an event waited because the queue was full.
+     */
+    public static long getQueueOverflows() {
+        EventQueue<Event> queue = instance.pending;
+        return queue == null ? 0 : queue.getOverflows();
+    }
+
     /**
      * Log a received publication attempt.
      *
@@ -161,8 +187,6 @@ public class StatusLog {
         instance.log(
                 "PUB|" + pubid + "|" + feedid + "|" + requrl + "|" + method + "|" + ctype + "|" + clen + "|" + srcip
                         + "|" + user + "|" + status);
-        eelfLogger.info("PUB|" + pubid + "|" + feedid + "|" + requrl + "|" + method + "|" + ctype + "|"
-                                + clen + "|" + srcip + "|" + user + "|" + status);
     }
 
     /**
@@ -183,8 +207,6 @@ public class StatusLog {
             long rcvd, String srcip, String user, String error) {
         instance.log("PBF|" + pubid + "|" + feedid + "|" + requrl + "|" + method + "|" + ctype + "|" + clen + "|" + rcvd
                 + "|" + srcip + "|" + user + "|" + error);
-        eelfLogger.info("PBF|" + pubid + "|" + feedid + "|" + requrl + "|" + method + "|" + ctype + "|" + clen
-                                + "|" + rcvd + "|" + srcip + "|" + user + "|" + error);
     }
 
     /**
@@ -209,8 +231,6 @@ public class StatusLog {
         instance.log(
                 "DEL|" + pubid + "|" + feedid + "|" + subid + "|" + requrl + "|" + method + "|" + ctype + "|" + clen
                         + "|" + user + "|" + status + "|" + xpubid);
-        eelfLogger.info("DEL|" + pubid + "|" + feedid + "|" + subid + "|" + requrl + "|" + method + "|"
-                                + ctype + "|" + clen + "|" + user + "|" + status + "|" + xpubid);
     }
 
     /**
@@ -234,8 +254,6 @@ public class StatusLog {
         instance.log(
                 "EXP|" + pubid + "|" + feedid + "|" + subid + "|" + requrl + "|" + method + "|" + ctype + "|" + clen
                         + "|" + reason + "|" + attempts);
-        eelfLogger.info("EXP|" + pubid + "|" + feedid + "|" + subid + "|" + requrl + "|" + method + "|"
-                                + ctype + "|" + clen + "|" + reason + "|" + attempts);
     }
 
     /**
@@ -253,7 +271,6 @@ public class StatusLog {
             return;
         }
         instance.log("DLX|" + pubid + "|" + feedid + "|" + subid + "|" + clen + "|" + sent);
-        eelfLogger.info("DLX|" + pubid + "|" + feedid + "|" + subid + "|" + clen + "|" + sent);
     }
 
     private synchronized void checkRoll(long now) throws IOException {
@@ -261,6 +278,7 @@ public class StatusLog {
             if (os != null) {
                 os.close();
                 os = null;
+                fos = null;
             }
             intvl = parseInterval(config.getEventLogInterval(), 300000);
             prefix = config.getEventLogPrefix();
@@ -272,19 +290,95 @@ public class StatusLog {
         }
     }
 
-    private synchronized void log(String string) {
+    private void log(String string) {
+        long now = System.currentTimeMillis();
+        if (config.getEventLogFlushInterval() <= 0) {
+            logNow(now, string);
+            return;
+        }
+        if (writer == null) {
+            startWriter();
+        }
+        pending.put(new Event(now, string));
+    }
+
+    private synchronized void logNow(long now, String string) {
         try {
-            long now = System.currentTimeMillis();
-            checkRoll(now);
-            if (os == null) {
-                os = new FileOutputStream(curfile, true);
-                Files.deleteIfExists(new File(plainfile).toPath());
-                Files.createLink(Paths.get(plainfile), Paths.get(curfile));
-            }
-            os.write((NodeUtils.logts(new Date(now)) + '|' + string + '\n').getBytes());
+            write(new Event(now, string));
             os.flush();
         } catch (IOException ioe) {
             eelfLogger.error("IOException", ioe);
         }
     }
+
+    private synchronized void startWriter() {
+        if (writer != null) {
+            return;
+        }
+        fsync = config.isEventLogFsync();
+        EventQueue<Event> queue = new EventQueue<>(config.getEventLogQueueSize());
+        pending = queue;
+        long interval = TimeUnit.MILLISECONDS.toNanos(config.getEventLogFlushInterval());
+        writer = new Thread(() -> {
+            while (true) {
+                queue.await(interval);
+                writePending();
+            }
+        }, "event-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::writePending, "event-log-flush"));
+    }
+
+    private synchronized void writePending() {
+        Event event;
+        boolean wrote = false;
+        try {
+            while (pending != null && (event = pending.poll()) != null) {
+                write(event);
+                wrote = true;
+            }
+            if (wrote) {
+                os.flush();
+                if (fsync) {
+                    fos.getChannel().force(false);
+                }
+            }
+        } catch (IOException ioe) {
+            eelfLogger.error("IOException", ioe);
+        }
+    }
+
+    private void write(Event event) throws IOException {
+        checkRoll(event.time);
+        if (os == null) {
+            fos = new FileOutputStream(curfile, true);
+            os = new BufferedOutputStream(fos, 65536);
+            Files.deleteIfExists(new File(plainfile).toPath());
+            Files.createLink(Paths.get(plainfile), Paths.get(curfile));
+        }
+        os.write(event.toLine().getBytes(StandardCharsets.UTF_8));
+        eelfLogger.info(event.text);
+    }
+
+    /**
+     * An event waiting to be written to the event log.
+     */
+    static class Event {
+
+        private final long time;
+        private final String text;
+
+        Event(long time, String text) {
+            this.time = time;
+            this.text = text;
+        }
+
+        /**
+         * Format the event as a line of the event log.
+         */
+        String toLine() {
+            return NodeUtils.logts(time) + '|' + text + '\n';
+        }
+    }
 }
@@ -63,6 +63,8 @@ import org.slf4j.MDC;
 public class NodeUtils {
 
     private static final EELFLogger eelfLogger = EELFManager.getInstance().getLogger(NodeUtils.class);
+    private static final String LOGTS_FORMAT = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
+    private static volatile LogtsPrefix logtsPrefix;
 
     private NodeUtils() {
     }
@@ -175,18 +177,33 @@ public class NodeUtils {
 
     /**
      * Format a logging timestamp as yyyy-mm-ddThh:mm:ss.mmmZ
+     *
+     * <p>The text up to the seconds is cached, so within a second only the milliseconds are formatted. The cache is
+     * a single immutable entry in a volatile field, so callers never block each other; a thread that finds another
+     * second in it formats the prefix itself and replaces the entry.
      */
     public static String logts(long when) {
-        return (logts(new Date(when)));
+        long second = Math.floorDiv(when, 1000L);
+        LogtsPrefix cached = logtsPrefix;
+        if (cached == null || cached.second != second) {
+            SimpleDateFormat logDate = new SimpleDateFormat(LOGTS_FORMAT);
+            logDate.setTimeZone(TimeZone.getTimeZone("GMT"));
+            String text = logDate.format(new Date(second * 1000L));
+            // Drop the "000Z" that follows the '.'
+            cached = new LogtsPrefix(second, text.substring(0, text.length() - 4));
+            logtsPrefix = cached;
+        }
+        int millis = (int) Math.floorMod(when, 1000L);
+        return new StringBuilder(cached.prefix.length() + 4).append(cached.prefix)
+            .append((char) ('0' + millis / 100)).append((char) ('0' + millis / 10 % 10))
+            .append((char) ('0' + millis % 10)).append('Z').toString();
     }
 
     /**
      * Format a logging timestamp as yyyy-mm-ddThh:mm:ss.mmmZ
      */
-    public static synchronized String logts(Date when) {
-        SimpleDateFormat logDate = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
-        logDate.setTimeZone(TimeZone.getTimeZone("GMT"));
-        return (logDate.format(when));
+    public static String logts(Date when) {
+        return (logts(when.getTime()));
     }
 
     /** Method prints method name, server FQDN and IP Address of the machine in EELF logs.
@@ -250,4 +267,18 @@ public class NodeUtils {
             return false;
         }
     }
+
+    /**
+     * A second, and the logging timestamp text for it up to and including the '.' before the milliseconds.
+     */
+    private static final class LogtsPrefix {
+
+        private final long second;
+        private final String prefix;
+
+        private LogtsPrefix(long second, String prefix) {
+            this.second = second;
+            this.prefix = prefix;
+        }
+    }
 }
@@ -0,0 +1,167 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node.utils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies the body of a publish request into the spool through a FileChannel, using buffers taken from a bounded
+ * pool instead of allocating new ones for every request.
+ *
+ * <p>The servlet API can only read a request body into a byte array, so each pooled buffer pairs a small staging
+ * array with a larger direct ByteBuffer. Reads fill the staging array, which is copied into the direct buffer, and
+ * the direct buffer is written to the file each time it fills up. When more requests are being received than
+ * there are buffers in the pool, the extra requests read straight into a heap ByteBuffer that is left to the
+ * garbage collector.
+ */
+public final class SpoolFileWriter {
+
+    /**
+     * Size of the array each read from the request goes into.
+     */
+    static final int STAGING_SIZE = 64 * 1024;
+    private static final int MIN_BUFFER_SIZE = STAGING_SIZE;
+
+    private final int bufferSize;
+    private final int poolSize;
+    private final ArrayBlockingQueue<Buffers> pool;
+    private final AtomicInteger created = new AtomicInteger();
+
+    /**
+     * Create a writer.
+     *
+     * @param bufferSize size of the buffer written to the file at a time; raised to 64KiB if smaller
+     * @param poolSize the most buffers kept for reuse; 0 to allocate new buffers for every file
+     */
+    public SpoolFileWriter(int bufferSize, int poolSize) {
+        this.bufferSize = Math.max(bufferSize, MIN_BUFFER_SIZE);
+        this.poolSize = poolSize;
+        this.pool = poolSize > 0 ? new ArrayBlockingQueue<>(poolSize) : null;
+    }
+
+    /**
+     * Copy a stream into a file, creating the file or replacing its contents.
+     *
+     * @param in the stream to copy; not closed
+     * @param file the file to write
+     * @param digest if not null, updated with each byte written
+     * @return the number of bytes written
+     * @throws IOException if the stream cannot be read or the file written
+     */
+    public long write(InputStream in, Path file, MessageDigest digest) throws IOException {
+        Buffers buffers = acquire();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = buffers.buffer;
+            buffer.clear();
+            long total = 0;
+            int bytesRead;
+            while ((bytesRead = read(in, buffers)) > 0) {
+                total += bytesRead;
+                if (!buffer.hasRemaining()) {
+                    drain(channel, buffer, digest);
+                }
+            }
+            drain(channel, buffer, digest);
+            return total;
+        } finally {
+            release(buffers);
+        }
+    }
+
+    /**
+     * Get the number of buffers waiting in the pool to be reused.
+     */
+    public int getPooledBuffers() {
+        return pool == null ? 0 : pool.size();
+    }
+
+    /**
+     * Read from the stream into the buffer. Heap buffers are read into directly; direct buffers go through the
+     * staging array.
+     */
+    private static int read(InputStream in, Buffers buffers) throws IOException {
+        ByteBuffer buffer = buffers.buffer;
+        byte[] target = (buffers.staging != null) ? buffers.staging : buffer.array();
+        int offset = (buffers.staging != null) ? 0 : buffer.arrayOffset() + buffer.position();
+        int bytesRead = in.read(target, offset, Math.min(target.length - offset, buffer.remaining()));
+        if (bytesRead > 0) {
+            if (buffers.staging != null) {
+                buffer.put(target, 0, bytesRead);
+            } else {
+                buffer.position(buffer.position() + bytesRead);
+            }
+        }
+        return bytesRead;
+    }
+
+    private static void drain(FileChannel channel, ByteBuffer buffer, MessageDigest digest) throws IOException {
+        buffer.flip();
+        if (digest != null) {
+            digest.update(buffer.duplicate());
+        }
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    private Buffers acquire() {
+        if (pool == null) {
+            return new Buffers(ByteBuffer.allocate(bufferSize), false);
+        }
+        Buffers buffers = pool.poll();
+        if (buffers != null) {
+            return buffers;
+        }
+        // Direct memory is only given back when the buffer is collected, so only buffers the pool keeps are direct
+        if (created.getAndUpdate(count -> count < poolSize ? count + 1 : count) < poolSize) {
+            return new Buffers(ByteBuffer.allocateDirect(bufferSize), true);
+        }
+        return new Buffers(ByteBuffer.allocate(bufferSize), false);
+    }
+
+    private void release(Buffers buffers) {
+        if (buffers.pooled) {
+            pool.offer(buffers);
+        }
+    }
+
+    private static final class Buffers {
+        private final byte[] staging;
+        private final ByteBuffer buffer;
+        private final boolean pooled;
+
+        Buffers(ByteBuffer buffer, boolean pooled) {
+            this.staging = buffer.isDirect() ? new byte[STAGING_SIZE] : null;
+            this.buffer = buffer;
+            this.pooled = pooled;
+        }
+    }
+}
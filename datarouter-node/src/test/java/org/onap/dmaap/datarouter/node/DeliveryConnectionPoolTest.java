@@ -0,0 +1,402 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.commons.io.FileUtils;
+import org.apache.http.NoHttpResponseException;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPut;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.util.EntityUtils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryConnectionPool;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryQueue;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryTask;
+
+public class DeliveryConnectionPoolTest {
+
+    private static final String SPOOL = "target/pool-spool";
+    private static final String PUBID = "123456789.test-dr-node";
+
+    private DeliveryConnectionPool connectionPool;
+    private TestServer server;
+
+    @Before
+    public void setUp() {
+        connectionPool = new DeliveryConnectionPool(4, 60000);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        connectionPool.retain(new DestInfo[0]);
+        if (server != null) {
+            server.close();
+        }
+        FileUtils.deleteDirectory(new File(SPOOL));
+    }
+
+    @Test
+    public void Given_Same_Destination_Then_Same_Client_Is_Returned() {
+        CloseableHttpClient client = getClient(createDestInfo("tmp/s/0/1"));
+        assertSame(client, getClient(createDestInfo("tmp/s/0/1")));
+        assertNotSame(client, getClient(createDestInfo("tmp/s/0/2")));
+        assertEquals(2, connectionPool.getPoolCount());
+    }
+
+    @Test
+    public void Given_Destination_Removed_Then_Its_Pool_Is_Closed() {
+        CloseableHttpClient client = getClient(createDestInfo("tmp/s/0/1"));
+        getClient(createDestInfo("tmp/s/0/2"));
+        connectionPool.retain(new DestInfo[]{createDestInfo("tmp/s/0/2")});
+        assertEquals(1, connectionPool.getPoolCount());
+        assertNotSame(client, getClient(createDestInfo("tmp/s/0/1")));
+    }
+
+    @Test
+    public void Given_No_Deliveries_Then_Counters_Are_Zero() {
+        connectionPool.closeIdle();
+        assertEquals(0, connectionPool.getHits());
+        assertEquals(0, connectionPool.getMisses());
+        assertEquals(0, connectionPool.getHandshakesAvoided());
+    }
+
+    @Test
+    public void Given_Two_Deliveries_To_Same_Destination_Then_Second_Reuses_Connection() throws IOException {
+        server = new TestServer(0);
+        DestInfo destInfo = createDestInfo("tmp/s/0/1");
+        assertEquals(204, deliver(destInfo));
+        assertEquals(204, deliver(destInfo));
+        assertEquals(1, server.connections.get());
+        assertEquals(2, server.requests.get());
+        assertEquals(1, connectionPool.getMisses());
+        assertEquals(1, connectionPool.getHits());
+    }
+
+    @Test
+    public void Given_Destination_Removed_By_Config_Change_Then_Its_Connections_Are_Closed() throws IOException {
+        server = new TestServer(0);
+        DestInfo destInfo = createDestInfo("tmp/s/0/1");
+        CloseableHttpClient client = getClient(destInfo);
+        assertEquals(204, deliver(client));
+        connectionPool.retain(new DestInfo[]{createDestInfo("tmp/s/0/2")});
+        try {
+            deliver(client);
+            fail("Delivered on a connection pool that was closed");
+        } catch (IllegalStateException expected) {
+            // the pool was shut down
+        }
+        assertEquals(204, deliver(destInfo));
+        assertEquals(2, server.connections.get());
+        assertEquals(2, connectionPool.getMisses());
+        assertEquals(0, connectionPool.getHits());
+    }
+
+    @Test
+    public void Given_Reused_Connection_Closed_By_Destination_Then_Delivery_Is_Sent_Again() throws IOException {
+        server = new TestServer(2);
+        DestInfo destInfo = createDestInfo("tmp/s/0/1");
+        assertEquals(204, deliver(destInfo));
+        assertEquals(204, deliver(destInfo));
+        assertEquals(2, server.connections.get());
+        assertEquals(2, server.requests.get());
+        assertEquals(1, connectionPool.getStaleRetries());
+        assertEquals(1, connectionPool.getHits());
+        assertEquals(2, connectionPool.getMisses());
+    }
+
+    @Test
+    public void Given_New_Connection_Closed_By_Destination_Then_Delivery_Is_Not_Sent_Again() throws IOException {
+        server = new TestServer(1);
+        try {
+            deliver(createDestInfo("tmp/s/0/1"));
+            fail("Delivery without a response succeeded");
+        } catch (NoHttpResponseException expected) {
+            // the destination closed the connection
+        }
+        assertEquals(1, server.connections.get());
+        assertEquals(0, connectionPool.getStaleRetries());
+    }
+
+    @Test
+    public void Given_Destination_Removed_During_Delivery_Then_Its_Pool_Is_Closed_When_Delivery_Finishes()
+        throws IOException {
+        server = new TestServer(0);
+        DestInfo destInfo = createDestInfo("tmp/s/0/1");
+        DeliveryConnectionPool.Lease lease = connectionPool.lease(destInfo);
+        connectionPool.retain(new DestInfo[0]);
+        assertEquals(0, connectionPool.getPoolCount());
+        assertEquals(204, deliver(lease.getClient()));
+        lease.close();
+        try {
+            deliver(lease.getClient());
+            fail("Delivered on a connection pool that was closed");
+        } catch (IllegalStateException expected) {
+            // the pool was shut down when the delivery finished
+        }
+    }
+
+    @Test
+    public void Given_File_That_Cannot_Be_Gunzipped_Then_Compressed_File_Is_Delivered() throws IOException {
+        server = new TestServer(0);
+        byte[] data = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, 0, 'n', 'o', 't', ' ', 'g', 'z', 'i', 'p'};
+        DeliveryQueue queue = createQueue(createDestInfo(SPOOL, false, true), data);
+        DeliveryTask task = new DeliveryTask(queue, PUBID);
+        task.run();
+        Mockito.verify(queue).reportStatus(task, 204, null, "No Content");
+        Mockito.verify(queue, Mockito.never()).reportDeliveryExtra(Mockito.eq(task), Mockito.anyLong());
+        assertEquals("FAILURE", server.lastHeaders.get("decompression_status"));
+        assertArrayEquals(data, server.lastBody);
+    }
+
+    @Test
+    public void Given_Destination_Refuses_100_Continue_Then_Delivery_Extra_Is_Reported() throws IOException {
+        server = new TestServer(0);
+        server.refuseContinue = true;
+        DeliveryQueue queue = createQueue(createDestInfo(SPOOL, true, false), "data".getBytes(StandardCharsets.UTF_8));
+        DeliveryTask task = new DeliveryTask(queue, PUBID);
+        task.run();
+        Mockito.verify(queue).reportDeliveryExtra(task, -1L);
+        Mockito.verify(queue).reportStatus(task, 403, null, "Forbidden");
+    }
+
+    @Test
+    public void Given_Transfer_Broken_By_Destination_Then_Bytes_Sent_Are_Reported() throws IOException {
+        server = new TestServer(1);
+        server.dropBeforeBody = true;
+        byte[] data = new byte[32 * 1024 * 1024];
+        DeliveryQueue queue = createQueue(createDestInfo(SPOOL, false, false), data);
+        DeliveryTask task = new DeliveryTask(queue, PUBID);
+        task.run();
+        ArgumentCaptor<Long> sent = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(queue).reportDeliveryExtra(Mockito.eq(task), sent.capture());
+        assertTrue(sent.getValue() < data.length);
+        Mockito.verify(queue).reportException(Mockito.eq(task), Mockito.any(IOException.class));
+        Mockito.verify(queue, Mockito.never()).reportStatus(Mockito.any(), Mockito.anyInt(), Mockito.any(),
+            Mockito.any());
+    }
+
+    private CloseableHttpClient getClient(DestInfo destInfo) {
+        try (DeliveryConnectionPool.Lease lease = connectionPool.lease(destInfo)) {
+            return lease.getClient();
+        }
+    }
+
+    private int deliver(DestInfo destInfo) throws IOException {
+        try (DeliveryConnectionPool.Lease lease = connectionPool.lease(destInfo)) {
+            return deliver(lease.getClient());
+        }
+    }
+
+    private int deliver(CloseableHttpClient client) throws IOException {
+        HttpPut put = new HttpPut("http://127.0.0.1:" + server.getPort() + "/delivery/file");
+        put.setEntity(new ByteArrayEntity("data".getBytes(StandardCharsets.UTF_8)));
+        try (CloseableHttpResponse response = client.execute(put)) {
+            EntityUtils.consume(response.getEntity());
+            return response.getStatusLine().getStatusCode();
+        }
+    }
+
+    private DestInfo createDestInfo(String spool) {
+        return createDestInfo(spool, false, false);
+    }
+
+    private DestInfo createDestInfo(String spool, boolean use100, boolean decompress) {
+        return new DestInfoBuilder().setName("s:1").setSpool(spool).setSubid("1").setLogdata("1")
+            .setUrl("https://subscriber.com/delivery").setAuthuser("user1").setAuthentication("Basic dXNlcjE=")
+            .setMetaonly(false).setUse100(use100).setPrivilegedSubscriber(false).setFollowRedirects(false)
+            .setDecompress(decompress).createDestInfo();
+    }
+
+    /**
+     * Spool a file for delivery and mock a delivery queue for it that delivers to the test server over the pool.
+     */
+    private DeliveryQueue createQueue(DestInfo destInfo, byte[] data) throws IOException {
+        FileUtils.writeByteArrayToFile(new File(SPOOL, PUBID), data);
+        FileUtils.writeStringToFile(new File(SPOOL, PUBID + ".M"), "PUT\tfile1.gz\nContent-Type\ttext/plain\n",
+            StandardCharsets.UTF_8);
+        DeliveryQueue queue = Mockito.mock(DeliveryQueue.class);
+        Mockito.when(queue.getDestinationInfo()).thenReturn(destInfo);
+        Mockito.when(queue.getDestURL(Mockito.anyString()))
+            .thenReturn("http://127.0.0.1:" + server.getPort() + "/delivery/file1");
+        Mockito.when(queue.getConnectionPool()).thenReturn(connectionPool);
+        return queue;
+    }
+
+    /**
+     * A minimal HTTP server that answers every request with 204 No Content and keeps the connection open, except that
+     * it can close the first connection it accepts, without answering, when a given request arrives on it. It can
+     * also refuse requests that expect 100-continue, and keeps the headers and body of the last request it answered.
+     */
+    private static class TestServer implements Closeable {
+
+        private final ServerSocket serverSocket;
+        private final int dropRequest;
+        private final AtomicInteger connections = new AtomicInteger();
+        private final AtomicInteger requests = new AtomicInteger();
+        private volatile boolean refuseContinue;
+        private volatile boolean dropBeforeBody;
+        private volatile Map<String, String> lastHeaders;
+        private volatile byte[] lastBody;
+
+        /**
+         * Start the server.
+         *
+         * @param dropRequest the request on the first connection to close it at, counting from 1; 0 for none
+         */
+        TestServer(int dropRequest) throws IOException {
+            this.dropRequest = dropRequest;
+            serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+            Thread acceptor = new Thread(this::accept, "test-server");
+            acceptor.setDaemon(true);
+            acceptor.start();
+        }
+
+        int getPort() {
+            return serverSocket.getLocalPort();
+        }
+
+        private void accept() {
+            while (!serverSocket.isClosed()) {
+                try {
+                    Socket socket = serverSocket.accept();
+                    int dropAt = (connections.incrementAndGet() == 1) ? dropRequest : 0;
+                    Thread handler = new Thread(() -> serve(socket, dropAt), "test-server-connection");
+                    handler.setDaemon(true);
+                    handler.start();
+                } catch (IOException e) {
+                    return;
+                }
+            }
+        }
+
+        private void serve(Socket socket, int dropAt) {
+            try (Socket connection = socket) {
+                InputStream in = new BufferedInputStream(connection.getInputStream());
+                OutputStream out = connection.getOutputStream();
+                int served = 0;
+                Map<String, String> headers;
+                while ((headers = readHeaders(in)) != null) {
+                    if (++served == dropAt && dropBeforeBody) {
+                        return;
+                    }
+                    if (refuseContinue && headers.containsKey("expect")) {
+                        out.write("HTTP/1.1 403 Forbidden\r\nContent-Length: 0\r\n\r\n"
+                            .getBytes(StandardCharsets.US_ASCII));
+                        out.flush();
+                        continue;
+                    }
+                    byte[] body = readBody(in, headers);
+                    if (body == null || served == dropAt) {
+                        return;
+                    }
+                    lastHeaders = headers;
+                    lastBody = body;
+                    requests.incrementAndGet();
+                    out.write("HTTP/1.1 204 No Content\r\n\r\n".getBytes(StandardCharsets.US_ASCII));
+                    out.flush();
+                }
+            } catch (IOException e) {
+                // the client went away
+            }
+        }
+
+        private static Map<String, String> readHeaders(InputStream in) throws IOException {
+            String line = readLine(in);
+            if (line == null) {
+                return null;
+            }
+            Map<String, String> headers = new HashMap<>();
+            while ((line = readLine(in)) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                headers.put(line.substring(0, colon).toLowerCase(Locale.ROOT), line.substring(colon + 1).trim());
+            }
+            return headers;
+        }
+
+        private static byte[] readBody(InputStream in, Map<String, String> headers) throws IOException {
+            if ("chunked".equals(headers.get("transfer-encoding"))) {
+                ByteArrayOutputStream body = new ByteArrayOutputStream();
+                String size;
+                while ((size = readLine(in)) != null) {
+                    int length = Integer.parseInt(size, 16);
+                    byte[] chunk = in.readNBytes(length);
+                    if (chunk.length != length || readLine(in) == null) {
+                        return null;
+                    }
+                    if (length == 0) {
+                        return body.toByteArray();
+                    }
+                    body.write(chunk);
+                }
+                return null;
+            }
+            int length = Integer.parseInt(headers.getOrDefault("content-length", "0"));
+            byte[] body = in.readNBytes(length);
+            return body.length == length ? body : null;
+        }
+
+        private static String readLine(InputStream in) throws IOException {
+            ByteArrayOutputStream line = new ByteArrayOutputStream();
+            int chr;
+            while ((chr = in.read()) != '\n') {
+                if (chr < 0) {
+                    return null;
+                }
+                if (chr != '\r') {
+                    line.write(chr);
+                }
+            }
+            return line.toString(StandardCharsets.US_ASCII.name());
+        }
+
+        @Override
+        public void close() throws IOException {
+            serverSocket.close();
+        }
+    }
+}
@@ -34,6 +34,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -98,6 +99,55 @@ public class DeliveryQueueTest {
         deleteFile(dirPath);
     }
 
+    @Test
+    public void Given_File_Spooled_After_Initial_Scan_It_Is_Only_Delivered_Once_Added_To_Pending() throws Exception {
+        prepareFiles();
+        deliveryQueue = new DeliveryQueue(deliveryQueueHelper, destInfo);
+        assertEquals("10000000000004.fileName", deliveryQueue.getNext().getPublishId());
+        createFile("10000000000005.fileName.M", dirPath);
+        assertNull(deliveryQueue.getNext());
+        deliveryQueue.addPending("10000000000005.fileName");
+        assertEquals("10000000000005.fileName", deliveryQueue.getNext().getPublishId());
+        deleteFile(dirPath + "10000000000005.fileName.M");
+        deleteFile(dirPath + fileName);
+        deleteFile(dirPath);
+    }
+
+    @Test
+    public void Given_Pending_File_Missing_From_Spool_GetNext_Rescans_Spool() throws Exception {
+        prepareFiles();
+        deliveryQueue = new DeliveryQueue(deliveryQueueHelper, destInfo);
+        assertEquals("10000000000004.fileName", deliveryQueue.getNext().getPublishId());
+        createFile("10000000000005.fileName.M", dirPath);
+        deliveryQueue.addPending("10000000000003.fileName");
+        assertNull(deliveryQueue.getNext());
+        assertEquals("10000000000005.fileName", deliveryQueue.getNext().getPublishId());
+        deleteFile(dirPath + "10000000000005.fileName.M");
+        deleteFile(dirPath + fileName);
+        deleteFile(dirPath);
+    }
+
+    @Test
+    public void Given_Files_Added_To_Pending_Counts_And_Oldest_First_Order_Are_Kept() throws Exception {
+        prepareFiles();
+        Files.write(new File(dirPath, "10000000000004.fileName").toPath(), new byte[100]);
+        deliveryQueue = new DeliveryQueue(deliveryQueueHelper, destInfo);
+        assertEquals("10000000000004.fileName", deliveryQueue.getNextPending(null));
+        createFile("10000000000002.fileName.M", dirPath);
+        Files.write(new File(dirPath, "10000000000002.fileName").toPath(), new byte[20]);
+        deliveryQueue.addPending("10000000000002.fileName");
+        assertEquals(2, deliveryQueue.getPendingFileCount());
+        assertEquals(120, deliveryQueue.getPendingBytes());
+        assertEquals("10000000000002.fileName", deliveryQueue.getNextPending(null));
+        assertEquals("10000000000004.fileName", deliveryQueue.getNextPending("10000000000002.fileName"));
+        assertNull(deliveryQueue.getNextPending("10000000000004.fileName"));
+        deleteFile(dirPath + "10000000000002.fileName.M");
+        deleteFile(dirPath + "10000000000002.fileName");
+        deleteFile(dirPath + "10000000000004.fileName");
+        deleteFile(dirPath + fileName);
+        deleteFile(dirPath);
+    }
+
     @Test
     public void Given_Task_In_Todo_Is_Already_Cleaned_GetNext_Returns_Null() throws Exception {
         when(deliveryQueueHelper.getExpirationTimer()).thenReturn(10000L);
@@ -212,6 +262,18 @@ public class DeliveryQueueTest {
         assertFalse(deliveryQueue.markTaskSuccess("false.pubId.com"));
     }
 
+    @Test
+    public void Given_Max_In_Flight_Reached_ClaimRunner_Returns_False_Until_A_Runner_Is_Released() {
+        when(destInfo.getMaxInFlight()).thenReturn(2);
+        assertTrue(deliveryQueue.claimRunner());
+        assertTrue(deliveryQueue.hasRunnerCapacity());
+        assertTrue(deliveryQueue.claimRunner());
+        assertFalse(deliveryQueue.hasRunnerCapacity());
+        assertFalse(deliveryQueue.claimRunner());
+        deliveryQueue.releaseRunner();
+        assertTrue(deliveryQueue.claimRunner());
+    }
+
     private void cleanUpLogging() {
         final File currentDir = new File(System.getProperty("user.dir"));
         final File[] files = currentDir.listFiles((file, name) -> name.matches("null.*"));
@@ -21,11 +21,14 @@
 package org.onap.dmaap.datarouter.node;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.net.HttpURLConnection;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
+import org.apache.commons.io.FileUtils;
 import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
@@ -114,6 +117,27 @@ public class DeliveryTaskTest {
         executorService.awaitTermination(2, TimeUnit.SECONDS);
     }
 
+    @Test
+    public void Validate_Delivery_Task_Reads_Routing_And_Headers_From_Metadata_File() throws Exception {
+        File spool = new File("target/metadata-spool");
+        File metafile = new File(spool, "123456789.test-dr-node.M");
+        try {
+            FileUtils.writeStringToFile(metafile, "PUT\tfile1\nContent-Type\ttext/plain\r\n"
+                    + "X-DMAAP-DR-ROUTING\tnode1/node2/12 node3//34\nX-Extra\tvalue\n", StandardCharsets.UTF_8);
+            DestInfo destInfo = new DestInfoBuilder().setName("s:1").setSpool(spool.getPath()).setSubid("1")
+                    .setLogdata("1").setUrl("https://subscriber/delivery").createDestInfo();
+            DeliveryQueue queue = mockDelvieryQueue(destInfo);
+            PowerMockito.when(queue.getFeedId("12")).thenReturn("7");
+            DeliveryTask task = new DeliveryTask(queue, "123456789.test-dr-node");
+            Assert.assertEquals("PUT", task.getMethod());
+            Assert.assertEquals("file1", task.getFileId());
+            Assert.assertEquals("12 34", task.getSubId());
+            Assert.assertEquals("7", task.getFeedId());
+        } finally {
+            FileUtils.deleteDirectory(spool);
+        }
+    }
+
     private DestInfo getPrivDestInfo() {
         return new DestInfoBuilder().setName("n:" + "dmaap-dr-node")
                        .setSpool(System.getProperty("user.dir") + "/src/test/resources/delivery_files")
@@ -81,6 +81,7 @@ public class DeliveryTest {
         FieldUtils.writeDeclaredField(delivery, "dqs", dqs, true);
         delivery.resetQueue("tmp/s/0/1");
         verify(deliveryQueue, times(1)).resetQueue();
+        verify(deliveryQueue, times(1)).requestRescan();
     }
 
     @Test
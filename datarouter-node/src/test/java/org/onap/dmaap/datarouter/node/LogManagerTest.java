@@ -25,37 +25,41 @@ import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
+import com.sun.net.httpserver.HttpServer;
 import java.io.File;
 import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
 import java.util.Timer;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.AfterClass;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryQueue;
 import org.onap.dmaap.datarouter.node.log.LogManager;
 import org.onap.dmaap.datarouter.node.log.LogManager.Uploader;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
 import org.powermock.modules.junit4.PowerMockRunner;
+import org.powermock.reflect.Whitebox;
 
 @RunWith(PowerMockRunner.class)
 @SuppressStaticInitializationFor({"org.onap.dmaap.datarouter.node.NodeConfigManager"})
-@PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*"})
+@PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*", "com.sun.net.httpserver.*"})
 public class LogManagerTest {
 
     @Mock
     private NodeConfigManager config;
 
-    private LogManager logManager;
-
     @Before
     public void setUp() throws IllegalAccessException {
         mockNodeConfigManager();
-        logManager = new LogManager(config);
     }
 
     @AfterClass
@@ -65,7 +69,8 @@ public class LogManagerTest {
     }
 
     @Test
-    public void Verify_LogManager_Attempts_To_Deliver_Log_Files_To_Prov() {
+    public void Verify_LogManager_Attempts_To_Deliver_Log_Files_To_Prov() throws InterruptedException {
+        LogManager logManager = startLogManager();
         logManager.run();
         try {
             Thread.sleep(1000);
@@ -77,8 +82,44 @@ public class LogManagerTest {
     }
 
     @Test
-    public void Validate_Uploader_Getters() {
-        Uploader worker = logManager.getWorker();
+    public void Given_Event_Log_Queued_After_First_Upload_Pass_Then_It_Is_Uploaded() throws Exception {
+        File logDir = new File("target/log-upload-test");
+        AtomicInteger uploads = new AtomicInteger();
+        HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/internal/logs", exchange -> {
+            IOUtils.toByteArray(exchange.getRequestBody());
+            uploads.incrementAndGet();
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.start();
+        try {
+            logDir.mkdirs();
+            PowerMockito.when(config.getLogDir()).thenReturn(logDir.getPath());
+            // A publish ID older than the uploader's expiration timer would be expired rather than uploaded
+            PowerMockito.when(config.getPublishId()).thenReturn(System.currentTimeMillis() + ".dmaap-dr-node");
+            PowerMockito.when(config.getEventLogUrl())
+                    .thenReturn("http://localhost:" + server.getAddress().getPort() + "/internal/logs");
+            Uploader worker = startLogManager().getWorker();
+            DeliveryQueue dq = (DeliveryQueue) FieldUtils.readField(worker, "dq", true);
+            assertEquals(0, dq.getPendingFileCount());
+
+            FileUtils.writeStringToFile(new File(logDir, "events-200001010000.log"),
+                    "2000-01-01T00:00:00.000Z|PUB|1.node|1\n", StandardCharsets.UTF_8);
+            Whitebox.invokeMethod(worker, "scan");
+            assertEquals(1, dq.getPendingFileCount());
+            dq.run();
+            assertEquals(1, uploads.get());
+            assertEquals(0, dq.getPendingFileCount());
+        } finally {
+            server.stop(0);
+            FileUtils.deleteDirectory(logDir);
+        }
+    }
+
+    @Test
+    public void Validate_Uploader_Getters() throws InterruptedException {
+        Uploader worker = startLogManager().getWorker();
         assertEquals(10000L, worker.getInitFailureTimer());
         assertEquals(600000L, worker.getWaitForFileProcessFailureTimer());
         assertEquals(2.0, worker.getFailureBackoff(), 0.0);
@@ -93,6 +134,20 @@ public class LogManagerTest {
         assertNull(worker.getFeedId(""));
     }
 
+    /**
+     * Create a log manager and wait for its uploader's first pass to finish. The uploader then sleeps for ten
+     * seconds, so it does not touch the log directory while a test drives it or the directory is cleaned up.
+     */
+    private LogManager startLogManager() throws InterruptedException {
+        LogManager manager = new LogManager(config);
+        Uploader worker = manager.getWorker();
+        for (int i = 0; i < 100 && worker.getState() != Thread.State.TIMED_WAITING; i++) {
+            Thread.sleep(100);
+        }
+        assertEquals(Thread.State.TIMED_WAITING, worker.getState());
+        return manager;
+    }
+
     private void mockNodeConfigManager() throws IllegalAccessException {
         PowerMockito.when(config.getLogDir()).thenReturn(System.getProperty("user.dir") + "/src/test/resources");
         PowerMockito.when(config.getTimer()).thenReturn(new Timer("Node Configuration Timer", true));
@@ -131,6 +131,35 @@ public class NodeConfigManagerTest {
         Assert.assertEquals(0.2, nodeConfigManager.getFreeDiskStop(), 0.0);
     }
 
+    @Test
+    public void Verify_NodeConfigMan_Reload_Is_Counted() {
+        NodeConfigManager nodeConfigManager = NodeConfigManager.getInstance();
+        Assert.assertTrue(nodeConfigManager.getConfigReloads() >= 1);
+        Assert.assertTrue(nodeConfigManager.getLastConfigReloadTime() >= 0);
+        Assert.assertTrue(nodeConfigManager.getLastConfigChangedDests() <= nodeConfigManager.getAllDests().length);
+    }
+
+    @Test
+    public void Given_Destinations_Change_Then_Only_Changed_Ones_Are_Counted() {
+        DestInfo kept = dest("spool/s/0/1", "https://host1/feed");
+        DestInfo moved = dest("spool/s/0/2", "https://host2/feed");
+        DestInfo dropped = dest("spool/s/0/3", "https://host3/feed");
+        DestInfo added = dest("spool/s/0/4", "https://host4/feed");
+        DestInfo[] before = {kept, moved, dropped};
+        DestInfo[] after = {dest("spool/s/0/1", "https://host1/feed"), dest("spool/s/0/2", "https://host5/feed"),
+            added};
+        Assert.assertEquals(3, NodeConfigManager.countChangedDests(before, after));
+        Assert.assertEquals(0, NodeConfigManager.countChangedDests(before, before));
+        Assert.assertEquals(3, NodeConfigManager.countChangedDests(new DestInfo[0], before));
+    }
+
+    private DestInfo dest(String spool, String url) {
+        return new DestInfoBuilder().setName("s:" + spool).setSpool(spool).setSubid(spool.substring(spool.length() - 1))
+                .setLogdata("").setUrl(url).setAuthuser("user").setAuthentication("Auth").setMetaonly(false)
+                .setUse100(true).setPrivilegedSubscriber(false).setFollowRedirects(false).setDecompress(false)
+                .createDestInfo();
+    }
+
     /**
      * {@link URLStreamHandler} that allows us to control the {@link URLConnection URLConnections} that are returned
      * by {@link URL URLs} in the code under test.
@@ -0,0 +1,100 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.TimeUnit;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.onap.dmaap.datarouter.node.delivery.Delivery;
+import org.onap.dmaap.datarouter.node.delivery.DeliveryConnectionPool;
+import org.onap.dmaap.datarouter.node.log.NodeMetrics;
+
+public class NodeMetricsTest {
+
+    private String write() {
+        StringWriter sw = new StringWriter();
+        NodeMetrics.write(new PrintWriter(sw), null, null);
+        return sw.toString();
+    }
+
+    @Test
+    public void Given_Files_Published_Then_Feed_Counters_Are_Written() {
+        NodeMetrics.recordPublish("9001", 100, TimeUnit.MILLISECONDS.toNanos(3));
+        NodeMetrics.recordPublish("9001", 50, TimeUnit.SECONDS.toNanos(120));
+        String metrics = write();
+        Assert.assertTrue(metrics.contains("# TYPE dr_node_publish_total counter\n"));
+        Assert.assertTrue(metrics.contains("dr_node_publish_total{feed=\"9001\"} 2\n"));
+        Assert.assertTrue(metrics.contains("dr_node_publish_bytes_total{feed=\"9001\"} 150\n"));
+        Assert.assertTrue(metrics.contains("dr_node_publish_duration_seconds_bucket{le=\"+Inf\"}"));
+    }
+
+    @Test
+    public void Given_Delivery_Outcomes_Then_Destination_Counters_Are_Written() {
+        NodeMetrics.recordDelivery("s:9002", 10);
+        NodeMetrics.recordRetry("s:9002");
+        NodeMetrics.recordRetry("s:9002");
+        NodeMetrics.recordExpiry("s:9002");
+        NodeMetrics.recordRetry(null);
+        String metrics = write();
+        Assert.assertTrue(metrics.contains("dr_node_deliveries_total{destination=\"s:9002\"} 1\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivered_bytes_total{destination=\"s:9002\"} 10\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_retries_total{destination=\"s:9002\"} 2\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_expiries_total{destination=\"s:9002\"} 1\n"));
+    }
+
+    @Test
+    public void Given_Delivery_Connection_Pool_Then_Its_Counters_Are_Written() {
+        Delivery delivery = Mockito.mock(Delivery.class);
+        Mockito.when(delivery.getConnectionPool()).thenReturn(new DeliveryConnectionPool(4, 60000));
+        StringWriter sw = new StringWriter();
+        NodeMetrics.write(new PrintWriter(sw), null, delivery);
+        String metrics = sw.toString();
+        Assert.assertTrue(metrics.contains("# TYPE dr_node_delivery_connection_pools gauge\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_connection_pools 0\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_connection_reuses_total 0\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_connections_opened_total 0\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_tls_handshakes_avoided_total 0\n"));
+        Assert.assertTrue(metrics.contains("dr_node_delivery_stale_connection_retries_total 0\n"));
+    }
+
+    @Test
+    public void Given_Histogram_Then_Buckets_Are_Cumulative() {
+        long before = bucket("0.5");
+        long beforeInf = bucket("+Inf");
+        NodeMetrics.recordConfigReload(TimeUnit.MILLISECONDS.toNanos(200));
+        NodeMetrics.recordConfigReload(TimeUnit.SECONDS.toNanos(100));
+        Assert.assertEquals(before + 1, bucket("0.5"));
+        Assert.assertEquals(beforeInf + 2, bucket("+Inf"));
+    }
+
+    private long bucket(String le) {
+        String prefix = "dr_node_config_reload_duration_seconds_bucket{le=\"" + le + "\"} ";
+        for (String line : write().split("\n")) {
+            if (line.startsWith(prefix)) {
+                return Long.parseLong(line.substring(prefix.length()));
+            }
+        }
+        throw new AssertionError("no bucket " + le);
+    }
+}
@@ -23,7 +23,10 @@
 package org.onap.dmaap.datarouter.node;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyObject;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.anyString;
@@ -37,11 +40,17 @@ import ch.qos.logback.classic.spi.ILoggingEvent;
 import ch.qos.logback.core.read.ListAppender;
 import java.io.File;
 import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.List;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.ServletOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.reflect.FieldUtils;
@@ -51,6 +60,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.onap.dmaap.datarouter.node.delivery.Delivery;
+import org.onap.dmaap.datarouter.node.log.StatusLog;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -60,7 +70,7 @@ import org.slf4j.LoggerFactory;
 
 @RunWith(PowerMockRunner.class)
 @SuppressStaticInitializationFor("org.onap.dmaap.datarouter.node.NodeConfigManager")
-@PrepareForTest(NodeServer.class)
+@PrepareForTest({NodeServer.class, StatusLog.class})
 @PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*", "org.w3c.*"})
 public class NodeServletTest {
 
@@ -89,6 +99,7 @@ public class NodeServletTest {
         delivery = mock(Delivery.class);
         when(delivery.markTaskSuccess("spool/s/0/1", "dmaap-dr-node.1234567")).thenReturn(true);
         PowerMockito.mockStatic(NodeServer.class);
+        PowerMockito.mockStatic(StatusLog.class);
         nodeServlet = new NodeServlet(delivery, config);
         when(request.getHeader("Authorization")).thenReturn("User1");
         when(request.getHeader("X-DMAAP-DR-PUBLISH-ID")).thenReturn("User1");
@@ -115,6 +126,19 @@ public class NodeServletTest {
         verifyEnteringExitCalled(listAppender);
     }
 
+    @Test
+    public void Given_Request_Is_HTTP_GET_And_Endpoint_Is_Internal_Metrics_Then_Metrics_Are_Returned() throws Exception {
+        setNodeConfigManagerIsConfiguredToReturnFalse();
+        when(request.getPathInfo()).thenReturn("/internal/metrics");
+        StringWriter body = new StringWriter();
+        when(response.getWriter()).thenReturn(new PrintWriter(body));
+        nodeServlet.doGet(request, response);
+        verify(response).setStatus(eq(HttpServletResponse.SC_OK));
+        assertTrue(body.toString().contains("# TYPE dr_node_spool_free_bytes gauge"));
+        assertTrue(body.toString().contains("dr_node_config_reloads_total 0"));
+        verifyEnteringExitCalled(listAppender);
+    }
+
     @Test
     public void Given_Request_Is_HTTP_GET_And_Endpoint_Is_ResetSubscription_Then_No_Content_Response_Is_Generated() {
         when(request.getPathInfo()).thenReturn("/internal/resetSubscription/1");
@@ -236,6 +260,54 @@ public class NodeServletTest {
     }
 
 
+    @Test
+    public void Given_Request_Is_HTTP_PUT_On_Publish_To_Several_Targets_Then_Subscriptions_Share_One_Metadata_File() throws Exception {
+        when(request.getPathInfo()).thenReturn("/publish/1/fileName");
+        when(request.getMethod()).thenReturn("PUT");
+        when(request.getHeaderNames()).thenReturn(Collections.enumeration(Arrays.asList("Content-Type")));
+        when(request.getHeaders("Content-Type")).thenReturn(Collections.enumeration(Arrays.asList("text/plain")));
+        when(request.getInputStream()).thenReturn(mock(ServletInputStream.class));
+        when(response.getOutputStream()).thenReturn(mock(ServletOutputStream.class));
+        new File("spool/f").mkdirs();
+        new File("spool/s/0/2").mkdirs();
+        when(config.getTargets("1")).thenReturn(new Target[]{
+            new Target(new DestInfoBuilder().setName("s:1").setSpool("spool/s/0/1").setSubid("1").createDestInfo(), null),
+            new Target(new DestInfoBuilder().setName("s:2").setSpool("spool/s/0/2").setSubid("2").createDestInfo(), null),
+            new Target(new DestInfoBuilder().setName("n:172.0.0.1").setSpool("spool/n/172.0.0.1").createDestInfo(),
+                "172.0.0.1/2")});
+        nodeServlet.doPut(request, response);
+        verify(response).setStatus(eq(HttpServletResponse.SC_NO_CONTENT));
+        File meta1 = new File("spool/s/0/1/User1.M");
+        File meta2 = new File("spool/s/0/2/User1.M");
+        assertTrue(Files.isSameFile(meta1.toPath(), meta2.toPath()));
+        String nodeMeta = new String(Files.readAllBytes(new File("spool/n/172.0.0.1/User1.M").toPath()),
+            StandardCharsets.UTF_8);
+        assertTrue(nodeMeta.startsWith("PUT\tfileName\nContent-Type\ttext/plain\n"));
+        assertTrue(nodeMeta.endsWith("X-DMAAP-DR-ROUTING\t172.0.0.1/2\n"));
+        assertFalse(new File("spool/f/User1.M").exists());
+        assertFalse(new File("spool/f/User1.R").exists());
+    }
+
+    @Test
+    public void Given_Request_Is_HTTP_PUT_On_Publish_With_Wrong_Content_MD5_Then_Bad_Request_Response_Is_Generated() throws Exception {
+        when(request.getPathInfo()).thenReturn("/publish/1/fileName");
+        when(request.getMethod()).thenReturn("PUT");
+        when(request.getHeaderNames()).thenReturn(Collections.enumeration(Arrays.asList("Content-Type")));
+        when(request.getHeaders("Content-Type")).thenReturn(Collections.enumeration(Arrays.asList("text/plain")));
+        when(request.getHeader("Content-MD5")).thenReturn("XrY7u+Ae7tCTyyK7j1rNww==");
+        when(request.getInputStream()).thenReturn(mock(ServletInputStream.class));
+        when(config.isIngestVerifyContentMd5()).thenReturn(true);
+        new File("spool/f").mkdirs();
+        when(config.getTargets("1")).thenReturn(new Target[]{
+            new Target(new DestInfoBuilder().setName("s:1").setSpool("spool/s/0/1").setSubid("1").createDestInfo(), null)});
+        nodeServlet.doPut(request, response);
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        assertFalse(new File("spool/f/User1").exists());
+        PowerMockito.verifyStatic(StatusLog.class);
+        StatusLog.logPubFail(eq("User1"), eq("1"), any(), eq("PUT"), eq("text/plain"), anyLong(), anyLong(), any(),
+            any(), eq("Content-MD5 mismatch"));
+    }
+
     @Test
     public void Given_Request_Is_HTTP_DELETE_On_Publish_With_Meta_Data_Malformed_Then_Bad_Request_Response_Is_Generated() throws Exception {
         when(request.getPathInfo()).thenReturn("/publish/1/fileName");
@@ -25,6 +25,10 @@ package org.onap.dmaap.datarouter.node;
 import static org.mockito.Mockito.when;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
 import org.junit.Assert;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -69,6 +73,22 @@ public class NodeUtilsTest {
         Assert.assertEquals("\\search|pub|12\n", s);
     }
 
+    @Test
+    public void Given_Times_Within_And_Across_Seconds_Then_Logts_Matches_SimpleDateFormat() {
+        SimpleDateFormat logDate = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSS'Z'");
+        logDate.setTimeZone(TimeZone.getTimeZone("GMT"));
+        long[] times = {0L, 7L, 999L, 1000L, 1538479000123L, 1538479000999L, 1538479001000L, 1538479000005L,
+            -1L, -999L, -1001L, 253402300799999L};
+        for (long time : times) {
+            Assert.assertEquals(logDate.format(new Date(time)), NodeUtils.logts(time));
+        }
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            long time = 1538479000000L + random.nextInt(5000);
+            Assert.assertEquals(logDate.format(new Date(time)), NodeUtils.logts(new Date(time)));
+        }
+    }
+
     @Test
     public void Given_Request_Has_RequestId_And_InvocationId_Headers_Set_MDC_Values() {
         when(request.getHeader("X-ONAP-RequestID")).thenReturn("123");
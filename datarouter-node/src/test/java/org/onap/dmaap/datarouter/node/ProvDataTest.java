@@ -21,12 +21,14 @@ package org.onap.dmaap.datarouter.node;
 
 
 import static junit.framework.Assert.assertEquals;
+import static junit.framework.Assert.assertFalse;
 import static junit.framework.Assert.assertNull;
 
 import java.io.ByteArrayInputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
+import org.json.JSONObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.onap.dmaap.datarouter.node.config.ProvData;
@@ -146,4 +148,44 @@ public class ProvDataTest {
         assertEquals(pd.getParams().length, 1);
         assertEquals(pd.getParams()[0].getName(), "PROV_DOMAIN");
     }
+
+    @Test
+    public void Validate_Delta_Replaces_Adds_And_Removes_Entries() throws Exception {
+        JSONObject document = new JSONObject("{"
+                + "\"feeds\":[{\"feedid\":1,\"name\":\"feed1\"},{\"feedid\":2,\"name\":\"feed2\"}],"
+                + "\"subscriptions\":[" + subscription(1, 1, "http://sub1") + "," + subscription(2, 2, "http://sub2")
+                + "],"
+                + "\"parameters\":{\"NODES\":[\"node1\"]}}");
+        JSONObject delta = new JSONObject("{\"delta\":true,\"since\":1,\"version\":2,"
+                + "\"feeds\":{\"changed\":[{\"feedid\":2,\"name\":\"renamed\"},{\"feedid\":3,\"name\":\"feed3\"}],"
+                + "\"deleted\":[]},"
+                + "\"subscriptions\":{\"changed\":[" + subscription(2, 2, "http://sub2/moved") + ","
+                + subscription(3, 3, "http://sub3") + "],\"deleted\":[\"1\"]},"
+                + "\"parameters\":{\"NODES\":[\"node1\",\"node2\"]}}");
+        ProvData.applyDelta(document, delta);
+
+        assertEquals(3, document.getJSONArray("feeds").length());
+        assertEquals("feed1", document.getJSONArray("feeds").getJSONObject(0).getString("name"));
+        assertEquals("renamed", document.getJSONArray("feeds").getJSONObject(1).getString("name"));
+        assertEquals(3, document.getJSONArray("feeds").getJSONObject(2).getInt("feedid"));
+        assertEquals(2, document.getJSONObject("parameters").getJSONArray("NODES").length());
+        assertFalse(document.has("delta"));
+
+        ProvData pd = new ProvData(document);
+        assertEquals(3, pd.getFeeds().length);
+        assertEquals("renamed//null", pd.getFeeds()[1].getLogData());
+        assertEquals(2, pd.getSubscriptions().length);
+        assertEquals("2", pd.getSubscriptions()[0].getSubId());
+        assertEquals("http://sub2/moved", pd.getSubscriptions()[0].getURL());
+        assertEquals("3", pd.getSubscriptions()[1].getSubId());
+        assertEquals("3", pd.getSubscriptions()[1].getFeedId());
+        assertEquals("http://sub3", pd.getSubscriptions()[1].getURL());
+        assertEquals(2, pd.getNodes().length);
+    }
+
+    private static String subscription(int subid, int feedid, String url) {
+        return "{\"subid\":" + subid + ",\"feedid\":" + feedid + ",\"suspend\":false,\"metadataOnly\":false,"
+                + "\"privilegedSubscriber\":false,\"decompress\":false,\"follow_redirect\":false,"
+                + "\"delivery\":{\"url\":\"" + url + "\",\"user\":\"LOGIN\",\"password\":\"PASSWORD\",\"use100\":true}}";
+    }
 }
@@ -0,0 +1,106 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.onap.dmaap.datarouter.node.delivery.SpoolFileEntity;
+
+public class SpoolFileEntityTest {
+
+    private static final int FILE_SIZE = 4 * 1024 * 1024;
+    private File datafile;
+    private byte[] content;
+
+    @Before
+    public void setUp() throws IOException {
+        content = new byte[FILE_SIZE];
+        new Random(1).nextBytes(content);
+        datafile = File.createTempFile("spool", ".dat");
+        Files.write(datafile.toPath(), content);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(datafile.toPath());
+    }
+
+    @Test
+    public void Given_Spool_File_Then_Whole_File_Is_Written() throws IOException {
+        SpoolFileEntity entity = new SpoolFileEntity(datafile, FILE_SIZE);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+        assertArrayEquals(content, outputStream.toByteArray());
+        assertEquals(FILE_SIZE, entity.getBytesSent());
+        assertEquals(FILE_SIZE, entity.getContentLength());
+    }
+
+    @Test
+    public void Given_Length_Shorter_Than_File_Then_Only_Length_Bytes_Are_Written() throws IOException {
+        SpoolFileEntity entity = new SpoolFileEntity(datafile, 1000);
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+        entity.writeTo(outputStream);
+        assertArrayEquals(Arrays.copyOf(content, 1000), outputStream.toByteArray());
+        assertEquals(1000, entity.getBytesSent());
+    }
+
+    @Test
+    public void Given_Entity_Written_Twice_Then_Each_Write_Sends_Whole_File() throws IOException {
+        SpoolFileEntity entity = new SpoolFileEntity(datafile, FILE_SIZE);
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        entity.writeTo(first);
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        entity.writeTo(second);
+        assertArrayEquals(content, first.toByteArray());
+        assertArrayEquals(content, second.toByteArray());
+        assertEquals(FILE_SIZE, entity.getBytesSent());
+    }
+
+    @Test
+    public void Given_Spool_File_Then_Content_Stream_Matches_File() throws IOException {
+        try (InputStream inputStream = new SpoolFileEntity(datafile, FILE_SIZE).getContent()) {
+            assertArrayEquals(content, inputStream.readAllBytes());
+        }
+    }
+
+    @Test
+    public void Given_Length_Shorter_Than_File_Then_Content_Stream_Stops_At_Length() throws IOException {
+        try (InputStream inputStream = new SpoolFileEntity(datafile, 1000).getContent()) {
+            assertArrayEquals(Arrays.copyOf(content, 1000), inputStream.readAllBytes());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void Given_File_Shorter_Than_Length_Then_Write_Fails() throws IOException {
+        new SpoolFileEntity(datafile, FILE_SIZE + 1L).writeTo(new ByteArrayOutputStream());
+    }
+}
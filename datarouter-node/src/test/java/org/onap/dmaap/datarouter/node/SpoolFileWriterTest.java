@@ -0,0 +1,101 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.node;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Random;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.onap.dmaap.datarouter.node.utils.SpoolFileWriter;
+
+public class SpoolFileWriterTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final Random random = new Random(42);
+
+    private byte[] body(int size) {
+        byte[] body = new byte[size];
+        random.nextBytes(body);
+        return body;
+    }
+
+    /**
+     * A stream that returns short reads, as a servlet input stream does.
+     */
+    private InputStream trickle(byte[] body) {
+        return new FilterInputStream(new ByteArrayInputStream(body)) {
+            @Override
+            public int read(byte[] buf, int off, int len) throws IOException {
+                return super.read(buf, off, Math.min(len, 1 + random.nextInt(20000)));
+            }
+        };
+    }
+
+    @Test
+    public void Given_Body_Larger_Than_Buffer_Then_File_Has_Whole_Body() throws Exception {
+        SpoolFileWriter writer = new SpoolFileWriter(65536, 2);
+        for (int size : new int[]{0, 1, 65536, 65537, 1000000}) {
+            byte[] body = body(size);
+            Path file = folder.newFile().toPath();
+            Assert.assertEquals(size, writer.write(trickle(body), file, null));
+            Assert.assertArrayEquals(body, Files.readAllBytes(file));
+        }
+        Assert.assertEquals(1, writer.getPooledBuffers());
+    }
+
+    @Test
+    public void Given_Existing_File_Then_It_Is_Replaced() throws Exception {
+        File file = folder.newFile();
+        Files.write(file.toPath(), body(300000));
+        byte[] body = body(1000);
+        new SpoolFileWriter(0, 1).write(new ByteArrayInputStream(body), file.toPath(), null);
+        Assert.assertArrayEquals(body, Files.readAllBytes(file.toPath()));
+    }
+
+    @Test
+    public void Given_Digest_Then_It_Covers_Whole_Body() throws Exception {
+        byte[] body = body(700000);
+        MessageDigest digest = MessageDigest.getInstance("MD5");
+        new SpoolFileWriter(100000, 1).write(trickle(body), folder.newFile().toPath(), digest);
+        Assert.assertArrayEquals(MessageDigest.getInstance("MD5").digest(body), digest.digest());
+    }
+
+    @Test
+    public void Given_No_Pool_Then_Nothing_Is_Kept() throws Exception {
+        byte[] body = body(200000);
+        Path file = folder.newFile().toPath();
+        SpoolFileWriter writer = new SpoolFileWriter(262144, 0);
+        writer.write(trickle(body), file, null);
+        Assert.assertArrayEquals(body, Files.readAllBytes(file));
+        Assert.assertEquals(0, writer.getPooledBuffers());
+    }
+}
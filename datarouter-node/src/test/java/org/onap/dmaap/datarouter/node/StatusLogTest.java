@@ -25,6 +25,10 @@ package org.onap.dmaap.datarouter.node;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import org.apache.commons.lang3.reflect.FieldUtils;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -42,14 +46,21 @@ import org.powermock.modules.junit4.PowerMockRunner;
 @PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*"})
 public class StatusLogTest {
 
+    private NodeConfigManager config;
+
     @Before
-    public void setUp() {
+    public void setUp() throws IllegalAccessException {
         PowerMockito.mockStatic(NodeConfigManager.class);
-        NodeConfigManager config = mock(NodeConfigManager.class);
+        config = mock(NodeConfigManager.class);
         when(config.getEventLogInterval()).thenReturn("5m");
         when(config.getEventLogPrefix()).thenReturn("logFile");
         when(config.getEventLogSuffix()).thenReturn(".log");
+        when(config.getEventLogQueueSize()).thenReturn(2);
         PowerMockito.when(NodeConfigManager.getInstance()).thenReturn(config);
+        FieldUtils.writeDeclaredStaticField(StatusLog.class, "config", config, true);
+        // Reopen the log file on the next write, as a test before may have deleted it
+        FieldUtils.writeDeclaredField(FieldUtils.readDeclaredStaticField(StatusLog.class, "instance", true),
+                "nexttime", 0L, true);
         PowerMockito.mockStatic(System.class);
         PowerMockito.when(System.currentTimeMillis()).thenReturn(1535367126000L);
     }
@@ -71,4 +82,43 @@ public class StatusLogTest {
         String logFile = StatusLog.getCurLogFile();
         Assert.assertTrue(logFile.matches("logFile-201808271[0-1]50.log"));
     }
+
+    @Test
+    public void Given_Flush_Interval_Queued_Events_Are_Written_Before_Cur_Log_File_Is_Returned() throws Exception {
+        when(config.getEventLogFlushInterval()).thenReturn(60000L);
+        StatusLog.logPub("123.node", "1", "https://node/publish/1/file", "PUT", "text/plain", 10L, "1.2.3.4",
+                "user", 204);
+        File logFile = new File(StatusLog.getCurLogFile());
+        try {
+            String content = new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+            Assert.assertTrue(content.contains(
+                    "|PUB|123.node|1|https://node/publish/1/file|PUT|text/plain|10|1.2.3.4|user|204\n"));
+        } finally {
+            logFile.delete();
+            new File("logFile.log").delete();
+        }
+    }
+
+    @Test
+    public void Given_Full_Queue_Reporting_Thread_Waits_For_Writer_And_Events_Stay_In_Order() throws Exception {
+        when(config.getEventLogFlushInterval()).thenReturn(60000L);
+        long overflows = StatusLog.getQueueOverflows();
+        for (int i = 1; i <= 5; i++) {
+            StatusLog.logDelExtra(i + ".node", "1", "2", 10L, 10L);
+        }
+        Assert.assertTrue(StatusLog.getQueueOverflows() > overflows);
+        File logFile = new File(StatusLog.getCurLogFile());
+        try {
+            String content = new String(Files.readAllBytes(logFile.toPath()), StandardCharsets.UTF_8);
+            int last = -1;
+            for (int i = 1; i <= 5; i++) {
+                int index = content.indexOf("|DLX|" + i + ".node|1|2|10|10\n");
+                Assert.assertTrue(index > last);
+                last = index;
+            }
+        } finally {
+            logFile.delete();
+            new File("logFile.log").delete();
+        }
+    }
 }
@@ -41,6 +41,7 @@ import java.security.cert.X509Certificate;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -66,6 +67,7 @@ import org.onap.dmaap.datarouter.provisioning.beans.NodeClass;
 import org.onap.dmaap.datarouter.provisioning.beans.Parameters;
 import org.onap.dmaap.datarouter.provisioning.beans.Subscription;
 import org.onap.dmaap.datarouter.provisioning.beans.Updateable;
+import org.onap.dmaap.datarouter.provisioning.utils.AddressTrie;
 import org.onap.dmaap.datarouter.provisioning.utils.Poker;
 import org.onap.dmaap.datarouter.provisioning.utils.ProvDbUtils;
 import org.onap.dmaap.datarouter.provisioning.utils.SynchronizerTask;
@@ -103,6 +105,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
     public static final String LOGLIST_CONTENT_TYPE = "application/vnd.dmaap-dr.log-list; version=1.0";
     public static final String PROVFULL_CONTENT_TYPE1 = "application/vnd.dmaap-dr.provfeed-full; version=1.0";
     public static final String PROVFULL_CONTENT_TYPE2 = "application/vnd.dmaap-dr.provfeed-full; version=2.0";
+    public static final String PROVDELTA_CONTENT_TYPE = "application/vnd.dmaap-dr.provfeed-delta; version=1.0";
     public static final String CERT_ATTRIBUTE = "javax.servlet.request.X509Certificate";
 
     static final String DB_PROBLEM_MSG = "There has been a problem with the DB.  It is suggested you "
@@ -155,7 +158,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
     /**
      * The set of authorized addresses and networks; pulled from the DB (PROV_AUTH_ADDRESSES).
      */
-    private static Set<String> authorizedAddressesAndNetworks = new HashSet<>();
+    private static volatile AddressTrie authorizedAddressesAndNetworks = AddressTrie.EMPTY;
     /**
      * The set of authorized names; pulled from the DB (PROV_AUTH_SUBJECTS).
      */
@@ -185,13 +188,9 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
      */
     private static String[] nodes = new String[0];
     /**
-     * Array of node IP addresses.
+     * The node and POD IP addresses, which may see the /internal URL tree.
      */
-    private static InetAddress[] nodeAddresses = new InetAddress[0];
-    /**
-     * Array of POD IP addresses.
-     */
-    private static InetAddress[] podAddresses = new InetAddress[0];
+    private static volatile AddressTrie internalAddresses = AddressTrie.EMPTY;
     /**
      * The maximum number of feeds allowed; pulled from the DB (PROV_MAXFEED_COUNT).
      */
@@ -237,8 +236,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
     private static SynchronizerTask synctask = null;
 
     //Data Router Subscriber HTTPS Relaxation feature USERSTORYID:US674047.
-    private InetAddress thishost;
-    private InetAddress loopback;
+    private AddressTrie localAddresses = AddressTrie.EMPTY;
 
     //DMAAP-597 (Tech Dept) REST request source IP auth relaxation to accommodate OOM kubernetes deploy
     private static String isAddressAuthEnabled = ProvRunner.getProvProperties()
@@ -276,8 +274,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
         try {
-            thishost = InetAddress.getLocalHost();
-            loopback = InetAddress.getLoopbackAddress();
+            localAddresses = AddressTrie.compile(InetAddress.getLocalHost(), InetAddress.getLoopbackAddress());
         } catch (UnknownHostException e) {
             intlogger.info("BaseServlet.init: " + e.getMessage(), e);
         }
@@ -394,17 +391,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
     private String checkRemoteHostAuthorization(HttpServletRequest request) {
         // Is remote IP authorized?
         String remote = request.getRemoteAddr();
-        try {
-            boolean found = false;
-            InetAddress ip = InetAddress.getByName(remote);
-            for (String addrnet : authorizedAddressesAndNetworks) {
-                found |= addressMatchesNetwork(ip, addrnet);
-            }
-            if (!found) {
-                return "Unauthorized address: " + remote;
-            }
-        } catch (UnknownHostException e) {
-            intlogger.error("PROV0051 BaseServlet.isAuthorizedForProvisioning: " + e.getMessage(), e);
+        if (!authorizedAddressesAndNetworks.contains(remote)) {
             return "Unauthorized address: " + remote;
         }
         return null;
@@ -417,76 +404,11 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
      * @return true iff authorized
      */
     boolean isAuthorizedForInternal(HttpServletRequest request) {
-        try {
-            if (!Boolean.parseBoolean(isAddressAuthEnabled)) {
-                return true;
-            }
-            InetAddress ip = InetAddress.getByName(request.getRemoteAddr());
-            for (InetAddress node : getNodeAddresses()) {
-                if (ip.equals(node)) {
-                    return true;
-                }
-            }
-            for (InetAddress pod : getPodAddresses()) {
-                if (ip.equals(pod)) {
-                    return true;
-                }
-            }
-            if (ip.equals(thishost)) {
-                return true;
-            }
-            if (ip.equals(loopback)) {
-                return true;
-            }
-        } catch (UnknownHostException e) {
-            intlogger.error("PROV0052 BaseServlet.isAuthorizedForInternal: " + e.getMessage(), e);
-        }
-        return false;
-    }
-
-    /**
-     * Check if an IP address matches a network address.
-     *
-     * @param ip the IP address
-     * @param str  the network address; a bare IP address may be matched also
-     * @return true if they intersect
-     */
-    private static boolean addressMatchesNetwork(InetAddress ip, String str) {
-        int mlen = -1;
-        int substr = str.indexOf('/');
-        if (substr >= 0) {
-            mlen = Integer.parseInt(str.substring(substr + 1));
-            str = str.substring(0, substr);
-        }
-        try {
-            InetAddress i2 = InetAddress.getByName(str);
-            byte[] b1 = ip.getAddress();
-            byte[] b2 = i2.getAddress();
-            if (b1.length != b2.length) {
-                return false;
-            }
-            if (mlen > 0) {
-                byte[] masks = {
-                    (byte) 0x00, (byte) 0x80, (byte) 0xC0, (byte) 0xE0,
-                    (byte) 0xF0, (byte) 0xF8, (byte) 0xFC, (byte) 0xFE
-                };
-                byte mask = masks[mlen % 8];
-                for (substr = mlen / 8; substr < b1.length; substr++) {
-                    b1[substr] &= mask;
-                    b2[substr] &= mask;
-                    mask = 0;
-                }
-            }
-            for (substr = 0; substr < b1.length; substr++) {
-                if (b1[substr] != b2[substr]) {
-                    return false;
-                }
-            }
-        } catch (UnknownHostException e) {
-            intlogger.error("PROV0053 BaseServlet.addressMatchesNetwork: " + e.getMessage(), e);
-            return false;
+        if (!Boolean.parseBoolean(isAddressAuthEnabled)) {
+            return true;
         }
-        return true;
+        String remote = request.getRemoteAddr();
+        return internalAddresses.contains(remote) || localAddresses.contains(remote);
     }
 
     /**
@@ -506,7 +428,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
         Map<String, String> map = Parameters.getParameters();
         requireSecure = getBoolean(map, Parameters.PROV_REQUIRE_SECURE);
         requireCert = getBoolean(map, Parameters.PROV_REQUIRE_CERT);
-        authorizedAddressesAndNetworks = getSet(map, Parameters.PROV_AUTH_ADDRESSES);
+        authorizedAddressesAndNetworks = AddressTrie.compile(getSet(map, Parameters.PROV_AUTH_ADDRESSES));
         authorizedNames = getSet(map, Parameters.PROV_AUTH_SUBJECTS);
         nodes = getSet(map, Parameters.NODES).toArray(new String[0]);
         maxFeeds = getInt(map, Parameters.PROV_MAXFEED_COUNT, DEFAULT_MAX_FEEDS);
@@ -531,7 +453,7 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
             intlogger.warn("PROV0014 Cannot determine the name of this provisioning server.", e);
         }
 
-        // Normalize the nodes, and fill in nodeAddresses
+        // Normalize the nodes, and fill in internalAddresses
         InetAddress[] na = new InetAddress[nodes.length];
         for (int i = 0; i < nodes.length; i++) {
             try {
@@ -552,22 +474,21 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
         }
         nodes = filterNodes.toArray(new String[0]);
 
-        nodeAddresses = na;
         NodeClass.setNodes(nodes);        // update NODES table
 
-        // Normalize the PODs, and fill in podAddresses
+        // Normalize the PODs, and add them to internalAddresses
         String[] pods = getPods();
-        na = new InetAddress[pods.length];
+        int nodeCount = na.length;
+        na = Arrays.copyOf(na, nodeCount + pods.length);
         for (int i = 0; i < pods.length; i++) {
             try {
-                na[i] = InetAddress.getByName(pods[i]);
-                intlogger.debug("PROV0003 DNS lookup: " + pods[i] + " => " + na[i].toString());
+                na[nodeCount + i] = InetAddress.getByName(pods[i]);
+                intlogger.debug("PROV0003 DNS lookup: " + pods[i] + " => " + na[nodeCount + i].toString());
             } catch (UnknownHostException e) {
-                na[i] = null;
                 intlogger.warn("PROV0004 Cannot lookup " + pods[i] + ": " + e.getMessage(), e);
             }
         }
-        podAddresses = na;
+        internalAddresses = AddressTrie.compile(na);
 
         // Update ThrottleFilter
         ThrottleFilter.configure();
@@ -595,15 +516,6 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
         return nodes;
     }
 
-    /**
-     * Get an array of all node InetAddresses in the DR network.
-     *
-     * @return an array of InetAddresses
-     */
-    private static InetAddress[] getNodeAddresses() {
-        return nodeAddresses;
-    }
-
     /**
      * Get an array of all POD names in the DR network.
      *
@@ -613,15 +525,6 @@ public class BaseServlet extends HttpServlet implements ProvDataProvider {
         return new String[]{initialActivePod, initialStandbyPod};
     }
 
-    /**
-     * Get an array of all POD InetAddresses in the DR network.
-     *
-     * @return an array of InetAddresses
-     */
-    private static InetAddress[] getPodAddresses() {
-        return podAddresses;
-    }
-
     /**
      * Gets the FQDN of the initially ACTIVE_POD provisioning server (POD). Note: this used to be called isActivePOD(),
      * however, that is a misnomer, as the active status could shift to the standby POD without these parameters
@@ -28,26 +28,29 @@ import static org.onap.dmaap.datarouter.provisioning.utils.HttpServletUtils.send
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.FileStore;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.util.Map;
 import java.util.Properties;
+import java.util.zip.GZIPOutputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.json.JSONArray;
+import org.json.JSONObject;
 import org.onap.dmaap.datarouter.provisioning.beans.EventLogRecord;
 import org.onap.dmaap.datarouter.provisioning.beans.LogRecord;
 import org.onap.dmaap.datarouter.provisioning.beans.Parameters;
 import org.onap.dmaap.datarouter.provisioning.eelf.EelfMsgs;
 import org.onap.dmaap.datarouter.provisioning.utils.LogfileLoader;
+import org.onap.dmaap.datarouter.provisioning.utils.NodePoker;
 import org.onap.dmaap.datarouter.provisioning.utils.Poker;
+import org.onap.dmaap.datarouter.provisioning.utils.ProvisioningHistory;
 import org.onap.dmaap.datarouter.provisioning.utils.RLEBitSet;
 import org.onap.dmaap.datarouter.provisioning.utils.SynchronizerTask;
 
@@ -68,7 +71,9 @@ import org.onap.dmaap.datarouter.provisioning.utils.SynchronizerTask;
  * <tr class="altColor">
  * <td class="colFirst">/internal/prov</td>
  * <td class="colOne">GET</td>
- * <td class="colLast">used to GET a full JSON copy of the provisioning data.</td>
+ * <td class="colLast">used to GET a full JSON copy of the provisioning data. With the <i>since</i> and
+ * <i>instance</i> parameters set from the X-DMAAP-DR-PROV-VERSION and X-DMAAP-DR-PROV-INSTANCE headers of an earlier
+ * response, only the changes since then are returned, if they are still available.</td>
  * </tr>
  * <tr class="rowColor">
  * <td class="colFirst">/internal/fetchProv</td>
@@ -123,9 +128,15 @@ import org.onap.dmaap.datarouter.provisioning.utils.SynchronizerTask;
  * <td class="colOne">POST</td>
  * <td class="colLast">used to retrieve specific log entries.
  * The sequence numbers of the records to fetch are POST-ed; the records matching the sequence numbers are
- * returned.</td>
+ * streamed back, gzip compressed if the request has <i>Accept-Encoding: gzip</i>.</td>
  * </tr>
  * <tr class="altColor">
+ * <td class="colFirst">/internal/pokes</td>
+ * <td class="colOne">GET</td>
+ * <td class="colLast">used to GET the number of pokes and failed pokes, and the latency of the last and the slowest
+ * poke, for each node and POD this server has poked, as a JSON object keyed by poke URL.</td>
+ * </tr>
+ * <tr class="rowColor">
  * <td class="colFirst">/internal/route/*</td>
  * <td class="colOne">*</td>
  * <td class="colLast">URLs under this path are handled via the
@@ -269,10 +280,14 @@ public class InternalServlet extends ProxyServlet {
                     intlogger.info("Active server unavailable; falling back to local copy.");
                 }
                 Poker pkr = Poker.getPoker();
+                ProvisioningHistory.Response prov = pkr.getProvisioningResponse(req.getParameter("instance"),
+                    req.getParameter("since"));
                 resp.setStatus(HttpServletResponse.SC_OK);
-                resp.setContentType(PROVFULL_CONTENT_TYPE2);
+                resp.setContentType(prov.isDelta() ? PROVDELTA_CONTENT_TYPE : PROVFULL_CONTENT_TYPE2);
+                resp.setHeader(ProvisioningHistory.VERSION_HEADER, Long.toString(prov.getVersion()));
+                resp.setHeader(ProvisioningHistory.INSTANCE_HEADER, prov.getInstance());
                 try {
-                    resp.getOutputStream().print(pkr.getProvisioningString());
+                    resp.getOutputStream().print(prov.getBody());
                 } catch (IOException ioe) {
                     intlogger.error("PROV0131 InternalServlet.doGet: " + ioe.getMessage(), ioe);
                 }
@@ -340,6 +355,26 @@ public class InternalServlet extends ProxyServlet {
                 }
                 return;
             }
+            if ("/pokes".equals(path)) {
+                JSONObject pokes = new JSONObject();
+                for (Map.Entry<String, NodePoker.PokeStats> entry : Poker.getPoker().getPokeStats().entrySet()) {
+                    NodePoker.PokeStats stats = entry.getValue();
+                    JSONObject jo = new JSONObject();
+                    jo.put("pokes", stats.getPokes());
+                    jo.put("failures", stats.getFailures());
+                    jo.put("lastLatency", stats.getLastLatency());
+                    jo.put("maxLatency", stats.getMaxLatency());
+                    pokes.put(entry.getKey(), jo);
+                }
+                resp.setStatus(HttpServletResponse.SC_OK);
+                resp.setContentType("application/json");
+                try {
+                    resp.getOutputStream().print(pokes.toString());
+                } catch (IOException ioe) {
+                    intlogger.error("PROV0140 InternalServlet.doGet: " + ioe.getMessage(), ioe);
+                }
+                return;
+            }
             sendResponseError(resp, HttpServletResponse.SC_NOT_FOUND, BAD_URL, eventlogger);
         } finally {
             eelfLogger.info(EelfMsgs.EXIT);
@@ -528,17 +563,21 @@ public class InternalServlet extends ProxyServlet {
                     return;
                 }
                 try {
-                    InputStream is = req.getInputStream();
-                    ByteArrayOutputStream bos = new ByteArrayOutputStream();
-                    int ch;
-                    while ((ch = is.read()) >= 0) {
-                        bos.write(ch);
-                    }
+                    // The set of records to retrieve
+                    RLEBitSet bs = new RLEBitSet(new String(req.getInputStream().readAllBytes()));
                     elr.setResult(HttpServletResponse.SC_OK);
                     resp.setStatus(HttpServletResponse.SC_OK);
                     resp.setContentType(TEXT_CT);
-                    RLEBitSet bs = new RLEBitSet(bos.toString());    // The set of records to retrieve
-                    LogRecord.printLogRecords(resp.getOutputStream(), bs);
+                    // The records are streamed as they are read, compressed if the peer accepts it
+                    String accept = req.getHeader("Accept-Encoding");
+                    if (accept != null && accept.contains("gzip")) {
+                        resp.setHeader("Content-Encoding", "gzip");
+                        try (GZIPOutputStream gzip = new GZIPOutputStream(resp.getOutputStream(), 65536)) {
+                            LogRecord.printLogRecords(gzip, bs);
+                        }
+                    } else {
+                        LogRecord.printLogRecords(resp.getOutputStream(), bs);
+                    }
                     eventlogger.info(elr.toString());
                 } catch (IOException ioe) {
                     intlogger.error("PROV0139 InternalServlet.doPost: " + ioe.getMessage(), ioe);
@@ -30,21 +30,17 @@ import com.att.eelf.configuration.EELFManager;
 import jakarta.servlet.ServletConfig;
 import jakarta.servlet.ServletException;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collection;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 
 import org.apache.commons.lang3.StringUtils;
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-import org.json.JSONTokener;
 import org.onap.dmaap.datarouter.provisioning.utils.Poker;
 import org.onap.dmaap.datarouter.provisioning.beans.EventLogRecord;
 import org.onap.dmaap.datarouter.provisioning.beans.IngressRoute;
 import org.onap.dmaap.datarouter.provisioning.eelf.EelfMsgs;
+import org.onap.dmaap.datarouter.provisioning.utils.PublishRoutes;
 import org.onap.dmaap.datarouter.provisioning.utils.URLUtilities;
 
 /**
@@ -59,22 +55,16 @@ import org.onap.dmaap.datarouter.provisioning.utils.URLUtilities;
 
 public class PublishServlet extends BaseServlet {
 
-    private int nextNode;
-    private String provstring;
-    private List<IngressRoute> irt;
+    private final AtomicInteger nextNode = new AtomicInteger();
     //Adding EELF Logger Rally:US664892
     private static EELFLogger eelfLogger = EELFManager.getInstance()
             .getLogger(PublishServlet.class);
-    private static final Object lock = new Object();
 
 
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
-        nextNode = 0;
-        provstring = "";
-        irt = new ArrayList<>();
-
+        nextNode.set(0);
     }
 
     @Override
@@ -146,7 +136,9 @@ public class PublishServlet extends BaseServlet {
                         "There are no nodes defined in the DR network.");
             } else {
                 EventLogRecord elr = new EventLogRecord(req);
-                int feedid = checkPath(req);
+                // Use one snapshot of the routing data for the whole request
+                PublishRoutes routes = Poker.getPoker().getPublishRoutes();
+                int feedid = checkPath(req, routes);
                 if (feedid < 0) {
                     String message = (feedid == -1)
                             ? "Invalid request - Missing or bad feed number."
@@ -158,7 +150,7 @@ public class PublishServlet extends BaseServlet {
                     resp.sendError(HttpServletResponse.SC_NOT_FOUND, message);
                 } else {
                     // Generate new URL
-                    String nextnode = getRedirectNode(feedid, req);
+                    String nextnode = getRedirectNode(feedid, req, routes);
                     if (Boolean.TRUE.equals(ProvRunner.getTlsEnabled())) {
                         nextnode = nextnode + ":" + ProvRunner.getProvProperties().getProperty(
                             "org.onap.dmaap.datarouter.nodeserver.https.port", "8443");
@@ -187,47 +179,25 @@ public class PublishServlet extends BaseServlet {
         }
     }
 
-    private String getRedirectNode(int feedid, HttpServletRequest req) {
-        // Check to see if the IRT needs to be updated
-        Poker pkr = Poker.getPoker();
-        String str = pkr.getProvisioningString();
-        synchronized (lock) {
-            if (irt == null || (str.length() != provstring.length()) || !str.equals(provstring)) {
-                // Provisioning string has changed -- update the IRT
-                provstring = str;
-                JSONObject jo = new JSONObject(new JSONTokener(provstring));
-                JSONArray ja = jo.getJSONArray("ingress");
-                List<IngressRoute> newlist = new ArrayList<>();
-                for (int i = 0; i < ja.length(); i++) {
-                    IngressRoute iroute = new IngressRoute(ja.getJSONObject(i));
-                    newlist.add(iroute);
-                }
-                irt = newlist;
-            }
-        }
-
+    private String getRedirectNode(int feedid, HttpServletRequest req, PublishRoutes routes) {
         // Look in IRT for next node
-        for (IngressRoute route : irt) {
-            if (route.matches(feedid, req)) {
-                // pick a node at random from the list
-                Collection<String> nodes = route.getNodes();
-                String[] arr = nodes.toArray(new String[0]);
-                long id = System.currentTimeMillis() % arr.length;
-                String node = arr[(int) id];
-                intlogger.info("Redirecting to " + node + " because of route " + route);
-                return node;
-            }
+        IngressRoute route = routes.getRoute(feedid, req);
+        if (route != null) {
+            // pick a node at random from the list
+            Collection<String> nodes = route.getNodes();
+            String[] arr = nodes.toArray(new String[0]);
+            long id = System.currentTimeMillis() % arr.length;
+            String node = arr[(int) id];
+            intlogger.info("Redirecting to " + node + " because of route " + route);
+            return node;
         }
 
         // No IRT rule matches, do round robin of all active nodes
         String[] nodes = getNodes();
-        if (nextNode >= nodes.length) {   // The list of nodes may have grown/shrunk
-            nextNode = 0;
-        }
-        return nodes[nextNode++];
+        return nodes[Math.floorMod(nextNode.getAndIncrement(), nodes.length)];
     }
 
-    private int checkPath(HttpServletRequest req) {
+    private int checkPath(HttpServletRequest req, PublishRoutes routes) {
         String path = req.getPathInfo();
         if (path == null || path.length() < 2) {
             return -1;
@@ -239,15 +209,8 @@ public class PublishServlet extends BaseServlet {
         }
         try {
             int feedid = Integer.parseInt(path.substring(0, ix));
-            String provData = Poker.getPoker().getProvisioningString();
-            JSONArray feeds = new JSONObject(provData).getJSONArray("feeds");
-            for (int n = 0; n < feeds.length(); ++n) {
-                if (feeds.getJSONObject(n).getInt("feedid") == feedid) {
-                    return feedid;
-                }
-            }
-            return -1;
-        } catch (NumberFormatException | JSONException e) {
+            return routes.isFeed(feedid) ? feedid : -1;
+        } catch (NumberFormatException e) {
             intlogger.debug("PROV0152 PublishServlet.checkPath: " + e.getMessage(), e);
             return -1;
         }
@@ -35,9 +35,12 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.TimeZone;
 import jakarta.servlet.http.HttpServletRequest;
@@ -66,20 +69,27 @@ public class StatisticsServlet extends BaseServlet {
     public static final String FEEDID = "FEEDID";
     public static final String START = "start";
 
-    //sql Strings
-    private static final String SQL_SELECT_NAME = "SELECT (SELECT NAME FROM FEEDS AS f WHERE f.FEEDID in(";
-    private static final String SQL_FEED_ID = ") and f.FEEDID=e.FEEDID) AS FEEDNAME, e.FEEDID as FEEDID, ";
-    private static final String SQL_SELECT_COUNT = "(SELECT COUNT(*) FROM LOG_RECORDS AS c WHERE c.FEEDID in(";
-    private static final String SQL_TYPE_PUB = ") and c.FEEDID=e.FEEDID AND c.TYPE='PUB') AS FILES_PUBLISHED,";
-    private static final String SQL_SELECT_SUM = "(SELECT SUM(content_length) FROM LOG_RECORDS AS c WHERE c.FEEDID in(";
-    private static final String SQL_PUBLISH_LENGTH = ") and c.FEEDID=e.FEEDID AND c.TYPE='PUB') AS PUBLISH_LENGTH, COUNT(e.EVENT_TIME) as FILES_DELIVERED,";
-    private static final String SQL_SUBSCRIBER_URL = " sum(m.content_length) as DELIVERED_LENGTH, SUBSTRING_INDEX(e.REQURI,'/',+3) as SUBSCRIBER_URL,";
-    private static final String SQL_SUB_ID = " e.DELIVERY_SUBID as SUBID, ";
-    private static final String SQL_DELIVERY_TIME = " e.EVENT_TIME AS PUBLISH_TIME, m.EVENT_TIME AS DELIVERY_TIME, ";
-    private static final String SQL_AVERAGE_DELAY = " AVG(e.EVENT_TIME - m.EVENT_TIME)/1000 as AverageDelay FROM LOG_RECORDS";
-    private static final String SQL_JOIN_RECORDS = " e JOIN LOG_RECORDS m ON m.PUBLISH_ID = e.PUBLISH_ID AND e.FEEDID IN (";
-    private static final String SQL_STATUS_204 = " AND m.STATUS=204 AND e.RESULT=204 ";
-    private static final String SQL_GROUP_SUB_ID = " group by SUBID";
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    // The per subscription delivery totals, joined with the feed name and the per feed publish totals. The first
+    // placeholder is the rollup table, the second the feed IDs and the third the subscription IDs.
+    private static final String SQL_ROLLUP = "SELECT f.NAME AS FEEDNAME, d.FEEDID AS FEEDID,"
+        + " p.FILES_PUBLISHED AS FILES_PUBLISHED, p.PUBLISH_LENGTH AS PUBLISH_LENGTH,"
+        + " d.FILES_DELIVERED AS FILES_DELIVERED, d.DELIVERED_LENGTH AS DELIVERED_LENGTH,"
+        + " d.SUBSCRIBER_URL AS SUBSCRIBER_URL, d.SUBID AS SUBID, d.PUBLISH_TIME AS PUBLISH_TIME,"
+        + " d.DELIVERY_TIME AS DELIVERY_TIME, d.AverageDelay AS AverageDelay"
+        + " FROM (SELECT FEEDID, SUBID, SUM(FILES_DELIVERED) AS FILES_DELIVERED,"
+        + " SUM(BYTES_DELIVERED) AS DELIVERED_LENGTH,"
+        + " MAX(SUBSCRIBER_URL) AS SUBSCRIBER_URL, MAX(LAST_PUBLISH_TIME) AS PUBLISH_TIME,"
+        + " MAX(LAST_DELIVERY_TIME) AS DELIVERY_TIME,"
+        + " SUM(DELAY_SUM) / 1000.0 / NULLIF(SUM(DELAY_COUNT), 0) AS AverageDelay"
+        + " FROM %1$s WHERE FEEDID IN (%2$s) AND SUBID %3$s AND PERIOD_START >= ? AND PERIOD_START <= ?"
+        + " GROUP BY FEEDID, SUBID HAVING SUM(FILES_DELIVERED) > 0) d"
+        + " LEFT JOIN FEEDS f ON f.FEEDID = d.FEEDID"
+        + " LEFT JOIN (SELECT FEEDID, SUM(FILES_PUBLISHED) AS FILES_PUBLISHED, SUM(BYTES_PUBLISHED) AS PUBLISH_LENGTH"
+        + " FROM %1$s WHERE FEEDID IN (%2$s) AND SUBID = 0 AND PERIOD_START >= ? AND PERIOD_START <= ?"
+        + " GROUP BY FEEDID) p ON p.FEEDID = d.FEEDID"
+        + " ORDER BY d.SUBID";
     private static final String JSON_OUTPUT_TYPE = "json";
     private static final String CSV_OUTPUT_TYPE = "csv";
 
@@ -143,15 +153,9 @@ public class StatisticsServlet extends BaseServlet {
                 eventlogger.error("PROV0173 StatisticsServlet.doGet: " + e.getMessage(), e);
             }
         }
-        if (req.getParameter(SUBID) != null && req.getParameter(FEEDID) != null) {
-            String subidstr = "and e.DELIVERY_SUBID in("
-                + req.getParameter(SUBID).replace("|", ",") + ")";
-            map.put(SUBID, subidstr);
-        }
-        if (req.getParameter(SUBID) != null && req.getParameter(GROUPID) != null) {
-            String subidstr = "and e.DELIVERY_SUBID in("
-                + req.getParameter(SUBID).replace("|", ",") + ")";
-            map.put(SUBID, subidstr);
+        if (req.getParameter(SUBID) != null
+            && (req.getParameter(FEEDID) != null || req.getParameter(GROUPID) != null)) {
+            map.put(SUBID, req.getParameter(SUBID).replace("|", ","));
         }
         if (req.getParameter("type") != null) {
             map.put(EVENT_TYPE, req.getParameter("type").replace("|", ","));
@@ -304,80 +308,88 @@ public class StatisticsServlet extends BaseServlet {
     /**
      * getResultSet - Set the result from the query.
      *
+     * <p>The totals are read from the rollup tables maintained by the LogfileLoader, rather than from LOG_RECORDS:
+     * the daily totals when no time is given, and the hourly totals otherwise, from the start of the hour that the
+     * start time falls in.
+     *
      * @param map as key value pare of all user input fields
      */
     private void getResultSet(Map<String, String> map, String outputType, ServletOutputStream out,
         HttpServletResponse resp) throws ParseException, SQLException, IOException {
 
-        String sql;
-        String feedids = null;
-        String startTime = null;
-        String endTime = null;
-        long compareTime = 0;
-        long startInMillis = 0;
-        long endInMillis = 0;
-        String subid = " ";
-        String compareType;
-        ResultSet rs;
-
-        if (map.get(FEEDIDS) != null) {
-            feedids = map.get(FEEDIDS);
-        }
-        if (map.get(START_TIME) != null) {
-            startTime = map.get(START_TIME);
-        }
-        if (map.get(END_TIME) != null) {
-            endTime =  map.get(END_TIME);
-        }
-        if (map.get(SUBID) != null) {
-            subid = map.get(SUBID);
-        }
-
+        String startTime = map.get(START_TIME);
+        String endTime = map.get(END_TIME);
+        String table = "LOG_ROLLUP_HOURLY";
+        long startInMillis;
+        long endInMillis = Long.MAX_VALUE;
         if (endTime == null && startTime == null) {
-            sql =  SQL_SELECT_NAME + "?" + SQL_FEED_ID + SQL_SELECT_COUNT + "?" + SQL_TYPE_PUB + SQL_SELECT_SUM
-                + "?" + SQL_PUBLISH_LENGTH + SQL_SUBSCRIBER_URL + SQL_SUB_ID + SQL_DELIVERY_TIME + SQL_AVERAGE_DELAY
-                + SQL_JOIN_RECORDS + "?" + ") " + SQL_STATUS_204 + SQL_GROUP_SUB_ID;
-            compareType = "default";
+            table = "LOG_ROLLUP_DAILY";
+            startInMillis = 0;
         } else if (startTime != null && endTime == null) {
             long inputTimeInMilli = 60000 * Long.parseLong(startTime);
             Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT"));
             long currentTimeInMilli = cal.getTimeInMillis();
-            compareTime = currentTimeInMilli - inputTimeInMilli;
-            sql = SQL_SELECT_NAME + "?" + SQL_FEED_ID + SQL_SELECT_COUNT + "?" + SQL_TYPE_PUB + SQL_SELECT_SUM
-                + "?" + SQL_PUBLISH_LENGTH + SQL_SUBSCRIBER_URL + SQL_SUB_ID + SQL_DELIVERY_TIME + SQL_AVERAGE_DELAY
-                + SQL_JOIN_RECORDS + "?" + ") " + SQL_STATUS_204
-                + " and e.event_time>=" + "?" + SQL_GROUP_SUB_ID;
-            compareType = START;
+            startInMillis = currentTimeInMilli - inputTimeInMilli;
         } else {
             SimpleDateFormat inFormat = new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss");
             Date startDate = inFormat.parse(startTime);
             Date endDate = inFormat.parse(endTime);
             startInMillis = startDate.getTime();
             endInMillis = endDate.getTime();
-            sql = SQL_SELECT_NAME + "?" + SQL_FEED_ID + SQL_SELECT_COUNT + "?" + SQL_TYPE_PUB + SQL_SELECT_SUM
-                + "?" + SQL_PUBLISH_LENGTH + SQL_SUBSCRIBER_URL + SQL_SUB_ID + SQL_DELIVERY_TIME + SQL_AVERAGE_DELAY
-                + SQL_JOIN_RECORDS + "?" + ") " +  SQL_STATUS_204
-                + " and e.event_time between " + "?" + " and " + "?" + SQL_GROUP_SUB_ID;
-            compareType = "startAndEnd";
         }
+        startInMillis -= startInMillis % HOUR;
+
+        List<Integer> feedids = parseIds(map.get(FEEDIDS));
+        if (feedids.isEmpty()) {
+            // Match no feeds, but still produce the usual (empty) output
+            feedids.add(-1);
+        }
+        List<Integer> subids = parseIds(map.get(SUBID));
+        String subidSql = subids.isEmpty() ? "> 0" : "IN (" + placeholders(subids.size()) + ")";
+        String sql = String.format(SQL_ROLLUP, table, placeholders(feedids.size()), subidSql);
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
             PreparedStatement ps = conn.prepareStatement(sql)) {
             eventlogger.debug("SQL Query for Statistics resultset. " + sql);
             intlogger.debug(sql);
-            ps.setString(1, feedids);
-            ps.setString(2, feedids);
-            ps.setString(3, feedids);
-            ps.setString(4, feedids);
-            if (compareType.equals(START)) {
-                ps.setLong(5, compareTime);
+            int ix = 1;
+            for (int feedid : feedids) {
+                ps.setInt(ix++, feedid);
+            }
+            for (int subid : subids) {
+                ps.setInt(ix++, subid);
             }
-            if (compareType.equals("startAndEnd")) {
-                ps.setLong(5, startInMillis);
-                ps.setLong(6, endInMillis);
+            ps.setLong(ix++, startInMillis);
+            ps.setLong(ix++, endInMillis);
+            for (int feedid : feedids) {
+                ps.setInt(ix++, feedid);
+            }
+            ps.setLong(ix++, startInMillis);
+            ps.setLong(ix, endInMillis);
+            try (ResultSet rs = ps.executeQuery()) {
+                parseResult(outputType, out, resp, rs);
+            }
+        }
+    }
+
+    /**
+     * Parse a comma separated list of IDs, ignoring any that are not numbers.
+     */
+    private List<Integer> parseIds(String ids) {
+        List<Integer> list = new ArrayList<>();
+        if (ids != null) {
+            for (String id : ids.split(",")) {
+                try {
+                    list.add(Integer.parseInt(id.trim()));
+                } catch (NumberFormatException e) {
+                    eventlogger.error("PROV0176 StatisticsServlet.parseIds: bad ID " + id);
+                }
             }
-            rs = ps.executeQuery();
-            parseResult(outputType, out, resp, rs);
         }
+        return list;
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
     }
 
 
@@ -0,0 +1,184 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.beans;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToIntFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * An in-memory copy of one provisioning table (FEEDS, SUBSCRIPTIONS or GROUPS), keyed by ID.
+ *
+ * <p>The whole table is loaded on first use, and then kept coherent by the bean's own doInsert, doUpdate and doDelete
+ * methods, which re-read the row they wrote once the write is done. The SynchronizerTask invalidates the cache before
+ * each sync, so a standby POD compares against what is really in its database. The cached beans are never handed out;
+ * every lookup returns a copy, which the caller is free to modify.
+ *
+ * @param <T> the bean type
+ */
+public class EntityCache<T> {
+
+    private static final EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
+
+    private final String name;
+    private final TableLoader<T> tableLoader;
+    private final RowLoader<T> rowLoader;
+    private final ToIntFunction<T> idOf;
+    private final UnaryOperator<T> copier;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private volatile Map<Integer, T> entries;
+
+    /**
+     * Reads the whole table.
+     */
+    interface TableLoader<T> {
+        Collection<T> load() throws SQLException;
+    }
+
+    /**
+     * Reads one row of the table, returning null if there is no such row.
+     */
+    interface RowLoader<T> {
+        T load(int id) throws SQLException;
+    }
+
+    EntityCache(String name, TableLoader<T> tableLoader, RowLoader<T> rowLoader, ToIntFunction<T> idOf,
+        UnaryOperator<T> copier) {
+        this.name = name;
+        this.tableLoader = tableLoader;
+        this.rowLoader = rowLoader;
+        this.idOf = idOf;
+        this.copier = copier;
+    }
+
+    /**
+     * Get a copy of the bean with this ID.
+     *
+     * @param id the ID
+     * @return the bean, or null if there is none
+     */
+    public T get(int id) {
+        T bean = entries().get(id);
+        return (bean == null) ? null : copier.apply(bean);
+    }
+
+    /**
+     * Check if there is a bean with this ID.
+     */
+    public boolean contains(int id) {
+        return entries().containsKey(id);
+    }
+
+    /**
+     * Get a copy of every bean, in ID order.
+     */
+    public List<T> getAll() {
+        Collection<T> beans = entries().values();
+        List<T> list = new ArrayList<>(beans.size());
+        for (T bean : beans) {
+            list.add(copier.apply(bean));
+        }
+        return list;
+    }
+
+    /**
+     * Drop the cached beans, so the next lookup reloads the table.
+     */
+    public synchronized void invalidate() {
+        entries = null;
+    }
+
+    /**
+     * Get the number of lookups served from memory.
+     */
+    public long getHits() {
+        return hits.get();
+    }
+
+    /**
+     * Get the number of lookups that had to load the table from the DB.
+     */
+    public long getMisses() {
+        return misses.get();
+    }
+
+    /**
+     * Re-read one row after it has been written, and replace (or remove) the cached bean.
+     */
+    synchronized void refresh(int id) {
+        if (entries == null) {
+            return;
+        }
+        try {
+            T bean = rowLoader.load(id);
+            Map<Integer, T> map = new TreeMap<>(entries);
+            if (bean == null) {
+                map.remove(id);
+            } else {
+                map.put(id, bean);
+            }
+            entries = Collections.unmodifiableMap(map);
+        } catch (SQLException e) {
+            intlogger.warn("PROV0031 Could not refresh " + name + " " + id + " in the cache: " + e.getMessage(), e);
+            entries = null;
+        }
+    }
+
+    private Map<Integer, T> entries() {
+        Map<Integer, T> map = entries;
+        if (map != null) {
+            hits.incrementAndGet();
+            return map;
+        }
+        return load();
+    }
+
+    private synchronized Map<Integer, T> load() {
+        if (entries != null) {
+            hits.incrementAndGet();
+            return entries;
+        }
+        misses.incrementAndGet();
+        Map<Integer, T> map = new TreeMap<>();
+        try {
+            for (T bean : tableLoader.load()) {
+                map.put(idOf.applyAsInt(bean), bean);
+            }
+        } catch (SQLException e) {
+            intlogger.warn("PROV0031 Could not load " + name + " into the cache: " + e.getMessage(), e);
+            return Collections.unmodifiableMap(map);
+        }
+        entries = Collections.unmodifiableMap(map);
+        intlogger.debug("PROV0030 Loaded " + map.size() + " " + name + " into the cache (" + hits.get() + " hits, "
+            + misses.get() + " misses)");
+        return entries;
+    }
+}
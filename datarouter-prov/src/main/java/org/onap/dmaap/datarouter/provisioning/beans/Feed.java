@@ -58,6 +58,8 @@ public class Feed extends Syncable {
 
     private static EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
     private static int nextFeedID = getMaxFeedID() + 1;
+    private static final EntityCache<Feed> cache = new EntityCache<>("feeds", Feed::loadAllFeeds,
+        id -> loadFeedBySQL("select * from FEEDS where FEEDID = " + id), Feed::getFeedid, Feed::new);
     private static final String FEED_ID_SQL = "FEEDID";
     private static final String FEED_ID = "feedid";
     private static final String DEL = "deleted";
@@ -133,6 +135,35 @@ public class Feed extends Syncable {
         this.createdDate = rs.getTimestamp("CREATED_DATE");
     }
 
+    /**
+     * Copy constructor, used by the feed cache.
+     * @param other the Feed to copy
+     */
+    private Feed(Feed other) {
+        this.feedid = other.feedid;
+        this.groupid = other.groupid;
+        this.name = other.name;
+        this.version = other.version;
+        this.description = other.description;
+        this.businessDescription = other.businessDescription;
+        this.authorization = new FeedAuthorization();
+        this.authorization.setClassification(other.authorization.getClassification());
+        for (FeedEndpointID fid : other.authorization.getEndpointIDS()) {
+            this.authorization.getEndpointIDS().add(new FeedEndpointID(fid.getId(), fid.getPassword()));
+        }
+        this.authorization.getEndpointAddrs().addAll(other.authorization.getEndpointAddrs());
+        this.publisher = other.publisher;
+        this.links = new FeedLinks();
+        this.links.setSelf(other.links.getSelf());
+        this.links.setPublish(other.links.getPublish());
+        this.links.setSubscribe(other.links.getSubscribe());
+        this.links.setLog(other.links.getLog());
+        this.deleted = other.deleted;
+        this.suspended = other.suspended;
+        this.lastMod = other.lastMod;
+        this.createdDate = other.createdDate;
+    }
+
     /**
      * Feed constructor from JSONObject.
      * @param jo JSONObject
@@ -215,33 +246,18 @@ public class Feed extends Syncable {
      * @param id the Feed ID
      * @return true if it is valid
      */
-    @SuppressWarnings("resource")
     static boolean isFeedValid(int id) {
-        int count = 0;
-        try (Connection conn = ProvDbUtils.getInstance().getConnection();
-            PreparedStatement ps = conn.prepareStatement(
-                "select COUNT(*) from FEEDS where FEEDID = ?")) {
-            ps.setInt(1, id);
-            try (ResultSet rs = ps.executeQuery()) {
-                if (rs.next()) {
-                    count = rs.getInt(1);
-                }
-            }
-        } catch (SQLException e) {
-            intlogger.warn("PROV0024 Feed.isFeedValid: " + e.getMessage(), e);
-        }
-        return count != 0;
+        return cache.contains(id);
     }
 
     /**
-     * Get a specific feed from the DB, based upon its ID.
+     * Get a specific feed, based upon its ID. The feed is served from the feed cache.
      *
      * @param id the Feed ID
      * @return the Feed object, or null if it does not exist
      */
     public static Feed getFeedById(int id) {
-        String sql = "select * from FEEDS where FEEDID = " + id;
-        return getFeedBySQL(sql);
+        return cache.get(id);
     }
 
     /**
@@ -300,10 +316,22 @@ public class Feed extends Syncable {
     }
 
     /**
-     * Gets all feeds.
+     * Gets all feeds, from the feed cache.
      * @return Collection of feeds
      */
     public static Collection<Feed> getAllFeeds() {
+        return cache.getAll();
+    }
+
+    /**
+     * Get the feed cache.
+     * @return the cache
+     */
+    public static EntityCache<Feed> getCache() {
+        return cache;
+    }
+
+    private static Collection<Feed> loadAllFeeds() throws SQLException {
         Map<Integer, Feed> map = new HashMap<>();
         try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
             try (PreparedStatement ps = conn.prepareStatement("select * from FEEDS");
@@ -336,8 +364,6 @@ public class Feed extends Syncable {
                     }
                 }
             }
-        } catch (SQLException e) {
-            intlogger.warn("PROV0027 Feed.getAllFeeds: " + e.getMessage(), e);
         }
         return map.values();
     }
@@ -378,8 +404,16 @@ public class Feed extends Syncable {
         return list;
     }
 
-    @SuppressWarnings("resource")
     private static Feed getFeedBySQL(String sql) {
+        try {
+            return loadFeedBySQL(sql);
+        } catch (SQLException e) {
+            intlogger.warn("PROV0029 Feed.getFeedBySQL: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+    private static Feed loadFeedBySQL(String sql) throws SQLException {
         Feed feed = null;
         try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
             try (Statement stmt = conn.createStatement()) {
@@ -406,8 +440,6 @@ public class Feed extends Syncable {
                     }
                 }
             }
-        } catch (SQLException e) {
-            intlogger.warn("PROV0029 Feed.getFeedBySQL: " + e.getMessage(), e);
         }
         return feed;
     }
@@ -586,6 +618,7 @@ public class Feed extends Syncable {
             rv = false;
             intlogger.error("PROV0007 doDelete: " + e.getMessage(), e);
         }
+        cache.refresh(feedid);
         return rv;
     }
 
@@ -644,6 +677,7 @@ public class Feed extends Syncable {
             rv = false;
             intlogger.error("PROV0005 doInsert: " + e.getMessage(), e);
         }
+        cache.refresh(feedid);
         return rv;
     }
 
@@ -717,6 +751,7 @@ public class Feed extends Syncable {
             rv = false;
             intlogger.warn("PROV0006 doUpdate: " + e.getMessage(), e);
         }
+        cache.refresh(feedid);
         return rv;
     }
 
@@ -736,6 +771,7 @@ public class Feed extends Syncable {
             rv = false;
             intlogger.warn("PROV0008 changeOwnerShip: " + e.getMessage(), e);
         }
+        cache.refresh(feedid);
         return rv;
     }
 
@@ -50,6 +50,8 @@ public class Group extends Syncable {
     private static final String GROUP_ID_CONST = "groupid";
     private static EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
     private static int nextGroupid = getMaxGroupID() + 1;
+    private static final EntityCache<Group> cache = new EntityCache<>("groups",
+        () -> loadGroups("select * from GROUPS"), Group::loadGroup, Group::getGroupid, Group::new);
 
     private int groupid;
     private String authid;
@@ -95,6 +97,20 @@ public class Group extends Syncable {
         this.lastMod = rs.getDate("LAST_MOD");
     }
 
+    /**
+     * Copy constructor, used by the group cache.
+     * @param other the Group to copy
+     */
+    private Group(Group other) {
+        this.groupid = other.groupid;
+        this.authid = other.authid;
+        this.name = other.name;
+        this.description = other.description;
+        this.classification = other.classification;
+        this.members = other.members;
+        this.lastMod = other.lastMod;
+    }
+
     /**
      * Group constructor for JSONObject.
      * @param jo JSONObject
@@ -156,14 +172,12 @@ public class Group extends Syncable {
     }
 
     /**
-     * Get group from DB using groupid only.
+     * Get group using groupid only, from the group cache.
      * @param id id of group
      * @return group object
      */
     public static Group getGroupById(int id) {
-        String sql = "select * from GROUPS where GROUPID = " + id;
-        List<Group> list = getGroupsForSQL(sql);
-        return !list.isEmpty() ? list.get(0) : null;
+        return cache.get(id);
     }
 
     /**
@@ -178,10 +192,27 @@ public class Group extends Syncable {
     }
 
     public static Collection<Group> getAllgroups() {
-        return getGroupsForSQL("select * from GROUPS");
+        return cache.getAll();
+    }
+
+    /**
+     * Get the group cache.
+     * @return the cache
+     */
+    public static EntityCache<Group> getCache() {
+        return cache;
     }
 
     private static List<Group> getGroupsForSQL(String sql) {
+        try {
+            return loadGroups(sql);
+        } catch (SQLException e) {
+            intlogger.error("PROV0009 getGroupsForSQL: " + e.getMessage(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Group> loadGroups(String sql) throws SQLException {
         List<Group> list = new ArrayList<>();
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
             PreparedStatement ps = conn.prepareStatement(sql);
@@ -190,12 +221,15 @@ public class Group extends Syncable {
                 Group group = new Group(rs);
                 list.add(group);
             }
-        } catch (SQLException e) {
-            intlogger.error("PROV0009 getGroupsForSQL: " + e.getMessage(), e);
         }
         return list;
     }
 
+    private static Group loadGroup(int id) throws SQLException {
+        List<Group> list = loadGroups("select * from GROUPS where GROUPID = " + id);
+        return !list.isEmpty() ? list.get(0) : null;
+    }
+
     private static int getMaxGroupID() {
         int max = 0;
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
@@ -301,6 +335,7 @@ public class Group extends Syncable {
             rv = false;
             intlogger.error("PROV0005 doInsert: " + e.getMessage(), e);
         }
+        cache.refresh(groupid);
         return rv;
     }
 
@@ -320,6 +355,7 @@ public class Group extends Syncable {
             rv = false;
             intlogger.error("PROV0006 doUpdate: " + e.getMessage(), e);
         }
+        cache.refresh(groupid);
         return rv;
     }
 
@@ -333,6 +369,7 @@ public class Group extends Syncable {
             rv = false;
             intlogger.error("PROV0007 doDelete: " + e.getMessage(), e);
         }
+        cache.refresh(groupid);
         return rv;
     }
 
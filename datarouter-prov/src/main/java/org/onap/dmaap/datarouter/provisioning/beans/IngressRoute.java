@@ -58,6 +58,7 @@ public class IngressRoute extends NodeClass implements Comparable<IngressRoute>
     private final int feedid;
     private final String userid;
     private final String subnet;
+    private final SubnetMatcher subnetMatcher;
     private int nodelist;
     private SortedSet<String> nodes;
 
@@ -96,6 +97,9 @@ public class IngressRoute extends NodeClass implements Comparable<IngressRoute>
             if (!sm.isValid()) {
                 throw new IllegalArgumentException("Invalid subnet: " + subnet);
             }
+            this.subnetMatcher = sm;
+        } else {
+            this.subnetMatcher = null;
         }
     }
 
@@ -110,6 +114,7 @@ public class IngressRoute extends NodeClass implements Comparable<IngressRoute>
         this.userid = "".equals(user) ? "-" : user;
         user = jo.optString("subnet");
         this.subnet = "".equals(user) ? "-" : user;
+        this.subnetMatcher = "-".equals(this.subnet) ? null : new SubnetMatcher(this.subnet);
         this.nodelist = -1;
         this.nodes = new TreeSet<>();
         JSONArray ja = jo.getJSONArray("node");
@@ -257,8 +262,7 @@ public class IngressRoute extends NodeClass implements Comparable<IngressRoute>
         if (subnet.length() > 0 && !"-".equals(subnet)) {
             try {
                 InetAddress inet = InetAddress.getByName(req.getRemoteAddr());
-                SubnetMatcher sm = new SubnetMatcher(subnet);
-                return sm.matches(inet.getAddress());
+                return subnetMatcher.matches(inet.getAddress());
             } catch (UnknownHostException e) {
                 intlogger.error("PROV0008 matches: " + e.getMessage(), e);
                 return false;
@@ -336,6 +340,15 @@ public class IngressRoute extends NodeClass implements Comparable<IngressRoute>
         }
     }
 
+    /**
+     * Get the feed ID this route applies to.
+     *
+     * @return the feed ID
+     */
+    public int getFeedid() {
+        return this.feedid;
+    }
+
     /**
      * Get the list of node names for this route.
      *
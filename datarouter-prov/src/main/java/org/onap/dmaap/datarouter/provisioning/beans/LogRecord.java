@@ -26,15 +26,18 @@ package org.onap.dmaap.datarouter.provisioning.beans;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
+import java.io.BufferedWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Types;
 import java.text.ParseException;
-import java.util.Iterator;
 import org.onap.dmaap.datarouter.provisioning.utils.ProvDbUtils;
 import org.onap.dmaap.datarouter.provisioning.utils.RLEBitSet;
 
@@ -48,6 +51,7 @@ import org.onap.dmaap.datarouter.provisioning.utils.RLEBitSet;
  */
 public class LogRecord extends BaseLogRecord {
 
+    private static final int PAGE_SIZE = 10000;
     private static EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
     private final String type;
     private final String feedFileID;
@@ -109,43 +113,74 @@ public class LogRecord extends BaseLogRecord {
         this.reason = pp[17];
 
         this.recordId = Long.parseLong(pp[18]);
-        this.clength2 = (pp.length == 21) ? Long.parseLong(pp[19]) : 0;
-        this.fileName = pp[20];
+        this.clength2 = (pp.length >= 20) ? Long.parseLong(pp[19]) : 0;
+        this.fileName = (pp.length >= 21) ? pp[20] : null;
     }
 
     /**
      * Print all log records whose RECORD_IDs are in the bit set provided.
      *
+     * <p>The records are read with a single cursor over the span of the bit set, a page of {@value #PAGE_SIZE} records
+     * at a time in RECORD_ID order, each page starting after the last record of the previous one, and written as they
+     * are read; records not in the bit set are skipped.
+     *
      * @param os the {@link OutputStream} to print the records on
      * @param bs the {@link RLEBitSet} listing the record IDs to print
      * @throws IOException in case of I/O error
      */
     public static void printLogRecords(OutputStream os, RLEBitSet bs) throws IOException {
-        Iterator<Long[]> iter = bs.getRangeIterator();
+        if (bs.isEmpty()) {
+            return;
+        }
+        long next = bs.getRangeIterator().next()[0];
+        long last = bs.length() - 1;
+        Writer out = new BufferedWriter(new OutputStreamWriter(os, Charset.defaultCharset()));
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
             PreparedStatement ps = conn.prepareStatement(
-                "select * from LOG_RECORDS where RECORD_ID >= ? AND RECORD_ID <= ?")) {
-            while (iter.hasNext()) {
-                Long[] nxt = iter.next();
-                ps.setLong(1, nxt[0]);
-                ps.setLong(2, nxt[1]);
+                "select * from LOG_RECORDS where RECORD_ID >= ? AND RECORD_ID <= ? ORDER BY RECORD_ID limit "
+                    + PAGE_SIZE)) {
+            int rows = PAGE_SIZE;
+            while (rows == PAGE_SIZE && next <= last) {
+                ps.setLong(1, next);
+                ps.setLong(2, last);
+                rows = 0;
                 try (ResultSet rs = ps.executeQuery()) {
                     while (rs.next()) {
+                        rows++;
                         LogRecord lr = new LogRecord(rs);
-                        os.write(lr.toString().getBytes());
+                        next = lr.recordId + 1;
+                        if (bs.get(lr.recordId)) {
+                            out.write(lr.toString());
+                        }
                     }
-                    ps.clearParameters();
                 }
             }
         } catch (SQLException e) {
             intlogger.error("PROV0001 printLogRecords: " + e.getMessage(), e);
         }
+        out.flush();
     }
 
     public long getRecordId() {
         return recordId;
     }
 
+    public String getType() {
+        return type;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public int getSubID() {
+        return subID;
+    }
+
+    public int getResult() {
+        return result;
+    }
+
     @Override
     public String toString() {
         return
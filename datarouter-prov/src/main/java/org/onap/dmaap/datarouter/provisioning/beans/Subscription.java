@@ -57,8 +57,12 @@ public class Subscription extends Syncable {
     private static final String GROUPID_KEY = "groupid";
     private static final String LAST_MOD_KEY = "last_mod";
     private static final String CREATED_DATE = "created_date";
+    private static final int MAX_IN_FLIGHT_LIMIT = 100;
     private static EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
     private static int nextSubid = getMaxSubID() + 1;
+    private static final EntityCache<Subscription> cache = new EntityCache<>("subscriptions",
+        () -> loadSubscriptions("select * from SUBSCRIPTIONS"), Subscription::loadSubscription,
+        Subscription::getSubid, Subscription::new);
 
     private int subid;
     private int feedid;
@@ -73,6 +77,7 @@ public class Subscription extends Syncable {
     private Date createdDate;
     private boolean privilegedSubscriber;
     private boolean decompress;
+    private int maxInFlight;
 
     public Subscription() {
         this("", "", "");
@@ -98,6 +103,7 @@ public class Subscription extends Syncable {
         this.createdDate = new Date();
         this.privilegedSubscriber = false;
         this.decompress = false;
+        this.maxInFlight = 1;
     }
 
     /**
@@ -120,6 +126,29 @@ public class Subscription extends Syncable {
         this.createdDate = rs.getDate("CREATED_DATE");
         this.privilegedSubscriber = rs.getBoolean("PRIVILEGED_SUBSCRIBER");
         this.decompress  = rs.getBoolean("DECOMPRESS");
+        this.maxInFlight = rs.getInt("MAX_IN_FLIGHT");
+    }
+
+    /**
+     * Copy constructor, used by the subscription cache.
+     * @param other the Subscription to copy
+     */
+    private Subscription(Subscription other) {
+        this.subid = other.subid;
+        this.feedid = other.feedid;
+        this.groupid = other.groupid;
+        this.delivery = new SubDelivery(other.delivery.getUrl(), other.delivery.getUser(),
+            other.delivery.getPassword(), other.delivery.isUse100());
+        this.metadataOnly = other.metadataOnly;
+        this.followRedirect = other.followRedirect;
+        this.subscriber = other.subscriber;
+        this.links = new SubLinks(other.links.getSelf(), other.links.getFeed(), other.links.getLog());
+        this.suspended = other.suspended;
+        this.lastMod = other.lastMod;
+        this.createdDate = other.createdDate;
+        this.privilegedSubscriber = other.privilegedSubscriber;
+        this.decompress = other.decompress;
+        this.maxInFlight = other.maxInFlight;
     }
 
     /**
@@ -161,6 +190,10 @@ public class Subscription extends Syncable {
             this.suspended = jo.optBoolean("suspend", false);
             this.privilegedSubscriber = jo.optBoolean("privilegedSubscriber", false);
             this.decompress = jo.optBoolean("decompress", false);
+            this.maxInFlight = jo.optInt("maxInFlight", 1);
+            if (maxInFlight < 1 || maxInFlight > MAX_IN_FLIGHT_LIMIT) {
+                throw new InvalidObjectException("maxInFlight must be between 1 and " + MAX_IN_FLIGHT_LIMIT);
+            }
             this.subscriber = jo.optString("subscriber", "");
             JSONObject jol = jo.optJSONObject("links");
             this.links = (jol == null) ? (new SubLinks()) : (new SubLinks(jol));
@@ -196,18 +229,24 @@ public class Subscription extends Syncable {
     }
 
     /**
-     * Get subscription by id.
+     * Get subscription by id, from the subscription cache.
      * @param id subscription id string
      * @return subscription
      */
     public static Subscription getSubscriptionById(int id) {
-        String sql = "select * from SUBSCRIPTIONS where SUBID = " + id;
-        List<Subscription> list = getSubscriptionsForSQL(sql);
-        return !list.isEmpty() ? list.get(0) : null;
+        return cache.get(id);
     }
 
     public static Collection<Subscription> getAllSubscriptions() {
-        return getSubscriptionsForSQL("select * from SUBSCRIPTIONS");
+        return cache.getAll();
+    }
+
+    /**
+     * Get the subscription cache.
+     * @return the cache
+     */
+    public static EntityCache<Subscription> getCache() {
+        return cache;
     }
 
     /**
@@ -216,6 +255,15 @@ public class Subscription extends Syncable {
      * @return List of subscriptions
      */
     private static List<Subscription> getSubscriptionsForSQL(String sql) {
+        try {
+            return loadSubscriptions(sql);
+        } catch (SQLException e) {
+            intlogger.error("PROV0001 getSubscriptionsForSQL: " + e.toString(), e);
+            return new ArrayList<>();
+        }
+    }
+
+    private static List<Subscription> loadSubscriptions(String sql) throws SQLException {
         List<Subscription> list = new ArrayList<>();
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
             PreparedStatement ps = conn.prepareStatement(sql);
@@ -224,12 +272,15 @@ public class Subscription extends Syncable {
                 Subscription sub = new Subscription(rs);
                 list.add(sub);
             }
-        } catch (SQLException e) {
-            intlogger.error("PROV0001 getSubscriptionsForSQL: " + e.toString(), e);
         }
         return list;
     }
 
+    private static Subscription loadSubscription(int id) throws SQLException {
+        List<Subscription> list = loadSubscriptions("select * from SUBSCRIPTIONS where SUBID = " + id);
+        return !list.isEmpty() ? list.get(0) : null;
+    }
+
     /**
      * Get max subid.
      * @return subid int
@@ -409,6 +460,14 @@ public class Subscription extends Syncable {
         this.decompress = decompress;
     }
 
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
     @Override
     public JSONObject asJSONObject() {
         JSONObject jo = new JSONObject();
@@ -425,6 +484,7 @@ public class Subscription extends Syncable {
         jo.put(CREATED_DATE, createdDate.getTime());
         jo.put("privilegedSubscriber", privilegedSubscriber);
         jo.put("decompress", decompress);
+        jo.put("maxInFlight", maxInFlight);
         return jo;
     }
 
@@ -474,8 +534,8 @@ public class Subscription extends Syncable {
             // Create the SUBSCRIPTIONS row
             String sql = "insert into SUBSCRIPTIONS (SUBID, FEEDID, DELIVERY_URL, DELIVERY_USER, DELIVERY_PASSWORD, "
                 + "DELIVERY_USE100, METADATA_ONLY, SUBSCRIBER, SUSPENDED, GROUPID, "
-                + "PRIVILEGED_SUBSCRIBER, FOLLOW_REDIRECTS, DECOMPRESS) "
-                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+                + "PRIVILEGED_SUBSCRIBER, FOLLOW_REDIRECTS, DECOMPRESS, MAX_IN_FLIGHT) "
+                + "values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
             ps = conn.prepareStatement(sql, new String[]{SUBID_COL});
             ps.setInt(1, subid);
             ps.setInt(2, feedid);
@@ -490,6 +550,7 @@ public class Subscription extends Syncable {
             ps.setBoolean(11, isPrivilegedSubscriber());
             ps.setInt(12, isFollowRedirect() ? 1 : 0);
             ps.setBoolean(13, isDecompress());
+            ps.setInt(14, maxInFlight);
             ps.execute();
             ps.close();
             // Update the row to set the URLs
@@ -512,6 +573,7 @@ public class Subscription extends Syncable {
                 intlogger.error(SQLEXCEPTION + e.getMessage(), e);
             }
         }
+        cache.refresh(subid);
         return rv;
     }
 
@@ -521,7 +583,7 @@ public class Subscription extends Syncable {
         try (PreparedStatement ps = conn.prepareStatement(
             "update SUBSCRIPTIONS set DELIVERY_URL = ?, DELIVERY_USER = ?, DELIVERY_PASSWORD = ?, "
             + "DELIVERY_USE100 = ?, METADATA_ONLY = ?, SUSPENDED = ?, GROUPID = ?, PRIVILEGED_SUBSCRIBER = ?, "
-            + "FOLLOW_REDIRECTS = ?, DECOMPRESS = ? where SUBID = ?")) {
+            + "FOLLOW_REDIRECTS = ?, DECOMPRESS = ?, MAX_IN_FLIGHT = ? where SUBID = ?")) {
             ps.setString(1, delivery.getUrl());
             ps.setString(2, delivery.getUser());
             ps.setString(3, delivery.getPassword());
@@ -532,12 +594,14 @@ public class Subscription extends Syncable {
             ps.setInt(8, privilegedSubscriber ? 1 : 0);
             ps.setInt(9, isFollowRedirect() ? 1 : 0);
             ps.setInt(10, isDecompress() ? 1 : 0);
-            ps.setInt(11, subid);
+            ps.setInt(11, maxInFlight);
+            ps.setInt(12, subid);
             ps.executeUpdate();
         } catch (SQLException e) {
             rv = false;
             intlogger.warn("PROV0006 doUpdate: " + e.getMessage(), e);
         }
+        cache.refresh(subid);
         return rv;
     }
 
@@ -557,6 +621,7 @@ public class Subscription extends Syncable {
             rv = false;
             intlogger.warn("PROV0006 doUpdate: " + e.getMessage(), e);
         }
+        cache.refresh(subid);
         return rv;
     }
 
@@ -571,6 +636,7 @@ public class Subscription extends Syncable {
             rv = false;
             intlogger.warn("PROV0007 doDelete: " + e.getMessage(), e);
         }
+        cache.refresh(subid);
         return rv;
     }
 
@@ -613,6 +679,9 @@ public class Subscription extends Syncable {
         if (suspended != os.suspended) {
             return false;
         }
+        if (maxInFlight != os.maxInFlight) {
+            return false;
+        }
         return true;
     }
 
@@ -0,0 +1,321 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * An immutable set of IPv4 and IPv6 addresses and networks, compiled into a binary prefix trie.
+ *
+ * <p>Names in the set are resolved once, when the trie is compiled. Looking up an address walks at most one trie
+ * node per address bit, parsing the textual address as it goes, so {@link #contains(String)} neither allocates nor
+ * touches DNS. This makes it cheap enough to run on every request.
+ */
+public final class AddressTrie {
+
+    /**
+     * A trie that contains nothing.
+     */
+    public static final AddressTrie EMPTY = new Builder().build();
+
+    private static final EELFLogger intlogger = EELFManager.getInstance().getLogger("InternalLog");
+    private static final int IPV4_ROOT = 0;
+    private static final int IPV6_ROOT = 1;
+
+    /**
+     * Child node indexes; the children of node n are at 2n (bit 0) and 2n+1 (bit 1). 0 means no child, as the IPv4
+     * root is never anybody's child.
+     */
+    private final int[] children;
+    /**
+     * True for nodes at the end of a network prefix.
+     */
+    private final boolean[] terminal;
+    private final int size;
+
+    private AddressTrie(int[] children, boolean[] terminal, int size) {
+        this.children = children;
+        this.terminal = terminal;
+        this.size = size;
+    }
+
+    /**
+     * Compile a set of addresses and networks. Each entry is an IP address or host name, optionally followed by
+     * "/" and a prefix length. As in earlier releases, a prefix length of 0, or one longer than the address, matches
+     * the address only. Entries that cannot be resolved or parsed are logged and left out.
+     *
+     * @param networks the addresses and networks
+     * @return the compiled trie
+     */
+    public static AddressTrie compile(Collection<String> networks) {
+        Builder builder = new Builder();
+        for (String network : networks) {
+            String addr = network;
+            int prefixLength = 0;
+            int slash = network.indexOf('/');
+            try {
+                if (slash >= 0) {
+                    addr = network.substring(0, slash);
+                    prefixLength = Integer.parseInt(network.substring(slash + 1).trim());
+                }
+                builder.add(InetAddress.getByName(addr.trim()).getAddress(), prefixLength);
+            } catch (UnknownHostException | NumberFormatException e) {
+                intlogger.error("PROV0053 AddressTrie.compile: cannot use " + network + ": " + e.getMessage(), e);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Compile a set of single addresses. Null addresses are skipped.
+     *
+     * @param addresses the addresses
+     * @return the compiled trie
+     */
+    public static AddressTrie compile(InetAddress... addresses) {
+        Builder builder = new Builder();
+        for (InetAddress address : addresses) {
+            if (address != null) {
+                builder.add(address.getAddress(), 0);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Get the number of addresses and networks in the trie.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if an address is in the set.
+     *
+     * @param addr the textual IPv4 or IPv6 address, as returned by ServletRequest.getRemoteAddr()
+     * @return true if the address is one of the addresses in the set, or falls in one of its networks; false if it
+     *     does not, or if it is not a valid address literal
+     */
+    public boolean contains(String addr) {
+        if (addr == null) {
+            return false;
+        }
+        int start = 0;
+        int end = addr.length();
+        if (end > 1 && addr.charAt(0) == '[' && addr.charAt(end - 1) == ']') {
+            start++;
+            end--;
+        }
+        int zone = addr.indexOf('%', start);
+        if (zone >= 0 && zone < end) {
+            end = zone;
+        }
+        if (addr.indexOf(':', start) < 0) {
+            long ipv4 = parseIpv4(addr, start, end);
+            return ipv4 >= 0 && lookup(IPV4_ROOT, ipv4 << 32, 0, 32);
+        }
+        return containsIpv6(addr, start, end);
+    }
+
+    private boolean containsIpv6(String addr, int start, int end) {
+        // Groups before "::" go into head, groups after it into tail; both are 128 bit numbers held in two longs.
+        long headHi = 0;
+        long headLo = 0;
+        long tailHi = 0;
+        long tailLo = 0;
+        int headGroups = 0;
+        int tailGroups = 0;
+        boolean compressed = false;
+        int pos = start;
+        if (addr.startsWith("::", pos)) {
+            compressed = true;
+            pos += 2;
+        }
+        while (pos < end) {
+            int next = pos;
+            int group = 0;
+            while (next < end && next - pos < 5) {
+                int digit = Character.digit(addr.charAt(next), 16);
+                if (digit < 0) {
+                    break;
+                }
+                group = (group << 4) | digit;
+                next++;
+            }
+            int groups = 1;
+            if (next < end && addr.charAt(next) == '.') {
+                // Trailing dotted IPv4 address, worth two groups
+                long ipv4 = parseIpv4(addr, pos, end);
+                if (ipv4 < 0) {
+                    return false;
+                }
+                next = end;
+                groups = 2;
+                group = (int) ipv4;
+            } else if (next == pos || next - pos > 4) {
+                return false;
+            }
+            if (headGroups + tailGroups + groups > 8) {
+                return false;
+            }
+            long bits = groups == 2 ? group & 0xFFFFFFFFL : group;
+            int shift = 16 * groups;
+            if (compressed) {
+                tailHi = (tailHi << shift) | (tailLo >>> (64 - shift));
+                tailLo = (tailLo << shift) | bits;
+                tailGroups += groups;
+            } else {
+                headHi = (headHi << shift) | (headLo >>> (64 - shift));
+                headLo = (headLo << shift) | bits;
+                headGroups += groups;
+            }
+            if (next == end) {
+                break;
+            }
+            if (addr.charAt(next) != ':' || next + 1 == end) {
+                return false;
+            }
+            pos = next + 1;
+            if (addr.charAt(pos) == ':') {
+                if (compressed) {
+                    return false;
+                }
+                compressed = true;
+                pos++;
+            }
+        }
+        if (compressed ? headGroups + tailGroups == 8 : headGroups != 8) {
+            return false;
+        }
+        for (int i = headGroups; i < 8; i++) {
+            headHi = (headHi << 16) | (headLo >>> 48);
+            headLo <<= 16;
+        }
+        long hi = headHi | tailHi;
+        long lo = headLo | tailLo;
+        if (hi == 0 && (lo >>> 32) == 0xFFFFL) {
+            // IPv4-mapped address; InetAddress treats these as plain IPv4 addresses, and so do we
+            return lookup(IPV4_ROOT, lo << 32, 0, 32);
+        }
+        return lookup(IPV6_ROOT, hi, lo, 128);
+    }
+
+    /**
+     * Walk down the trie from a root, following the top bits of an address held in hi and lo, and stop at the first
+     * prefix that ends on the way.
+     */
+    private boolean lookup(int root, long hi, long lo, int bitCount) {
+        int node = root;
+        for (int i = 0; i < bitCount; i++) {
+            if (terminal[node]) {
+                return true;
+            }
+            long word = (i < 64) ? hi : lo;
+            node = children[2 * node + (int) ((word >>> (63 - (i & 63))) & 1)];
+            if (node == 0) {
+                return false;
+            }
+        }
+        return terminal[node];
+    }
+
+    /**
+     * Parse a dotted IPv4 address.
+     *
+     * @return the address as an unsigned 32 bit number, or -1 if it is not valid
+     */
+    private static long parseIpv4(String addr, int start, int end) {
+        long value = 0;
+        int octets = 0;
+        int pos = start;
+        while (pos < end && octets < 4) {
+            int octet = 0;
+            int digits = 0;
+            while (pos < end && digits < 4) {
+                char ch = addr.charAt(pos);
+                if (ch < '0' || ch > '9') {
+                    break;
+                }
+                octet = octet * 10 + (ch - '0');
+                digits++;
+                pos++;
+            }
+            if (digits == 0 || digits > 3 || octet > 255) {
+                return -1;
+            }
+            value = (value << 8) | octet;
+            octets++;
+            if (pos < end) {
+                if (addr.charAt(pos) != '.' || octets == 4) {
+                    return -1;
+                }
+                pos++;
+                if (pos == end) {
+                    return -1;
+                }
+            }
+        }
+        return (octets == 4 && pos == end) ? value : -1;
+    }
+
+    private static final class Builder {
+        private int[] children = new int[16];
+        private boolean[] terminal = new boolean[8];
+        private int nodes = 2;
+        private int size;
+
+        void add(byte[] address, int prefixLength) {
+            int bitCount = address.length * 8;
+            if (prefixLength <= 0 || prefixLength > bitCount) {
+                prefixLength = bitCount;
+            }
+            int node = (address.length == 4) ? IPV4_ROOT : IPV6_ROOT;
+            for (int i = 0; i < prefixLength; i++) {
+                int bit = (address[i / 8] >>> (7 - (i % 8))) & 1;
+                int child = children[2 * node + bit];
+                if (child == 0) {
+                    child = newNode();
+                    children[2 * node + bit] = child;
+                }
+                node = child;
+            }
+            terminal[node] = true;
+            size++;
+        }
+
+        private int newNode() {
+            if (nodes == terminal.length) {
+                terminal = Arrays.copyOf(terminal, nodes * 2);
+                children = Arrays.copyOf(children, nodes * 4);
+            }
+            return nodes++;
+        }
+
+        AddressTrie build() {
+            return new AddressTrie(Arrays.copyOf(children, nodes * 2), Arrays.copyOf(terminal, nodes), size);
+        }
+    }
+}
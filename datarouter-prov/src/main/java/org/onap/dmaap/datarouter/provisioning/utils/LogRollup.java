@@ -0,0 +1,465 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.onap.dmaap.datarouter.provisioning.beans.DeliveryRecord;
+import org.onap.dmaap.datarouter.provisioning.beans.ExpiryRecord;
+import org.onap.dmaap.datarouter.provisioning.beans.Loadable;
+import org.onap.dmaap.datarouter.provisioning.beans.LogRecord;
+import org.onap.dmaap.datarouter.provisioning.beans.PublishRecord;
+
+/**
+ * Hourly and daily totals of the records in LOG_RECORDS, kept in the LOG_ROLLUP_HOURLY and LOG_ROLLUP_DAILY tables so
+ * that the StatisticsServlet and the reports do not have to scan LOG_RECORDS.
+ *
+ * <p>Each row holds the totals for one feed and subscription over the hour, or UTC day, starting at PERIOD_START. The
+ * files and bytes published on a feed are in the row with SUBID 0. The files and bytes delivered (successful deliveries
+ * only) and expired, and the delivery delays, are in the rows of the subscription. The delay of a delivery is measured
+ * from the time in its publish ID, which is when the node accepted the file.
+ *
+ * <p>The {@link LogfileLoader} adds the records it loads, and commits the totals after each batch of records. LOG_RECORDS
+ * is a MyISAM table, so the records cannot be in the same transaction. If the totals cannot be written, that update is
+ * rolled back, and the feeds and days it was for are marked stale and later recomputed from LOG_RECORDS. The totals
+ * are kept when old records are pruned from LOG_RECORDS.
+ */
+public class LogRollup {
+
+    static final String HOURLY_TABLE = "LOG_ROLLUP_HOURLY";
+    static final String DAILY_TABLE = "LOG_ROLLUP_DAILY";
+    private static final long HOUR = 60 * 60 * 1000L;
+    private static final long DAY = 24 * HOUR;
+    private static final int PAGE_SIZE = 100000;
+
+    private static final String UPDATE_SQL = "UPDATE %s SET FILES_PUBLISHED = FILES_PUBLISHED + ?, "
+        + "BYTES_PUBLISHED = BYTES_PUBLISHED + ?, FILES_DELIVERED = FILES_DELIVERED + ?, "
+        + "BYTES_DELIVERED = BYTES_DELIVERED + ?, FILES_EXPIRED = FILES_EXPIRED + ?, "
+        + "BYTES_EXPIRED = BYTES_EXPIRED + ?, "
+        + "DELAY_SUM = DELAY_SUM + ?, DELAY_COUNT = DELAY_COUNT + ?, "
+        + "LAST_PUBLISH_TIME = GREATEST(LAST_PUBLISH_TIME, ?), LAST_DELIVERY_TIME = GREATEST(LAST_DELIVERY_TIME, ?), "
+        + "SUBSCRIBER_URL = COALESCE(?, SUBSCRIBER_URL) WHERE PERIOD_START = ? AND FEEDID = ? AND SUBID = ?";
+    private static final String INSERT_SQL = "INSERT INTO %s (FILES_PUBLISHED, BYTES_PUBLISHED, FILES_DELIVERED, "
+        + "BYTES_DELIVERED, FILES_EXPIRED, BYTES_EXPIRED, DELAY_SUM, DELAY_COUNT, LAST_PUBLISH_TIME, "
+        + "LAST_DELIVERY_TIME, SUBSCRIBER_URL, PERIOD_START, FEEDID, SUBID) "
+        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final Map<Key, Totals> hourly = new HashMap<>();
+    private final Set<Key> stale = new HashSet<>();
+
+    /**
+     * Add a record to the totals. Records other than publish, delivery and expiry records are ignored.
+     *
+     * @param rec the record
+     */
+    public void add(Loadable rec) {
+        if (rec instanceof PublishRecord) {
+            PublishRecord pr = (PublishRecord) rec;
+            add("pub", pr.getEventTime(), pr.getFeedid(), 0, pr.getContentLength(), 0, null, null);
+        } else if (rec instanceof DeliveryRecord) {
+            DeliveryRecord dr = (DeliveryRecord) rec;
+            add("del", dr.getEventTime(), dr.getFeedid(), dr.getSubid(), dr.getContentLength(), dr.getResult(),
+                dr.getPublishId(), dr.getRequestUri());
+        } else if (rec instanceof ExpiryRecord) {
+            ExpiryRecord er = (ExpiryRecord) rec;
+            add("exp", er.getEventTime(), er.getFeedid(), er.getSubid(), er.getContentLength(), 0, null, null);
+        } else if (rec instanceof LogRecord) {
+            LogRecord lr = (LogRecord) rec;
+            add(lr.getType(), lr.getEventTime(), lr.getFeedid(), lr.getSubID(), lr.getContentLength(), lr.getResult(),
+                lr.getPublishId(), lr.getRequestUri());
+        }
+    }
+
+    /**
+     * Add a record to the totals.
+     *
+     * @param type the record type, pub, del or exp
+     * @param eventTime the time of the record
+     * @param feedid the feed
+     * @param subid the subscription, for a delivery or expiry
+     * @param contentLength the file size
+     * @param result the result of a delivery
+     * @param publishId the publish ID of a delivery
+     * @param requestUri the delivery URL of a delivery
+     */
+    void add(String type, long eventTime, int feedid, int subid, long contentLength, int result, String publishId,
+        String requestUri) {
+        Totals totals;
+        switch (String.valueOf(type)) {
+            case "pub":
+                totals = totals(eventTime, feedid, 0);
+                totals.filesPublished++;
+                totals.bytesPublished += contentLength;
+                break;
+            case "del":
+                if (result < 200 || result > 299) {
+                    return;
+                }
+                totals = totals(eventTime, feedid, subid);
+                totals.filesDelivered++;
+                totals.bytesDelivered += contentLength;
+                totals.lastDeliveryTime = Math.max(totals.lastDeliveryTime, eventTime);
+                long publishTime = getPublishTime(publishId);
+                if (publishTime > 0 && publishTime <= eventTime) {
+                    totals.delaySum += eventTime - publishTime;
+                    totals.delayCount++;
+                    totals.lastPublishTime = Math.max(totals.lastPublishTime, publishTime);
+                }
+                String url = getSubscriberUrl(requestUri);
+                if (url != null) {
+                    totals.subscriberUrl = url;
+                }
+                break;
+            case "exp":
+                totals = totals(eventTime, feedid, subid);
+                totals.filesExpired++;
+                totals.bytesExpired += contentLength;
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Check whether any records have been added since the totals were last written.
+     */
+    public boolean isEmpty() {
+        return hourly.isEmpty();
+    }
+
+    /**
+     * Drop the totals added since they were last written.
+     */
+    public void clear() {
+        hourly.clear();
+    }
+
+    /**
+     * Add the totals to the rollup tables, and clear them. This does not commit.
+     *
+     * @param conn the DB connection
+     * @throws SQLException if the tables cannot be updated; the totals are kept
+     */
+    public void write(Connection conn) throws SQLException {
+        writeTotals(conn);
+        hourly.clear();
+    }
+
+    /**
+     * Add the totals to the rollup tables and commit, and clear them. If that fails, the update is rolled back, the
+     * totals are dropped, and the feeds and days they were for are marked stale, so that {@link #rebuildStale} can
+     * recompute them from LOG_RECORDS.
+     *
+     * @param conn the DB connection, not in auto-commit mode
+     * @throws SQLException if the tables cannot be updated
+     */
+    public void commit(Connection conn) throws SQLException {
+        try {
+            writeTotals(conn);
+            conn.commit();
+        } catch (SQLException e) {
+            try {
+                conn.rollback();
+            } catch (SQLException rollbackFailure) {
+                e.addSuppressed(rollbackFailure);
+            }
+            for (Key key : hourly.keySet()) {
+                stale.add(new Key(key.periodStart - key.periodStart % DAY, key.feedid, 0));
+            }
+            throw e;
+        } finally {
+            hourly.clear();
+        }
+    }
+
+    /**
+     * Check whether any feeds and days are waiting to be recomputed.
+     */
+    public boolean hasStale() {
+        return !stale.isEmpty();
+    }
+
+    /**
+     * Recompute the totals of the feeds and days marked stale from the records in LOG_RECORDS, replacing their rows
+     * in the rollup tables. Each feed and day is committed on its own, and stays stale if it cannot be rebuilt. Records
+     * of those days that have already been pruned from LOG_RECORDS are no longer counted.
+     *
+     * @param conn the DB connection, not in auto-commit mode
+     * @return the number of feeds and days rebuilt
+     * @throws SQLException if a feed and day cannot be rebuilt
+     */
+    public int rebuildStale(Connection conn) throws SQLException {
+        int rebuilt = 0;
+        for (Iterator<Key> it = stale.iterator(); it.hasNext(); ) {
+            Key key = it.next();
+            try {
+                rebuild(conn, key.feedid, key.periodStart);
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            it.remove();
+            rebuilt++;
+        }
+        return rebuilt;
+    }
+
+    private static void rebuild(Connection conn, int feedid, long day) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+                "delete from " + HOURLY_TABLE + " where FEEDID = ? and PERIOD_START >= ? and PERIOD_START < ?")) {
+            ps.setInt(1, feedid);
+            ps.setLong(2, day);
+            ps.setLong(3, day + DAY);
+            ps.executeUpdate();
+        }
+        try (PreparedStatement ps = conn.prepareStatement(
+                "delete from " + DAILY_TABLE + " where FEEDID = ? and PERIOD_START = ?")) {
+            ps.setInt(1, feedid);
+            ps.setLong(2, day);
+            ps.executeUpdate();
+        }
+        LogRollup rebuilt = new LogRollup();
+        rebuilt.addRecords(conn, "and FEEDID = ? and EVENT_TIME >= ? and EVENT_TIME < ? ", feedid, day, day + DAY);
+        rebuilt.write(conn);
+    }
+
+    /**
+     * Build the rollup tables from the records in LOG_RECORDS, if they are empty. This is needed when they have just
+     * been added to a database that already holds records.
+     *
+     * @param conn the DB connection
+     * @return true if the tables were built
+     * @throws SQLException if the tables cannot be built
+     */
+    public boolean rebuildIfEmpty(Connection conn) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("select count(*) from " + DAILY_TABLE);
+            ResultSet rs = ps.executeQuery()) {
+            if (rs.next() && rs.getLong(1) > 0) {
+                return false;
+            }
+        }
+        LogRollup rebuilt = new LogRollup();
+        rebuilt.addRecords(conn, "");
+        rebuilt.write(conn);
+        return true;
+    }
+
+    /**
+     * Add the records in LOG_RECORDS that match a condition, a page at a time.
+     *
+     * @param conn the DB connection
+     * @param condition the condition, with a leading "and", or an empty string for all records
+     * @param params the values of the parameters in the condition
+     */
+    private void addRecords(Connection conn, String condition, long... params) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement(
+            "select RECORD_ID, TYPE, EVENT_TIME, FEEDID, DELIVERY_SUBID, CONTENT_LENGTH, RESULT, PUBLISH_ID, REQURI "
+                + "from LOG_RECORDS where RECORD_ID > ? " + condition + "ORDER BY RECORD_ID limit " + PAGE_SIZE)) {
+            for (int i = 0; i < params.length; i++) {
+                ps.setLong(i + 2, params[i]);
+            }
+            long lastId = -1;
+            int rows = PAGE_SIZE;
+            while (rows == PAGE_SIZE) {
+                ps.setLong(1, lastId);
+                rows = 0;
+                try (ResultSet rs = ps.executeQuery()) {
+                    while (rs.next()) {
+                        rows++;
+                        lastId = rs.getLong("RECORD_ID");
+                        add(rs.getString("TYPE"), rs.getLong("EVENT_TIME"), rs.getInt("FEEDID"),
+                            rs.getInt("DELIVERY_SUBID"), rs.getLong("CONTENT_LENGTH"), rs.getInt("RESULT"),
+                            rs.getString("PUBLISH_ID"), rs.getString("REQURI"));
+                    }
+                }
+            }
+        }
+    }
+
+    private Totals totals(long eventTime, int feedid, int subid) {
+        return hourly.computeIfAbsent(new Key(eventTime - eventTime % HOUR, feedid, subid), k -> new Totals());
+    }
+
+    private void writeTotals(Connection conn) throws SQLException {
+        if (hourly.isEmpty()) {
+            return;
+        }
+        Map<Key, Totals> daily = new HashMap<>();
+        for (Map.Entry<Key, Totals> entry : hourly.entrySet()) {
+            Key key = entry.getKey();
+            daily.computeIfAbsent(new Key(key.periodStart - key.periodStart % DAY, key.feedid, key.subid),
+                k -> new Totals()).add(entry.getValue());
+        }
+        write(conn, HOURLY_TABLE, hourly);
+        write(conn, DAILY_TABLE, daily);
+    }
+
+    private static void write(Connection conn, String table, Map<Key, Totals> totals) throws SQLException {
+        List<Map.Entry<Key, Totals>> entries = new ArrayList<>(totals.entrySet());
+        List<Map.Entry<Key, Totals>> missing = new ArrayList<>();
+        try (PreparedStatement ps = conn.prepareStatement(String.format(UPDATE_SQL, table))) {
+            for (Map.Entry<Key, Totals> entry : entries) {
+                bind(ps, entry.getKey(), entry.getValue());
+                ps.addBatch();
+            }
+            int[] counts = ps.executeBatch();
+            for (int i = 0; i < counts.length; i++) {
+                if (counts[i] == 0) {
+                    missing.add(entries.get(i));
+                }
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement ps = conn.prepareStatement(String.format(INSERT_SQL, table))) {
+            for (Map.Entry<Key, Totals> entry : missing) {
+                bind(ps, entry.getKey(), entry.getValue());
+                ps.addBatch();
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void bind(PreparedStatement ps, Key key, Totals totals) throws SQLException {
+        ps.setLong(1, totals.filesPublished);
+        ps.setLong(2, totals.bytesPublished);
+        ps.setLong(3, totals.filesDelivered);
+        ps.setLong(4, totals.bytesDelivered);
+        ps.setLong(5, totals.filesExpired);
+        ps.setLong(6, totals.bytesExpired);
+        ps.setLong(7, totals.delaySum);
+        ps.setLong(8, totals.delayCount);
+        ps.setLong(9, totals.lastPublishTime);
+        ps.setLong(10, totals.lastDeliveryTime);
+        ps.setString(11, totals.subscriberUrl);
+        ps.setLong(12, key.periodStart);
+        ps.setInt(13, key.feedid);
+        ps.setInt(14, key.subid);
+    }
+
+    /**
+     * Get the time in a publish ID, which is of the form <i>millis.hostname</i>.
+     *
+     * @return the time, or 0 if there is none
+     */
+    private static long getPublishTime(String publishId) {
+        if (publishId == null) {
+            return 0;
+        }
+        int dot = publishId.indexOf('.');
+        try {
+            return Long.parseLong((dot > 0) ? publishId.substring(0, dot) : publishId);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Get the scheme, host and port of a delivery URL.
+     */
+    private static String getSubscriberUrl(String requestUri) {
+        if (requestUri == null) {
+            return null;
+        }
+        int slash = requestUri.indexOf('/');
+        if (slash >= 0) {
+            slash = requestUri.indexOf('/', slash + 1);
+        }
+        if (slash >= 0) {
+            slash = requestUri.indexOf('/', slash + 1);
+        }
+        String url = (slash >= 0) ? requestUri.substring(0, slash) : requestUri;
+        return (url.length() > 256) ? url.substring(0, 256) : url;
+    }
+
+    private static class Key {
+
+        private final long periodStart;
+        private final int feedid;
+        private final int subid;
+
+        private Key(long periodStart, int feedid, int subid) {
+            this.periodStart = periodStart;
+            this.feedid = feedid;
+            this.subid = subid;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return periodStart == other.periodStart && feedid == other.feedid && subid == other.subid;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(periodStart, feedid, subid);
+        }
+    }
+
+    private static class Totals {
+
+        private long filesPublished;
+        private long bytesPublished;
+        private long filesDelivered;
+        private long bytesDelivered;
+        private long filesExpired;
+        private long bytesExpired;
+        private long delaySum;
+        private long delayCount;
+        private long lastPublishTime;
+        private long lastDeliveryTime;
+        private String subscriberUrl;
+
+        private void add(Totals other) {
+            filesPublished += other.filesPublished;
+            bytesPublished += other.bytesPublished;
+            filesDelivered += other.filesDelivered;
+            bytesDelivered += other.bytesDelivered;
+            filesExpired += other.filesExpired;
+            bytesExpired += other.bytesExpired;
+            delaySum += other.delaySum;
+            delayCount += other.delayCount;
+            lastPublishTime = Math.max(lastPublishTime, other.lastPublishTime);
+            lastDeliveryTime = Math.max(lastDeliveryTime, other.lastDeliveryTime);
+            if (other.subscriberUrl != null) {
+                subscriberUrl = other.subscriberUrl;
+            }
+        }
+    }
+}
@@ -26,6 +26,8 @@ package org.onap.dmaap.datarouter.provisioning.utils;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileReader;
@@ -34,17 +36,33 @@ import java.io.InputStreamReader;
 import java.io.LineNumberReader;
 import java.io.Reader;
 import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.BatchUpdateException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.ParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.GZIPInputStream;
 import org.onap.dmaap.datarouter.provisioning.BaseServlet;
 import org.onap.dmaap.datarouter.provisioning.ProvRunner;
@@ -65,6 +83,7 @@ import org.onap.dmaap.datarouter.provisioning.beans.PublishRecord;
  * <p>This method maintains an {@link RLEBitSet} which can be used to easily see what records are presently in the
  * database.
  * This bit set is used to synchronize between provisioning servers.</p>
+ * <p>The totals in the {@link LogRollup} tables are updated as the records are loaded.</p>
  *
  * @author Robert Eby
  * @version $Id: LogfileLoader.java,v 1.22 2014/03/12 19:45:41 eby Exp $
@@ -85,11 +104,40 @@ public class LogfileLoader extends Thread {
      */
     private static final long SET_SIZE = (1L << 56);
 
+    /**
+     * Number of lines given to a parser thread at a time.
+     */
+    private static final int CHUNK_LINES = 500;
+
+    /**
+     * Name of the file in the spool directory holding the record IDs in LOG_RECORDS.
+     */
+    private static final String CHECKPOINT_FILE = "RECORD_IDS.checkpoint";
+
+    /**
+     * Name of the file in the spool directory that the record IDs added and removed since the checkpoint was written
+     * are appended to.
+     */
+    private static final String JOURNAL_FILE = "RECORD_IDS.checkpoint.log";
+
+    /**
+     * How much bigger than the checkpoint the journal may grow before it is folded into a new checkpoint.
+     */
+    private static final long JOURNAL_SLACK = 1024L * 1024L;
+
     private final EELFLogger logger;
     private final String spooldir;
     private final long setStart;
     private final long setEnd;
+    private final int batchSize;
+    private final int parserThreads;
+    private final ExecutorService parsers;
+    private final File checkpoint;
+    private final File journal;
+    private final LogRollup rollup = new LogRollup();
     private RLEBitSet seqSet;
+    private BufferedWriter journalOut;
+    private boolean journalFailed;
     private long nextId;
     private boolean idle;
 
@@ -98,6 +146,19 @@ public class LogfileLoader extends Thread {
         this.spooldir = ProvRunner.getProvProperties().getProperty("org.onap.dmaap.datarouter.provserver.spooldir");
         this.setStart = getIdRange();
         this.setEnd = setStart + SET_SIZE - 1;
+        this.checkpoint = new File(spooldir, CHECKPOINT_FILE);
+        this.journal = new File(spooldir, JOURNAL_FILE);
+        Properties props = ProvRunner.getProvProperties();
+        this.batchSize = Integer.parseInt(
+            props.getProperty("org.onap.dmaap.datarouter.provserver.logloader.batchsize", "1000"));
+        this.parserThreads = Integer.parseInt(
+            props.getProperty("org.onap.dmaap.datarouter.provserver.logloader.threads", "4"));
+        AtomicInteger count = new AtomicInteger();
+        this.parsers = Executors.newFixedThreadPool(parserThreads, r -> {
+            Thread thread = new Thread(r, "LogfileLoader-parser-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
         this.seqSet = new RLEBitSet();
         this.nextId = 0;
         this.idle = false;
@@ -161,6 +222,7 @@ public class LogfileLoader extends Thread {
     @Override
     public void run() {
         initializeNextid();
+        initializeRollup();
         while (true) {
             try {
                 File dirfile = new File(spooldir);
@@ -187,12 +249,14 @@ public class LogfileLoader extends Thread {
             } else {
                 // Remove old rows
                 if (pruneRecords()) {
-                    // Removed at least some entries, recompute the bit map
-                    initializeNextid();
+                    // Removed at least some entries, which have been cleared from the bit map
+                    computeNextId();
                 }
                 for (File file : inFiles) {
                     processFile(file);
                 }
+                rebuildStaleRollup();
+                saveCheckpoint();
             }
         }
     }
@@ -252,22 +316,35 @@ public class LogfileLoader extends Thread {
             logger.debug("  Pruning records older than=" + (cutoff / 86400000L) + " (" + new Date(cutoff) + ")");
 
             try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
-                // Limit to a million at a time to avoid typing up the DB for too long.
-                try (PreparedStatement ps = conn.prepareStatement(
-                    "DELETE from LOG_RECORDS where EVENT_TIME < ? limit 1000000")) {
-                    ps.setLong(1, cutoff);
+                // Delete a million at a time to avoid tying up the DB for too long, clearing the IDs of the
+                // deleted records from the bit map as we go, so that it does not need to be rebuilt.
+                try (PreparedStatement select = conn.prepareStatement(
+                        "SELECT RECORD_ID from LOG_RECORDS where EVENT_TIME < ? and RECORD_ID > ? "
+                            + "ORDER BY RECORD_ID limit 1000000");
+                    PreparedStatement delete = conn.prepareStatement(
+                        "DELETE from LOG_RECORDS where EVENT_TIME < ? and RECORD_ID >= ? and RECORD_ID <= ?")) {
+                    select.setLong(1, cutoff);
+                    delete.setLong(1, cutoff);
+                    long lastId = -1;
                     while (count > 0) {
-                        if (!ps.execute()) {
-                            int dcount = ps.getUpdateCount();
-                            count -= dcount;
-                            logger.debug("  " + dcount + " rows deleted.");
-                            did1 |= (dcount != 0);
-                            if (dcount == 0) {
-                                count = 0;    // prevent inf. loops
-                            }
-                        } else {
-                            count = 0;    // shouldn't happen!
+                        select.setLong(2, lastId);
+                        RLEBitSet deleted = new RLEBitSet();
+                        try (ResultSet rs = select.executeQuery()) {
+                            addRecordIds(rs, deleted);
+                        }
+                        if (deleted.isEmpty()) {
+                            break;
                         }
+                        long firstId = deleted.getRangeIterator().next()[0];
+                        lastId = deleted.length() - 1;
+                        delete.setLong(2, firstId);
+                        delete.setLong(3, lastId);
+                        int dcount = delete.executeUpdate();
+                        count -= dcount;
+                        logger.debug("  " + dcount + " rows deleted.");
+                        did1 |= (dcount != 0);
+                        deleted.forEachRange((first, last) -> seqSet.clear(first, last + 1));
+                        journal('-', deleted);
                     }
                 }
                 try (Statement stmt = conn.createStatement()) {
@@ -313,105 +390,345 @@ public class LogfileLoader extends Thread {
         return map;
     }
 
-    private void initializeNextid() {
-        try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
-            RLEBitSet nbs = new RLEBitSet();
-            try (Statement stmt = conn.createStatement()) {
-                // Build a bitset of all records in the LOG_RECORDS table
-                // We need to run this SELECT in stages, because otherwise we run out of memory!
-                final long stepsize = 6000000L;
-                boolean goAgain = true;
-                for (long i = 0; goAgain; i += stepsize) {
-                    String sql = String.format("select RECORD_ID from LOG_RECORDS LIMIT %d,%d", i, stepsize);
-                    try (ResultSet rs = stmt.executeQuery(sql)) {
-                        goAgain = false;
-                        while (rs.next()) {
-                            long recordId = rs.getLong("RECORD_ID");
-                            nbs.set(recordId);
-                            goAgain = true;
+    /**
+     * Build the bit set of the record IDs in LOG_RECORDS, and determine the next ID for this server to assign.
+     *
+     * <p>The bit set is read from the checkpoint file and its journal if they match the number of records in
+     * LOG_RECORDS and the highest record ID. Otherwise it is rebuilt from LOG_RECORDS, and a new checkpoint is written.
+     */
+    void initializeNextid() {
+        RLEBitSet nbs = readCheckpoint();
+        if (nbs == null) {
+            try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
+                nbs = new RLEBitSet();
+                // Build a bitset of all records in the LOG_RECORDS table, in stages so as not to run out of memory.
+                // Each stage starts after the last ID of the previous one, so it does not have to skip over the
+                // records already read.
+                try (PreparedStatement ps = conn.prepareStatement(
+                        "select RECORD_ID from LOG_RECORDS where RECORD_ID > ? ORDER BY RECORD_ID limit 6000000")) {
+                    long lastId = -1;
+                    while (true) {
+                        ps.setLong(1, lastId);
+                        try (ResultSet rs = ps.executeQuery()) {
+                            long last = addRecordIds(rs, nbs);
+                            if (last < 0) {
+                                break;
+                            }
+                            lastId = last;
                         }
                     }
                 }
+            } catch (SQLException e) {
+                logger.error("LogfileLoader.initializeNextid: " + e.getMessage(), e);
+                return;
             }
             seqSet = nbs;
-            // Compare with the range for this server
-            // Determine the next ID for this set of record IDs
-            RLEBitSet tbs = (RLEBitSet) nbs.clone();
-            RLEBitSet idset = new RLEBitSet();
-            idset.set(setStart, setStart + SET_SIZE);
-            tbs.and(idset);
-            long bitLength = tbs.length();
-            nextId = (bitLength == 0) ? setStart : (bitLength - 1);
-            if (nextId >= setStart + SET_SIZE) {
-                // Handle wraparound, when the IDs reach the end of our "range"
-                Long[] last = null;
-                Iterator<Long[]> li = tbs.getRangeIterator();
-                while (li.hasNext()) {
-                    last = li.next();
+            writeCheckpoint();
+        } else {
+            seqSet = nbs;
+        }
+        computeNextId();
+    }
+
+    /**
+     * Build the rollup tables from LOG_RECORDS if they are empty, as they are when first added to an existing database.
+     */
+    void initializeRollup() {
+        try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
+            long start = System.currentTimeMillis();
+            if (rollup.rebuildIfEmpty(conn)) {
+                logger.info("PROV8012 Built the log rollup tables in " + (System.currentTimeMillis() - start) + " ms");
+            }
+        } catch (SQLException e) {
+            logger.warn("PROV8011 Cannot build the log rollup tables: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Recompute the rollup totals that could not be updated as their records were loaded.
+     */
+    void rebuildStaleRollup() {
+        if (!rollup.hasStale()) {
+            return;
+        }
+        try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            try {
+                int rebuilt = rollup.rebuildStale(conn);
+                logger.info("PROV8012 Rebuilt the log rollup totals of " + rebuilt + " feed days from LOG_RECORDS");
+            } finally {
+                conn.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            logger.warn("PROV8011 Cannot rebuild the log rollup tables: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Add the record IDs of a result set, which must be in ascending order, to a bit set a range at a time.
+     *
+     * @return the last ID added, or -1 if the result set was empty
+     */
+    private long addRecordIds(ResultSet rs, RLEBitSet bs) throws SQLException {
+        long start = -1;
+        long last = -1;
+        while (rs.next()) {
+            long recordId = rs.getLong("RECORD_ID");
+            if (start < 0) {
+                start = recordId;
+            } else if (recordId != last + 1) {
+                bs.set(start, last + 1);
+                start = recordId;
+            }
+            last = recordId;
+        }
+        if (start >= 0) {
+            bs.set(start, last + 1);
+        }
+        return last;
+    }
+
+    private void computeNextId() {
+        // Compare with the range for this server
+        // Determine the next ID for this set of record IDs
+        RLEBitSet tbs = (RLEBitSet) seqSet.clone();
+        RLEBitSet idset = new RLEBitSet();
+        idset.set(setStart, setStart + SET_SIZE);
+        tbs.and(idset);
+        long bitLength = tbs.length();
+        nextId = (bitLength == 0) ? setStart : (bitLength - 1);
+        if (nextId >= setStart + SET_SIZE) {
+            // Handle wraparound, when the IDs reach the end of our "range"
+            Long[] last = null;
+            Iterator<Long[]> li = tbs.getRangeIterator();
+            while (li.hasNext()) {
+                last = li.next();
+            }
+            if (last != null) {
+                tbs.clear(last[0], last[1] + 1);
+                bitLength = tbs.length();
+                nextId = (bitLength == 0) ? setStart : (bitLength - 1);
+            }
+        }
+        logger.debug(String.format("LogfileLoader.initializeNextid, next ID is %d (%x)", nextId, nextId));
+    }
+
+    /**
+     * Read the bit set from the checkpoint file, and apply the changes in the journal to it.
+     *
+     * @return the bit set, or null if there is no checkpoint, or it does not match LOG_RECORDS
+     */
+    RLEBitSet readCheckpoint() {
+        if (!checkpoint.exists()) {
+            return null;
+        }
+        try (BufferedReader in = Files.newBufferedReader(checkpoint.toPath());
+            Connection conn = ProvDbUtils.getInstance().getConnection();
+            PreparedStatement ps = conn.prepareStatement(
+                "SELECT COUNT(*) as COUNT, MAX(RECORD_ID) as MAXID from LOG_RECORDS");
+            ResultSet rs = ps.executeQuery()) {
+            String[] header = in.readLine().split(" ");
+            String ranges = in.readLine();
+            RLEBitSet nbs = (ranges == null) ? new RLEBitSet() : new RLEBitSet(ranges);
+            boolean complete = Long.parseLong(header[0]) == nbs.cardinality()
+                && Long.parseLong(header[1]) == nbs.length() - 1;
+            int changes = replayJournal(nbs);
+            long count = nbs.cardinality();
+            if (complete && rs.next() && count == rs.getLong("COUNT")
+                && (count == 0 || nbs.length() - 1 == rs.getLong("MAXID"))) {
+                logger.info("PROV8008 Loaded " + count + " record IDs from " + checkpoint + " and " + changes
+                    + " changes from " + journal);
+                return nbs;
+            }
+            logger.warn("PROV8009 " + checkpoint + " does not match LOG_RECORDS; rebuilding the record ID bit map");
+        } catch (IOException | SQLException | RuntimeException e) {
+            logger.warn("PROV8009 Cannot read " + checkpoint + "; rebuilding the record ID bit map: " + e);
+        }
+        return null;
+    }
+
+    /**
+     * Apply the changes in the journal to a bit set read from the checkpoint. Each line adds ("+") or removes ("-")
+     * ranges of record IDs. Applying a change more than once has no further effect, so a journal left behind by a
+     * crash just after a new checkpoint was written does no harm.
+     *
+     * @return the number of changes applied
+     */
+    private int replayJournal(RLEBitSet bs) throws IOException {
+        if (!journal.exists()) {
+            return 0;
+        }
+        int changes = 0;
+        try (BufferedReader in = Files.newBufferedReader(journal.toPath())) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (line.startsWith("+")) {
+                    bs.set(line.substring(1));
+                } else if (line.startsWith("-")) {
+                    bs.andNot(new RLEBitSet(line.substring(1)));
+                } else {
+                    throw new IOException("Invalid line in " + journal + ": " + line);
                 }
-                if (last != null) {
-                    tbs.clear(last[0], last[1] + 1);
-                    bitLength = tbs.length();
-                    nextId = (bitLength == 0) ? setStart : (bitLength - 1);
+                changes++;
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Append record IDs added to or removed from the bit set to the journal. If the journal cannot be written, it is
+     * abandoned until the next checkpoint is written, at the end of the current round of loading.
+     *
+     * @param change '+' if the IDs were added, '-' if they were removed
+     * @param ids the IDs
+     */
+    private synchronized void journal(char change, RLEBitSet ids) {
+        if (journalFailed || ids.isEmpty()) {
+            return;
+        }
+        try {
+            if (journalOut == null) {
+                journalOut = Files.newBufferedWriter(journal.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.APPEND);
+            }
+            journalOut.write(change);
+            journalOut.write(ids.toString());
+            journalOut.newLine();
+        } catch (IOException e) {
+            logger.warn("PROV8010 Cannot write " + journal + ": " + e);
+            journalFailed = true;
+        }
+    }
+
+    /**
+     * Save the changes made to the bit set by a round of loading. Usually that means flushing the journal; once the
+     * journal has grown past the size of the checkpoint, or could not be written, a new checkpoint is written instead.
+     */
+    synchronized void saveCheckpoint() {
+        if (!journalFailed) {
+            try {
+                if (journalOut != null) {
+                    journalOut.flush();
+                }
+                if (checkpoint.exists() && journal.length() <= checkpoint.length() + JOURNAL_SLACK) {
+                    return;
                 }
+            } catch (IOException e) {
+                logger.warn("PROV8010 Cannot write " + journal + ": " + e);
             }
-            logger.debug(String.format("LogfileLoader.initializeNextid, next ID is %d (%x)", nextId, nextId));
-        } catch (SQLException e) {
-            logger.error("LogfileLoader.initializeNextid: " + e.getMessage(), e);
         }
+        writeCheckpoint();
     }
 
-    @SuppressWarnings("resource")
+    /**
+     * Write the bit set to the checkpoint file, and start a new journal. The file is replaced atomically, so that a
+     * crash while writing leaves the previous checkpoint and journal.
+     */
+    synchronized void writeCheckpoint() {
+        if (journalOut != null) {
+            try {
+                journalOut.close();
+            } catch (IOException e) {
+                logger.warn("PROV8010 Cannot write " + journal + ": " + e);
+            }
+            journalOut = null;
+        }
+        RLEBitSet bs = (RLEBitSet) seqSet.clone();
+        File tmp = new File(checkpoint.getPath() + ".tmp");
+        try {
+            try (BufferedWriter out = Files.newBufferedWriter(tmp.toPath())) {
+                out.write(bs.cardinality() + " " + (bs.length() - 1));
+                out.newLine();
+                out.write(bs.toString());
+                out.newLine();
+            }
+            Files.move(tmp.toPath(), checkpoint.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+            Files.deleteIfExists(journal.toPath());
+            journalFailed = false;
+        } catch (IOException e) {
+            logger.warn("PROV8010 Cannot write " + checkpoint + ": " + e);
+        }
+    }
+
+    /**
+     * Load a logfile into the LOG_RECORDS table.
+     *
+     * <p>Lines are read in chunks of {@value #CHUNK_LINES}, and each chunk is parsed into records on the parser
+     * threads. The parsed chunks are written in the order they were read, in JDBC batches of {@link #batchSize}
+     * records, each batch committed on its own. A record ID is only added to the bit set once the batch it is in
+     * has been committed. LOG_RECORDS is a MyISAM table, so a batch that fails part way keeps the rows it inserted;
+     * those are found from the update counts, or by looking up their IDs, and only the others are retried one at a
+     * time.
+     *
+     * @param file the logfile
+     * @return the number of records loaded, and the number of lines read
+     */
     int[] process(File file) {
-        int ok = 0;
         int total = 0;
+        RecordWriter writer = null;
         try (Connection conn = ProvDbUtils.getInstance().getConnection();
             PreparedStatement ps = conn.prepareStatement(
                 "insert into LOG_RECORDS values (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
-            Reader reader = file.getPath().endsWith(".gz")
-                ? new InputStreamReader(new GZIPInputStream(new FileInputStream(file)))
-                : new FileReader(file);
-            try (LineNumberReader in = new LineNumberReader(reader)) {
+            boolean autoCommit = conn.getAutoCommit();
+            conn.setAutoCommit(false);
+            writer = new RecordWriter(conn, ps);
+            try (LineNumberReader in = new LineNumberReader(openLogfile(file))) {
+                Deque<Future<List<ParsedLine>>> parsed = new ArrayDeque<>();
+                List<String> chunk = new ArrayList<>(CHUNK_LINES);
                 String line;
                 while ((line = in.readLine()) != null) {
-                    try {
-                        for (Loadable rec : buildRecords(line)) {
-                            rec.load(ps);
-                            if (rec instanceof LogRecord) {
-                                LogRecord lr = ((LogRecord) rec);
-                                if (!seqSet.get(lr.getRecordId())) {
-                                    ps.executeUpdate();
-                                    seqSet.set(lr.getRecordId());
-                                } else {
-                                    logger.debug("Duplicate record ignored: " + lr.getRecordId());
-                                }
-                            } else {
-                                if (++nextId > setEnd) {
-                                    nextId = setStart;
-                                }
-                                ps.setLong(18, nextId);
-                                ps.executeUpdate();
-                                seqSet.set(nextId);
-                            }
-                            ps.clearParameters();
-                            ok++;
+                    total++;
+                    chunk.add(line);
+                    if (chunk.size() == CHUNK_LINES) {
+                        parsed.addLast(parse(chunk));
+                        chunk = new ArrayList<>(CHUNK_LINES);
+                        if (parsed.size() > parserThreads * 2) {
+                            writer.write(parsed.removeFirst().get());
                         }
-                    } catch (SQLException e) {
-                        logger.warn("PROV8003 Invalid value in record: " + line, e);
-                    } catch (NumberFormatException e) {
-                        logger.warn("PROV8004 Invalid number in record: " + line, e);
-                    } catch (ParseException e) {
-                        logger.warn("PROV8005 Invalid date in record: " + line, e);
-                    } catch (Exception e) {
-                        logger.warn("PROV8006 Invalid pattern in record: " + line, e);
                     }
-                    total++;
                 }
+                parsed.addLast(parse(chunk));
+                while (!parsed.isEmpty()) {
+                    writer.write(parsed.removeFirst().get());
+                }
+                writer.flush();
+            } finally {
+                conn.setAutoCommit(autoCommit);
             }
-        } catch (SQLException | IOException e) {
+        } catch (SQLException | IOException | ExecutionException e) {
             logger.warn("PROV8007 Exception reading " + file + ": " + e);
+        } catch (InterruptedException e) {
+            logger.warn("PROV8007 Interrupted reading " + file);
+            Thread.currentThread().interrupt();
         }
-        return new int[]{ok, total};
+        return new int[]{(writer == null) ? 0 : writer.ok, total};
+    }
+
+    @SuppressWarnings("resource")
+    private Reader openLogfile(File file) throws IOException {
+        return file.getPath().endsWith(".gz")
+            ? new InputStreamReader(new GZIPInputStream(new FileInputStream(file)))
+            : new FileReader(file);
+    }
+
+    private Future<List<ParsedLine>> parse(List<String> lines) {
+        return parsers.submit(() -> {
+            List<ParsedLine> records = new ArrayList<>(lines.size());
+            for (String line : lines) {
+                try {
+                    records.add(new ParsedLine(line, buildRecords(line)));
+                } catch (NumberFormatException e) {
+                    logger.warn("PROV8004 Invalid number in record: " + line, e);
+                } catch (ParseException e) {
+                    logger.warn("PROV8005 Invalid date in record: " + line, e);
+                } catch (Exception e) {
+                    logger.warn("PROV8006 Invalid pattern in record: " + line, e);
+                }
+            }
+            return records;
+        });
     }
 
     Loadable[] buildRecords(String line) throws ParseException {
@@ -462,6 +779,188 @@ public class LogfileLoader extends Thread {
         return new Loadable[0];
     }
 
+    private static class ParsedLine {
+
+        private final String line;
+        private final Loadable[] records;
+
+        private ParsedLine(String line, Loadable[] records) {
+            this.line = line;
+            this.records = records;
+        }
+    }
+
+    /**
+     * Writes parsed records to LOG_RECORDS in batches, skipping records whose ID is already loaded.
+     */
+    private class RecordWriter {
+
+        private final Connection conn;
+        private final PreparedStatement ps;
+        private final List<PendingRecord> batch = new ArrayList<>();
+        private final Set<Long> batchIds = new HashSet<>();
+        private int ok;
+
+        private RecordWriter(Connection conn, PreparedStatement ps) {
+            this.conn = conn;
+            this.ps = ps;
+        }
+
+        private void write(List<ParsedLine> lines) throws SQLException {
+            for (ParsedLine parsed : lines) {
+                for (Loadable rec : parsed.records) {
+                    try {
+                        write(rec, parsed.line);
+                    } catch (SQLException e) {
+                        logger.warn("PROV8003 Invalid value in record: " + parsed.line, e);
+                    }
+                }
+            }
+        }
+
+        private void write(Loadable rec, String line) throws SQLException {
+            long recordId;
+            if (rec instanceof LogRecord) {
+                recordId = ((LogRecord) rec).getRecordId();
+                if (seqSet.get(recordId) || batchIds.contains(recordId)) {
+                    logger.debug("Duplicate record ignored: " + recordId);
+                    ok++;
+                    return;
+                }
+            } else {
+                if (++nextId > setEnd) {
+                    nextId = setStart;
+                }
+                recordId = nextId;
+            }
+            load(rec, recordId);
+            ps.addBatch();
+            ps.clearParameters();
+            batch.add(new PendingRecord(rec, recordId, line));
+            batchIds.add(recordId);
+            if (batch.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        private void load(Loadable rec, long recordId) throws SQLException {
+            rec.load(ps);
+            if (!(rec instanceof LogRecord)) {
+                ps.setLong(18, recordId);
+            }
+        }
+
+        private void flush() throws SQLException {
+            if (batch.isEmpty()) {
+                return;
+            }
+            List<PendingRecord> written = batch;
+            List<PendingRecord> failed = Collections.emptyList();
+            try {
+                ps.executeBatch();
+            } catch (SQLException e) {
+                // LOG_RECORDS is a MyISAM table, so a rollback would not remove the rows the batch did insert. Keep
+                // them, and retry only the records the update counts do not show as inserted.
+                ps.clearBatch();
+                int[] counts = (e instanceof BatchUpdateException) ? ((BatchUpdateException) e).getUpdateCounts()
+                    : new int[0];
+                written = new ArrayList<>();
+                failed = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    if (i < counts.length && (counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO)) {
+                        written.add(batch.get(i));
+                    } else {
+                        failed.add(batch.get(i));
+                    }
+                }
+            }
+            loaded(written);
+            for (PendingRecord pending : failed) {
+                insert(pending);
+            }
+            batch.clear();
+            batchIds.clear();
+        }
+
+        /**
+         * Insert a record from a failed batch on its own. If it cannot be inserted because the batch did insert it
+         * after all, as happens when the driver does not report which statements of a batch succeeded, it counts as
+         * loaded.
+         */
+        private void insert(PendingRecord pending) throws SQLException {
+            try {
+                load(pending.rec, pending.recordId);
+                ps.executeUpdate();
+            } catch (SQLException e) {
+                if (!isStored(pending.recordId)) {
+                    logger.warn("PROV8003 Invalid value in record: " + pending.line, e);
+                    return;
+                }
+            } finally {
+                ps.clearParameters();
+            }
+            loaded(Collections.singletonList(pending));
+        }
+
+        private boolean isStored(long recordId) throws SQLException {
+            try (PreparedStatement check = conn.prepareStatement("select 1 from LOG_RECORDS where RECORD_ID = ?")) {
+                check.setLong(1, recordId);
+                try (ResultSet rs = check.executeQuery()) {
+                    return rs.next();
+                }
+            }
+        }
+
+        /**
+         * Commit records that are in LOG_RECORDS, add their IDs to the bit set and the journal, and add them to the
+         * rollup tables.
+         */
+        private void loaded(List<PendingRecord> records) throws SQLException {
+            if (records.isEmpty()) {
+                return;
+            }
+            conn.commit();
+            RLEBitSet ids = new RLEBitSet();
+            for (PendingRecord pending : records) {
+                seqSet.set(pending.recordId);
+                ids.set(pending.recordId);
+            }
+            journal('+', ids);
+            ok += records.size();
+            rollUp(records);
+        }
+
+        /**
+         * Add records that have been loaded to the rollup tables, in a transaction of their own, since LOG_RECORDS is
+         * a MyISAM table. If the rollup tables cannot be updated, the update is rolled back, and the feeds and days of
+         * the records are rebuilt from LOG_RECORDS at the end of the round.
+         */
+        private void rollUp(List<PendingRecord> records) {
+            for (PendingRecord pending : records) {
+                rollup.add(pending.rec);
+            }
+            try {
+                rollup.commit(conn);
+            } catch (SQLException e) {
+                logger.warn("PROV8011 Cannot update the log rollup tables; they will be rebuilt from LOG_RECORDS: "
+                    + e.getMessage(), e);
+            }
+        }
+    }
+
+    private static class PendingRecord {
+
+        private final Loadable rec;
+        private final long recordId;
+        private final String line;
+
+        private PendingRecord(Loadable rec, long recordId, String line) {
+            this.rec = rec;
+            this.recordId = recordId;
+            this.line = line;
+        }
+    }
+
     /**
      * The LogfileLoader can be run stand-alone by invoking the main() method of this class.
      *
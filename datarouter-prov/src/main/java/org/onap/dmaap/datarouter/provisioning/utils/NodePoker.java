@@ -0,0 +1,177 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import com.att.eelf.configuration.EELFLogger;
+import com.att.eelf.configuration.EELFManager;
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues the GET that tells a node (or the other POD) to fetch the provisioning data, on a bounded pool of threads.
+ *
+ * <p>Nodes are poked concurrently, each with its own connect and read timeout, so a node that is down only delays its
+ * own poke. Pokes are coalesced: if a node is asked to be poked while a poke to it is queued or running, it is poked
+ * once more when that one finishes, however many times it was asked.
+ */
+public class NodePoker {
+
+    private final EELFLogger logger = EELFManager.getInstance().getLogger("InternalLog");
+    private final ExecutorService executor;
+    private final int timeout;
+    private final Map<String, AtomicInteger> requests = new ConcurrentHashMap<>();
+    private final Map<String, PokeStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Create a poker.
+     *
+     * @param threads the maximum number of pokes in progress at once
+     * @param timeout the connect and read timeout for each poke, in milliseconds
+     */
+    public NodePoker(int threads, int timeout) {
+        this.timeout = timeout;
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+            new LinkedBlockingQueue<>(), r -> {
+                Thread thread = new Thread(r, "Poker-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        pool.allowCoreThreadTimeOut(true);
+        this.executor = pool;
+    }
+
+    /**
+     * Poke a URL, unless a poke to it is already queued, in which case that poke will do.
+     *
+     * @param url the URL to GET
+     */
+    public void poke(String url) {
+        AtomicInteger pending = requests.computeIfAbsent(url, k -> new AtomicInteger());
+        if (pending.getAndIncrement() == 0) {
+            executor.execute(() -> run(url, pending));
+        }
+    }
+
+    /**
+     * Get the poke counters for each URL poked so far.
+     */
+    public Map<String, PokeStats> getStats() {
+        return Collections.unmodifiableMap(stats);
+    }
+
+    /**
+     * Issue the GET. Only overridden by tests.
+     */
+    void connect(String url) throws IOException {
+        HttpURLConnection conn = (HttpURLConnection) new URL(url).openConnection();
+        conn.setConnectTimeout(timeout);
+        conn.setReadTimeout(timeout);
+        try {
+            conn.connect();
+            conn.getContentLength();    // Force the GET through
+        } finally {
+            conn.disconnect();
+        }
+    }
+
+    private void run(String url, AtomicInteger pending) {
+        int seen;
+        do {
+            seen = pending.get();
+            pokeOnce(url);
+        } while (!pending.compareAndSet(seen, 0));
+    }
+
+    private void pokeOnce(String url) {
+        PokeStats pokeStats = stats.computeIfAbsent(url, k -> new PokeStats());
+        long start = System.nanoTime();
+        try {
+            connect(url);
+            long latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            pokeStats.success(latency);
+            logger.debug("PROV0012 Poked node at " + url + " in " + latency + "ms");
+        } catch (IOException | RuntimeException e) {
+            pokeStats.failure(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            logger.warn("PROV0013 Error poking node at " + url + " (" + pokeStats.getFailures() + " failures): "
+                + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Poke counters for one URL.
+     */
+    public static class PokeStats {
+
+        private final AtomicLong pokes = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private volatile long lastLatency;
+        private volatile long maxLatency;
+
+        private void success(long latency) {
+            pokes.incrementAndGet();
+            record(latency);
+        }
+
+        private void failure(long latency) {
+            pokes.incrementAndGet();
+            failures.incrementAndGet();
+            record(latency);
+        }
+
+        private synchronized void record(long latency) {
+            lastLatency = latency;
+            maxLatency = Math.max(maxLatency, latency);
+        }
+
+        public long getPokes() {
+            return pokes.get();
+        }
+
+        public long getFailures() {
+            return failures.get();
+        }
+
+        /**
+         * Get the time taken by the last poke, successful or not, in milliseconds.
+         */
+        public long getLastLatency() {
+            return lastLatency;
+        }
+
+        /**
+         * Get the longest time taken by any poke, in milliseconds.
+         */
+        public long getMaxLatency() {
+            return maxLatency;
+        }
+    }
+}
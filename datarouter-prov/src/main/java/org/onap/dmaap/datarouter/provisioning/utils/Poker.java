@@ -25,15 +25,16 @@ package org.onap.dmaap.datarouter.provisioning.utils;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
-import java.io.IOException;
-import java.net.HttpURLConnection;
 import java.net.InetAddress;
-import java.net.MalformedURLException;
-import java.net.URL;
 import java.net.UnknownHostException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Properties;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
@@ -68,7 +69,6 @@ public class Poker extends TimerTask {
     private static final String POKE_URL_TEMPLATE = "http://%s/internal/fetchProv";
 
     private static final Object lock = new Object();
-    private static final String CARRIAGE_RETURN = "\n],\n";
 
     /**
      * This is a singleton -- there is only one Poker object in the server.
@@ -78,7 +78,10 @@ public class Poker extends TimerTask {
     private long timer2;
     private String thisPod;        // DNS name of this machine
     private EELFLogger logger;
-    private String provString;
+    private volatile String provString;
+    private volatile PublishRoutes publishRoutes = PublishRoutes.empty();
+    private final ProvisioningHistory history = new ProvisioningHistory();
+    private final NodePoker nodePoker;
 
 
     private Poker() {
@@ -90,7 +93,11 @@ public class Poker extends TimerTask {
             thisPod = "*UNKNOWN_POD*"; // not a major problem
             logger.info("UnknownHostException: Setting thisPod to \"*UNKNOWN_POD*\"", e);
         }
-        provString = buildProvisioningString();
+        Properties props = ProvRunner.getProvProperties();
+        nodePoker = new NodePoker(
+            Integer.parseInt(props.getProperty("org.onap.dmaap.datarouter.provserver.poke.threads", "10")),
+            Integer.parseInt(props.getProperty("org.onap.dmaap.datarouter.provserver.poke.timeout", "5000")));
+        rebuild();
         Timer rolex = new Timer();
         rolex.scheduleAtFixedRate(this, 0L, 1000L);    // Run once a second to check the timers
     }
@@ -139,6 +146,35 @@ public class Poker extends TimerTask {
         return provString;
     }
 
+    /**
+     * Return the routing snapshot built along with the last provisioning string.
+     *
+     * @return the routing snapshot used to redirect publish requests.
+     */
+    public PublishRoutes getPublishRoutes() {
+        return publishRoutes;
+    }
+
+    /**
+     * Return the provisioning data for a node that may already have an earlier version of it.
+     *
+     * @param instance the provisioning server instance the node's version came from
+     * @param since the version the node has
+     * @return the changes since that version, or the last provisioning string built
+     */
+    public ProvisioningHistory.Response getProvisioningResponse(String instance, String since) {
+        return history.getResponse(instance, since);
+    }
+
+    /**
+     * Return the poke counters for each node and POD poked so far.
+     *
+     * @return the poke counters, by poke URL.
+     */
+    public Map<String, NodePoker.PokeStats> getPokeStats() {
+        return nodePoker.getStats();
+    }
+
     /**
      * The method to run at the predefined interval (once per second).  This method checks to see if either of the two
      * timers has expired, and if so, will rebuild the provisioning string, and poke all the nodes and other PODs.  The
@@ -167,11 +203,11 @@ public class Poker extends TimerTask {
 
     private void pokeNodes() {
         // Rebuild the prov string
-        provString = buildProvisioningString();
+        rebuild();
         // Only the active POD should poke nodes, etc.
         boolean active = SynchronizerTask.getSynchronizer().isActive();
         if (active) {
-            // Poke all the DR nodes
+            // Poke all the DR nodes; the pokes run concurrently, so a node that is down does not hold up the rest
             for (String n : BaseServlet.getNodes()) {
                 pokeNode(n);
             }
@@ -188,64 +224,62 @@ public class Poker extends TimerTask {
         logger.debug("PROV0012 Poking node " + nodename + " ...");
         String nodeUrl = String.format(POKE_URL_TEMPLATE, nodename + ":" + ProvRunner.getProvProperties().get(
             "org.onap.dmaap.datarouter.provserver.http.port"), "8080");
-        Runnable runn = () -> {
-            try {
-                URL url = new URL(nodeUrl);
-                HttpURLConnection conn = (HttpURLConnection) url.openConnection();
-                conn.setConnectTimeout(60000);    //Fixes for Itrack DATARTR-3, poke timeout
-                conn.connect();
-                conn.getContentLength();    // Force the GET through
-                conn.disconnect();
-            } catch (MalformedURLException e) {
-                logger.warn(
-                        "PROV0013 MalformedURLException Error poking node at " + nodeUrl + " : " + e
-                                .getMessage(), e);
-            } catch (IOException e) {
-                logger.warn("PROV0013 IOException Error poking node at " + nodeUrl + " : " + e
-                        .getMessage(), e);
-            }
-        };
-        runn.run();
+        nodePoker.poke(nodeUrl);
     }
 
-    private String buildProvisioningString() {
-        StringBuilder sb = new StringBuilder("{\n");
+    private synchronized void rebuild() {
+        Collection<Feed> feeds = Feed.getAllFeeds();
+        Collection<IngressRoute> ingressRoutes = IngressRoute.getAllIngressRoutes();
 
-        // Append Feeds to the string
-        String pfx = "\n";
-        sb.append("\"feeds\": [");
-        for (Feed f : Feed.getAllFeeds()) {
-            sb.append(pfx);
-            sb.append(f.asJSONObject().toString());
-            pfx = ",\n";
+        Map<String, String> feedMap = new LinkedHashMap<>();
+        for (Feed f : feeds) {
+            feedMap.put(Integer.toString(f.getFeedid()), f.asJSONObject().toString());
         }
-        sb.append(CARRIAGE_RETURN);
-
-        //Append groups to the string - Rally:US708115  - 1610
-        pfx = "\n";
-        sb.append("\"groups\": [");
-        for (Group s : Group.getAllgroups()) {
-            sb.append(pfx);
-            sb.append(s.asJSONObject().toString());
-            pfx = ",\n";
-        }
-        sb.append(CARRIAGE_RETURN);
-
-        // Append Subscriptions to the string
-        pfx = "\n";
-        sb.append("\"subscriptions\": [");
+        Map<String, String> subMap = new LinkedHashMap<>();
         for (Subscription s : Subscription.getAllSubscriptions()) {
-            sb.append(pfx);
             if (s != null) {
-                sb.append(s.asJSONObject().toString());
+                subMap.put(Integer.toString(s.getSubid()), s.asJSONObject().toString());
             }
-            pfx = ",\n";
         }
-        sb.append(CARRIAGE_RETURN);
+        Map<String, Map<String, String>> entities = new LinkedHashMap<>();
+        entities.put(ProvisioningHistory.FEEDS, feedMap);
+        entities.put(ProvisioningHistory.SUBSCRIPTIONS, subMap);
+
+        //Groups - Rally:US708115  - 1610
+        List<String> items = new ArrayList<>();
+        for (Group g : Group.getAllgroups()) {
+            items.add(g.asJSONObject().toString());
+        }
+        Map<String, String> sections = new LinkedHashMap<>();
+        sections.put("groups", enclose('[', items, ']'));
+        sections.put("parameters", buildParameters());
+        items = new ArrayList<>();
+        for (IngressRoute in : ingressRoutes) {
+            items.add(in.asJSONObject().toString());
+        }
+        sections.put("ingress", enclose('[', items, ']'));
+        items = new ArrayList<>();
+        for (EgressRoute eg : EgressRoute.getAllEgressRoutes()) {
+            String str = eg.asJSONObject().toString();
+            items.add(str.substring(1, str.length() - 1));
+        }
+        sections.put("egress", enclose('{', items, '}'));
+        items = new ArrayList<>();
+        for (NetworkRoute ne : NetworkRoute.getAllNetworkRoutes()) {
+            items.add(ne.asJSONObject().toString());
+        }
+        sections.put("routing", enclose('[', items, ']'));
+
+        String tempProvString = buildProvisioningString(feedMap, subMap, sections);
+        long version = history.record(tempProvString, entities, sections);
+        provString = tempProvString;
+        publishRoutes = new PublishRoutes(version, feeds, ingressRoutes);
+        logger.debug("PROV0017 Provisioning data version " + version + " built for " + feedMap.size() + " feeds and "
+            + subMap.size() + " subscriptions");
+    }
 
-        // Append Parameters to the string
-        pfx = "\n";
-        sb.append("\"parameters\": {");
+    private String buildParameters() {
+        List<String> items = new ArrayList<>();
         Map<String, String> props = Parameters.getParameters();
         Set<String> ivals = new HashSet<>();
         String intv = props.get("_INT_VALUES");
@@ -254,7 +288,7 @@ public class Poker extends TimerTask {
         }
         for (String key : new TreeSet<String>(props.keySet())) {
             String val = props.get(key);
-            sb.append(pfx);
+            StringBuilder sb = new StringBuilder();
             sb.append("  \"").append(key).append("\": ");
             if (ivals.contains(key)) {
                 // integer value
@@ -272,39 +306,21 @@ public class Poker extends TimerTask {
             } else {
                 sb.append("\"").append(quote(val)).append("\"");
             }
-            pfx = ",\n";
-        }
-        sb.append("\n},\n");
-
-        // Append Routes to the string
-        pfx = "\n";
-        sb.append("\"ingress\": [");
-        for (IngressRoute in : IngressRoute.getAllIngressRoutes()) {
-            sb.append(pfx);
-            sb.append(in.asJSONObject().toString());
-            pfx = ",\n";
+            items.add(sb.toString());
         }
-        sb.append(CARRIAGE_RETURN);
-
-        pfx = "\n";
-        sb.append("\"egress\": {");
-        for (EgressRoute eg : EgressRoute.getAllEgressRoutes()) {
-            sb.append(pfx);
-            String str = eg.asJSONObject().toString();
-            str = str.substring(1, str.length() - 1);
-            sb.append(str);
-            pfx = ",\n";
-        }
-        sb.append("\n},\n");
+        return enclose('{', items, '}');
+    }
 
-        pfx = "\n";
-        sb.append("\"routing\": [");
-        for (NetworkRoute ne : NetworkRoute.getAllNetworkRoutes()) {
-            sb.append(pfx);
-            sb.append(ne.asJSONObject().toString());
-            pfx = ",\n";
-        }
-        sb.append("\n]");
+    private String buildProvisioningString(Map<String, String> feeds, Map<String, String> subscriptions,
+            Map<String, String> sections) {
+        StringBuilder sb = new StringBuilder("{\n");
+        sb.append("\"feeds\": ").append(enclose('[', feeds.values(), ']')).append(",\n");
+        sb.append("\"groups\": ").append(sections.get("groups")).append(",\n");
+        sb.append("\"subscriptions\": ").append(enclose('[', subscriptions.values(), ']')).append(",\n");
+        sb.append("\"parameters\": ").append(sections.get("parameters")).append(",\n");
+        sb.append("\"ingress\": ").append(sections.get("ingress")).append(",\n");
+        sb.append("\"egress\": ").append(sections.get("egress")).append(",\n");
+        sb.append("\"routing\": ").append(sections.get("routing"));
         sb.append("\n}");
 
         // Convert to string and verify it is valid JSON
@@ -317,6 +333,17 @@ public class Poker extends TimerTask {
         return tempProvString;
     }
 
+    private static String enclose(char open, Collection<String> items, char close) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(open);
+        String pfx = "\n";
+        for (String item : items) {
+            sb.append(pfx).append(item);
+            pfx = ",\n";
+        }
+        return sb.append('\n').append(close).toString();
+    }
+
     private String quote(String str) {
         StringBuilder sb = new StringBuilder();
         for (char ch : str.toCharArray()) {
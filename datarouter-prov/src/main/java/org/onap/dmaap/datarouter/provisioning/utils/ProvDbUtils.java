@@ -92,6 +92,7 @@ public class ProvDbUtils {
             "SUBSCRIPTIONS", "LOG_RECORDS", "INGRESS_ROUTES", "EGRESS_ROUTES",
             "NETWORK_ROUTES", "NODESETS", "NODES", "GROUPS"
         };
+        final String[] rollupTables = {"LOG_ROLLUP_HOURLY", "LOG_ROLLUP_DAILY"};
         try (Connection connection = getConnection()) {
             Set<String> actualTables = getTableSet(connection);
             boolean initialize = false;
@@ -102,6 +103,20 @@ public class ProvDbUtils {
                 intLogger.info("PROV9001: First time startup; The database is being initialized.");
                 runInitScript(connection, 1);
             }
+            // The rollup tables were added later, so may be missing from a database that is already initialized
+            boolean addRollups = false;
+            for (String tableName : rollupTables) {
+                addRollups |= !actualTables.contains(tableName);
+            }
+            if (addRollups) {
+                intLogger.info("PROV9011: The log rollup tables are being created.");
+                runInitScript(connection, 2);
+            }
+            // So was the MAX_IN_FLIGHT column of SUBSCRIPTIONS
+            if (!hasColumn(connection, "SUBSCRIPTIONS", "MAX_IN_FLIGHT")) {
+                intLogger.info("PROV9012: The MAX_IN_FLIGHT column is being added to SUBSCRIPTIONS.");
+                runInitScript(connection, 3);
+            }
         } catch (SQLException e) {
             intLogger.error("PROV9000: The database credentials are not working: " + e.getMessage(), e);
             return false;
@@ -132,6 +147,33 @@ public class ProvDbUtils {
         return tables;
     }
 
+    /**
+     * Check whether a table has a column. Only that column is looked up, with the names in the case the database
+     * stores them in, and with the wildcards in them escaped.
+     *
+     * @param connection a DB connection
+     * @param table the table name
+     * @param column the column name
+     * @return true if the column is there
+     */
+    private boolean hasColumn(Connection connection, String table, String column) throws SQLException {
+        DatabaseMetaData md = connection.getMetaData();
+        try (ResultSet rs = md.getColumns(null, null, toPattern(md, table), toPattern(md, column))) {
+            return rs.next();
+        }
+    }
+
+    private static String toPattern(DatabaseMetaData md, String name) throws SQLException {
+        if (md.storesUpperCaseIdentifiers()) {
+            name = name.toUpperCase();
+        } else if (md.storesLowerCaseIdentifiers()) {
+            name = name.toLowerCase();
+        }
+        String escape = md.getSearchStringEscape();
+        return (escape == null || escape.isEmpty()) ? name
+            : name.replace(escape, escape + escape).replace("_", escape + "_").replace("%", escape + "%");
+    }
+
     /**
      * Initialize the tables by running the initialization scripts located in the directory specified by the property
      * <i>org.onap.dmaap.datarouter.provserver.dbscripts</i>.  Scripts have names of the form
@@ -0,0 +1,237 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.json.JSONTokener;
+
+/**
+ * The versions of the provisioning document built by the {@link Poker}, and the changes between them.
+ *
+ * <p>Each time the document is rebuilt it gets the next version number, and the feeds and subscriptions that were
+ * added, changed or removed, along with any other section of the document that changed, are kept as a delta. A node
+ * that already has version N asks for <code>/internal/prov?since=N&amp;instance=I</code> and gets the merged deltas
+ * since N, rather than the whole document. Versions are only meaningful within one instance of the provisioning
+ * server, so the instance ID is passed back with them; a node asking about another instance, or a version older than
+ * the deltas kept, gets the whole document.
+ */
+public class ProvisioningHistory {
+
+    /**
+     * Response header carrying the version of the provisioning data returned.
+     */
+    public static final String VERSION_HEADER = "X-DMAAP-DR-PROV-VERSION";
+
+    /**
+     * Response header carrying the ID of the provisioning server instance the version belongs to.
+     */
+    public static final String INSTANCE_HEADER = "X-DMAAP-DR-PROV-INSTANCE";
+
+    static final String FEEDS = "feeds";
+    static final String SUBSCRIPTIONS = "subscriptions";
+    private static final int MAX_DELTAS = 100;
+
+    private final String instance = UUID.randomUUID().toString();
+    private final Deque<Delta> deltas = new ArrayDeque<>();
+    private Map<String, Map<String, String>> entities = Collections.emptyMap();
+    private Map<String, String> sections = Collections.emptyMap();
+    private String document = "";
+    private long version;
+
+    /**
+     * Record a newly built provisioning document.
+     *
+     * @param document the full provisioning document
+     * @param entities the JSON text of each feed and subscription, by section and then by ID
+     * @param sections the JSON text of each of the other sections of the document, by name
+     * @return the version of the document
+     */
+    public synchronized long record(String document, Map<String, Map<String, String>> entities,
+            Map<String, String> sections) {
+        Delta delta = new Delta(version + 1);
+        for (Map.Entry<String, Map<String, String>> section : entities.entrySet()) {
+            Map<String, String> previous = this.entities.getOrDefault(section.getKey(), Collections.emptyMap());
+            Map<String, String> changes = new LinkedHashMap<>();
+            for (Map.Entry<String, String> entity : section.getValue().entrySet()) {
+                if (!entity.getValue().equals(previous.get(entity.getKey()))) {
+                    changes.put(entity.getKey(), entity.getValue());
+                }
+            }
+            for (String id : previous.keySet()) {
+                if (!section.getValue().containsKey(id)) {
+                    changes.put(id, null);
+                }
+            }
+            delta.entities.put(section.getKey(), changes);
+        }
+        for (Map.Entry<String, String> section : sections.entrySet()) {
+            if (!section.getValue().equals(this.sections.get(section.getKey()))) {
+                delta.sections.put(section.getKey(), section.getValue());
+            }
+        }
+        deltas.addLast(delta);
+        if (deltas.size() > MAX_DELTAS) {
+            deltas.removeFirst();
+        }
+        this.document = document;
+        this.entities = entities;
+        this.sections = sections;
+        version = delta.version;
+        return version;
+    }
+
+    /**
+     * Get the provisioning data for a requester that may already have an earlier version.
+     *
+     * @param instance the instance ID the requester's version came from, or null
+     * @param since the version the requester has, or null
+     * @return the merged deltas since that version if they are available, otherwise the full document
+     */
+    public synchronized Response getResponse(String instance, String since) {
+        if (this.instance.equals(instance) && since != null) {
+            try {
+                String delta = getDelta(Long.parseLong(since));
+                if (delta != null) {
+                    return new Response(this.instance, version, delta, true);
+                }
+            } catch (NumberFormatException e) {
+                // Fall through and send the full document
+            }
+        }
+        return new Response(this.instance, version, document, false);
+    }
+
+    /**
+     * Get the full provisioning document.
+     */
+    public synchronized String getDocument() {
+        return document;
+    }
+
+    private String getDelta(long since) {
+        if (since > version || deltas.isEmpty() || since < deltas.getFirst().version - 1) {
+            return null;
+        }
+        Map<String, Map<String, String>> mergedEntities = new HashMap<>();
+        Map<String, String> mergedSections = new LinkedHashMap<>();
+        int count = 0;
+        for (Delta delta : deltas) {
+            if (delta.version <= since) {
+                continue;
+            }
+            for (Map.Entry<String, Map<String, String>> section : delta.entities.entrySet()) {
+                Map<String, String> merged = mergedEntities.computeIfAbsent(section.getKey(),
+                    k -> new LinkedHashMap<>());
+                for (Map.Entry<String, String> entity : section.getValue().entrySet()) {
+                    if (!merged.containsKey(entity.getKey())) {
+                        count++;
+                    }
+                    merged.put(entity.getKey(), entity.getValue());
+                }
+            }
+            mergedSections.putAll(delta.sections);
+        }
+        int total = 0;
+        for (Map<String, String> section : entities.values()) {
+            total += section.size();
+        }
+        if (count > total / 2 + 1) {
+            // Most of the document has changed, so the delta would be no smaller than the document
+            return null;
+        }
+        JSONObject jo = new JSONObject();
+        jo.put("delta", true);
+        jo.put("since", since);
+        jo.put("version", version);
+        for (Map.Entry<String, Map<String, String>> section : mergedEntities.entrySet()) {
+            JSONArray changed = new JSONArray();
+            JSONArray deleted = new JSONArray();
+            for (Map.Entry<String, String> entity : section.getValue().entrySet()) {
+                if (entity.getValue() == null) {
+                    deleted.put(entity.getKey());
+                } else {
+                    changed.put(new JSONObject(entity.getValue()));
+                }
+            }
+            jo.put(section.getKey(), new JSONObject().put("changed", changed).put("deleted", deleted));
+        }
+        for (Map.Entry<String, String> section : mergedSections.entrySet()) {
+            jo.put(section.getKey(), new JSONTokener(section.getValue()).nextValue());
+        }
+        return jo.toString();
+    }
+
+    /**
+     * The provisioning data returned to a requester.
+     */
+    public static class Response {
+
+        private final String instance;
+        private final long version;
+        private final String body;
+        private final boolean delta;
+
+        Response(String instance, long version, String body, boolean delta) {
+            this.instance = instance;
+            this.version = version;
+            this.body = body;
+            this.delta = delta;
+        }
+
+        public String getInstance() {
+            return instance;
+        }
+
+        public long getVersion() {
+            return version;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        /**
+         * Is the body a delta, rather than the full document?.
+         */
+        public boolean isDelta() {
+            return delta;
+        }
+    }
+
+    private static class Delta {
+
+        private final long version;
+        private final Map<String, Map<String, String>> entities = new HashMap<>();
+        private final Map<String, String> sections = new LinkedHashMap<>();
+
+        private Delta(long version) {
+            this.version = version;
+        }
+    }
+}
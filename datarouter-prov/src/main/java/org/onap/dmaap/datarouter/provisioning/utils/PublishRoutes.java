@@ -0,0 +1,118 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.onap.dmaap.datarouter.provisioning.beans.Feed;
+import org.onap.dmaap.datarouter.provisioning.beans.IngressRoute;
+
+/**
+ * An immutable snapshot of the provisioning data needed to redirect a publish request to a node: the IDs of the
+ * provisioned feeds and the ingress route table indexed by feed. A new snapshot is built by the {@link Poker} each time
+ * it rebuilds the provisioning string, and replaces the previous one as a whole.
+ */
+public final class PublishRoutes {
+
+    private static final PublishRoutes EMPTY = new PublishRoutes(0, Collections.emptyList(), Collections.emptyList());
+
+    private final long version;
+    private final Set<Integer> feedIds;
+    private final Map<Integer, List<IngressRoute>> routes;
+
+    /**
+     * Build a snapshot.
+     *
+     * @param version the version of the provisioning data this snapshot was built from
+     * @param feeds all the feeds in the provisioning data
+     * @param ingressRoutes all the ingress routes, in sequence order
+     */
+    public PublishRoutes(long version, Collection<Feed> feeds, Collection<IngressRoute> ingressRoutes) {
+        this.version = version;
+        Set<Integer> ids = new HashSet<>();
+        for (Feed feed : feeds) {
+            ids.add(feed.getFeedid());
+        }
+        Map<Integer, List<IngressRoute>> map = new HashMap<>();
+        for (IngressRoute route : ingressRoutes) {
+            map.computeIfAbsent(route.getFeedid(), k -> new ArrayList<>()).add(route);
+        }
+        this.feedIds = Collections.unmodifiableSet(ids);
+        this.routes = Collections.unmodifiableMap(map);
+    }
+
+    /**
+     * Get a snapshot with no feeds or routes, for use before the provisioning data has been loaded.
+     */
+    public static PublishRoutes empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Get the version of the provisioning data this snapshot was built from. Versions increase with each rebuild.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Is there a feed with this ID?.
+     *
+     * @param feedid the feed ID
+     * @return true if the feed is provisioned
+     */
+    public boolean isFeed(int feedid) {
+        return feedIds.contains(feedid);
+    }
+
+    /**
+     * Find the first ingress route, in sequence order, that matches a publish request.
+     *
+     * @param feedid the feed ID being published to
+     * @param req the publish request
+     * @return the matching route, or null if no route matches
+     */
+    public IngressRoute getRoute(int feedid, HttpServletRequest req) {
+        List<IngressRoute> list = routes.get(feedid);
+        if (list != null) {
+            for (IngressRoute route : list) {
+                if (route.matches(feedid, req)) {
+                    return route;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of feeds in the snapshot.
+     */
+    public int getFeedCount() {
+        return feedIds.size();
+    }
+}
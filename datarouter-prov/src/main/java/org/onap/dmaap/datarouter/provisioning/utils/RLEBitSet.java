@@ -24,11 +24,9 @@
 
 package org.onap.dmaap.datarouter.provisioning.utils;
 
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
-import java.util.List;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.NoSuchElementException;
 
 /**
  * This class provides operations similar to the standard Java {@link java.util.BitSet} class.
@@ -36,124 +34,40 @@ import java.util.TreeSet;
  * for sparsely populated bits sets.  In addition, this class uses <code>long</code>s rather
  * than <code>int</code>s to represent the indices of the bits.
  *
+ * <p>The runs of 1s are held in two sorted arrays of <code>long</code>s, the first bit of each run and the bit after
+ * its last bit, so finding the run holding a bit is a binary search, and setting or clearing a range of bits only
+ * moves the runs after it. Runs never overlap or abut.</p>
+ *
  * @author Robert Eby
  * @version $Id$
  */
 public class RLEBitSet {
+
     /**
-     * Used to represent a continues set of <i>nbits</i> 1 bits starting at <i>start</i>.
+     * Receives the ranges of set bits in an {@code RLEBitSet}, without allocating an object per range.
      */
-    private class RLE implements Comparable<RLE> {
-        private final long start;
-        private long nbits;
-
-        public RLE(long from, long nbits) {
-            this.start = from;
-            this.nbits = (nbits > 0) ? nbits : 0;
-        }
-
-        /**
-         * Returns the index of the first set bit in this RLE.
-         *
-         * @return the index
-         */
-        public long firstBit() {
-            return start;
-        }
-
-        /**
-         * Returns the index of the last set bit in this RLE.
-         *
-         * @return the index
-         */
-        public long lastBit() {
-            return start + nbits - 1;
-        }
-
-
-        public boolean intersects(RLE b2) {
-            if (b2.lastBit() < this.firstBit()) {
-                return false;
-            }
-            if (b2.firstBit() > this.lastBit()) {
-                return false;
-            }
-            return true;
-        }
-
-        public boolean isSubset(RLE b2) {
-            if (firstBit() < b2.firstBit()) {
-                return false;
-            }
-            if (firstBit() > b2.lastBit()) {
-                return false;
-            }
-            if (lastBit() < b2.firstBit()) {
-                return false;
-            }
-            if (lastBit() > b2.lastBit()) {
-                return false;
-            }
-            return true;
-        }
-
-        public RLE union(RLE b2) {
-            RLE b1 = this;
-            if (b1.firstBit() > b2.firstBit()) {
-                b1 = b2;
-                b2 = this;
-            }
-            long end = b1.lastBit();
-            if (b2.lastBit() > b1.lastBit()) {
-                end = b2.lastBit();
-            }
-            return new RLE(b1.firstBit(), end - b1.firstBit() + 1);
-        }
-
+    public interface RangeConsumer {
         /**
-         * Returns the number of bits set to {@code true} in this {@code RLE}.
+         * Accept one range of set bits.
          *
-         * @return the number of bits set to {@code true} in this {@code RLE}.
+         * @param first the index of the first set bit in the range
+         * @param last  the index of the last set bit in the range
          */
-        public int cardinality() {
-            return (int) nbits;
-        }
-
-        @Override
-        public int compareTo(RLE rle) {
-            if (this.equals(rle)) {
-                return 0;
-            }
-            return (start < rle.start) ? -1 : 1;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            if (obj instanceof RLE) {
-                RLE rle = (RLE) obj;
-                return (start == rle.start) && (nbits == rle.nbits);
-            }
-            return false;
-        }
-
-        @Override
-        public int hashCode() {
-            return Long.valueOf(start ^ nbits).hashCode();
-        }
-
-        @Override
-        public String toString() {
-            return "[" + firstBit() + ".." + lastBit() + "]";
-        }
+        void accept(long first, long last);
     }
 
-    private SortedSet<RLE> bitsets;
+    private static final int INITIAL_CAPACITY = 8;
+
+    private long[] starts;
+    private long[] ends;
+    private int size;
 
     /**
      * Creates a new bit set. All bits are initially <code>false</code>.
      */
     public RLEBitSet() {
-        bitsets = new TreeSet<>();
+        starts = new long[INITIAL_CAPACITY];
+        ends = new long[INITIAL_CAPACITY];
     }
 
     /**
@@ -162,7 +76,7 @@ public class RLEBitSet {
      * @param str the initialization String
      */
     public RLEBitSet(String str) {
-        bitsets = new TreeSet<>();
+        this();
         set(str);
     }
 
@@ -172,11 +86,8 @@ public class RLEBitSet {
      *
      * @return the logical size of this {@code RLEBitSet}
      */
-    public long length() {
-        if (isEmpty()) {
-            return 0;
-        }
-        return bitsets.last().lastBit() + 1;
+    public synchronized long length() {
+        return (size == 0) ? 0 : ends[size - 1];
     }
 
     /**
@@ -186,15 +97,9 @@ public class RLEBitSet {
      * @param bit the bit index
      * @return the value of the bit with the specified index
      */
-    public boolean get(long bit) {
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                if (bit >= bs.firstBit() && bit <= bs.lastBit()) {
-                    return true;
-                }
-            }
-        }
-        return false;
+    public synchronized boolean get(long bit) {
+        int idx = lastStartAtMost(bit);
+        return idx >= 0 && bit < ends[idx];
     }
 
     /**
@@ -208,21 +113,35 @@ public class RLEBitSet {
      * @throws IndexOutOfBoundsException - if an index is negative
      */
     public void set(String str) {
-        str = str.trim();
-        if (!str.isEmpty()) {
-            for (String s2 : str.split("[, \n]+")) {
-                if (s2.indexOf('-') >= 0) {
-                    String[] pp = s2.split("-");
-                    long l1 = Long.parseLong(pp[0]);
-                    long l2 = Long.parseLong(pp[1]);
-                    set(l1, l2 + 1);
-                } else {
-                    set(Long.parseLong(s2));
-                }
+        int len = str.length();
+        int pos = 0;
+        while (pos < len) {
+            char chr = str.charAt(pos);
+            if (isSeparator(chr)) {
+                pos++;
+                continue;
+            }
+            int end = pos;
+            while (end < len && !isSeparator(str.charAt(end))) {
+                end++;
             }
+            int dash = str.indexOf('-', pos);
+            if (dash >= 0 && dash < end) {
+                long l1 = Long.parseLong(str, pos, dash, 10);
+                int dash2 = str.indexOf('-', dash + 1);
+                long l2 = Long.parseLong(str, dash + 1, (dash2 >= 0 && dash2 < end) ? dash2 : end, 10);
+                set(l1, l2 + 1);
+            } else {
+                set(Long.parseLong(str, pos, end, 10));
+            }
+            pos = end;
         }
     }
 
+    private static boolean isSeparator(char chr) {
+        return chr == ',' || chr <= ' ';
+    }
+
     /**
      * Sets the bit at the specified index to {@code true}.
      *
@@ -242,32 +161,32 @@ public class RLEBitSet {
      *                                   or {@code to} is negative,
      *                                   or {@code from} is larger than {@code to}
      */
-    public void set(long from, long to) {
+    public synchronized void set(long from, long to) {
         checkRange(from, to);
-        RLE newbits = new RLE(from, to - from);
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                if (bs.intersects(newbits)) {
-                    if (!newbits.isSubset(bs)) {
-                        bitsets.remove(bs);
-                        bitsets.add(newbits.union(bs));
-                        coalesce();
-                    }
-                    return;
-                }
-            }
-            bitsets.add(newbits);
+        if (from == to) {
+            return;
+        }
+        // The runs that overlap or abut the new one are merged with it
+        int lo = firstEndAtLeast(from);
+        int hi = lastStartAtMost(to);
+        if (lo > hi) {
+            replace(lo, lo, 1);
+            starts[lo] = from;
+            ends[lo] = to;
+        } else {
+            long start = Math.min(from, starts[lo]);
+            long end = Math.max(to, ends[hi]);
+            replace(lo, hi + 1, 1);
+            starts[lo] = start;
+            ends[lo] = end;
         }
-        coalesce();
     }
 
     /**
      * Sets all of the bits in this BitSet to {@code false}.
      */
-    public void clear() {
-        synchronized (bitsets) {
-            bitsets.clear();
-        }
+    public synchronized void clear() {
+        size = 0;
     }
 
     /**
@@ -289,52 +208,31 @@ public class RLEBitSet {
      *                                   or {@code to} is negative,
      *                                   or {@code from} is larger than {@code to}
      */
-    public void clear(long from, long to) {
+    public synchronized void clear(long from, long to) {
         checkRange(from, to);
-        RLE newbits = new RLE(from, to - from);
-        List<RLE> newranges = new ArrayList<>();
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                if (bs.intersects(newbits)) {
-                    // preserve the bits that are not being cleared
-                    long len = newbits.firstBit() - bs.firstBit();
-                    if (len > 0) {
-                        newranges.add(new RLE(bs.firstBit(), len));
-                    }
-                    len = bs.lastBit() - newbits.lastBit();
-                    if (len > 0) {
-                        newranges.add(new RLE(newbits.lastBit() + 1, len));
-                    }
-                    bs.nbits = 0;
-                }
-            }
-            if (!newranges.isEmpty()) {
-                for (RLE bs : newranges) {
-                    bitsets.add(bs);
-                }
-            }
+        if (from == to) {
+            return;
         }
-        coalesce();
-    }
-
-    /**
-     * Combine abutting RLEBitSets, and remove 0 length RLEBitSets.
-     */
-    private void coalesce() {
-        RLE last = null;
-        synchronized (bitsets) {
-            Iterator<RLE> iter = bitsets.iterator();
-            while (iter.hasNext()) {
-                RLE bs = iter.next();
-                if (last != null && (last.lastBit() + 1 == bs.firstBit())) {
-                    last.nbits += bs.nbits;
-                    iter.remove();
-                } else if (bs.nbits == 0) {
-                    iter.remove();
-                } else {
-                    last = bs;
-                }
-            }
+        // The runs that overlap the cleared range are trimmed or removed
+        int lo = firstEndAtLeast(from + 1);
+        int hi = lastStartAtMost(to - 1);
+        if (lo > hi) {
+            return;
+        }
+        long leftStart = starts[lo];
+        long rightEnd = ends[hi];
+        boolean left = leftStart < from;
+        boolean right = rightEnd > to;
+        replace(lo, hi + 1, (left ? 1 : 0) + (right ? 1 : 0));
+        int idx = lo;
+        if (left) {
+            starts[idx] = leftStart;
+            ends[idx] = from;
+            idx++;
+        }
+        if (right) {
+            starts[idx] = to;
+            ends[idx] = rightEnd;
         }
     }
 
@@ -362,14 +260,31 @@ public class RLEBitSet {
      * @param set a {@code RLEBitSet}
      */
     public void and(RLEBitSet set) {
-        long last = 0;
-        synchronized (set.bitsets) {
-            for (RLE bs : set.bitsets) {
-                clear(last, bs.start);
-                last = bs.start + bs.nbits;
+        RLEBitSet other = set.copy();
+        synchronized (this) {
+            long[] newStarts = new long[Math.max(INITIAL_CAPACITY, size + other.size)];
+            long[] newEnds = new long[newStarts.length];
+            int count = 0;
+            int idx = 0;
+            int jdx = 0;
+            while (idx < size && jdx < other.size) {
+                long start = Math.max(starts[idx], other.starts[jdx]);
+                long end = Math.min(ends[idx], other.ends[jdx]);
+                if (start < end) {
+                    newStarts[count] = start;
+                    newEnds[count] = end;
+                    count++;
+                }
+                if (ends[idx] < other.ends[jdx]) {
+                    idx++;
+                } else {
+                    jdx++;
+                }
             }
+            starts = newStarts;
+            ends = newEnds;
+            size = count;
         }
-        clear(last, Long.MAX_VALUE);
     }
 
     /**
@@ -379,10 +294,37 @@ public class RLEBitSet {
      * @param set the {@code RLEBitSet} with which to mask this {@code RLEBitSet}
      */
     public void andNot(RLEBitSet set) {
-        synchronized (set.bitsets) {
-            for (RLE bs : set.bitsets) {
-                clear(bs.start, bs.start + bs.nbits);
+        RLEBitSet other = set.copy();
+        synchronized (this) {
+            long[] newStarts = new long[Math.max(INITIAL_CAPACITY, size + other.size)];
+            long[] newEnds = new long[newStarts.length];
+            int count = 0;
+            int jdx = 0;
+            for (int idx = 0; idx < size; idx++) {
+                long start = starts[idx];
+                long end = ends[idx];
+                while (jdx < other.size && other.ends[jdx] <= start) {
+                    jdx++;
+                }
+                int kdx = jdx;
+                while (kdx < other.size && other.starts[kdx] < end) {
+                    if (other.starts[kdx] > start) {
+                        newStarts[count] = start;
+                        newEnds[count] = other.starts[kdx];
+                        count++;
+                    }
+                    start = Math.max(start, other.ends[kdx]);
+                    kdx++;
+                }
+                if (start < end) {
+                    newStarts[count] = start;
+                    newEnds[count] = end;
+                    count++;
+                }
             }
+            starts = newStarts;
+            ends = newEnds;
+            size = count;
         }
     }
 
@@ -392,8 +334,8 @@ public class RLEBitSet {
      *
      * @return boolean indicating whether this {@code BitSet} is empty
      */
-    public boolean isEmpty() {
-        return bitsets.isEmpty();
+    public synchronized boolean isEmpty() {
+        return size == 0;
     }
 
     /**
@@ -401,14 +343,12 @@ public class RLEBitSet {
      *
      * @return the number of bits set to {@code true} in this {@code RLEBitSet}.
      */
-    public int cardinality() {
-        int trueCount = 0;
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                trueCount += bs.cardinality();
-            }
+    public synchronized int cardinality() {
+        long trueCount = 0;
+        for (int idx = 0; idx < size; idx++) {
+            trueCount += ends[idx] - starts[idx];
         }
-        return trueCount;
+        return (int) trueCount;
     }
 
     /**
@@ -418,12 +358,14 @@ public class RLEBitSet {
      * @return a clone of this bit set
      */
     public Object clone() {
+        return copy();
+    }
+
+    private synchronized RLEBitSet copy() {
         RLEBitSet rv = new RLEBitSet();
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                rv.bitsets.add(new RLE(bs.start, bs.nbits));
-            }
-        }
+        rv.starts = Arrays.copyOf(starts, Math.max(INITIAL_CAPACITY, size));
+        rv.ends = Arrays.copyOf(ends, rv.starts.length);
+        rv.size = size;
         return rv;
     }
 
@@ -437,43 +379,59 @@ public class RLEBitSet {
      * @return the String
      */
     @Override
-    public String toString() {
-        StringBuilder sb = new StringBuilder();
-        String prefix = "";
-        synchronized (bitsets) {
-            for (RLE bs : bitsets) {
-                sb.append(prefix);
-                prefix = ",";
-                long bit1 = bs.firstBit();
-                long bit2 = bs.lastBit();
-                sb.append(bit1);
-                if (bit1 != bit2) {
-                    sb.append('-').append(bit2);
-                }
+    public synchronized String toString() {
+        StringBuilder sb = new StringBuilder(size * 24);
+        for (int idx = 0; idx < size; idx++) {
+            if (idx > 0) {
+                sb.append(',');
+            }
+            long bit1 = starts[idx];
+            long bit2 = ends[idx] - 1;
+            sb.append(bit1);
+            if (bit1 != bit2) {
+                sb.append('-').append(bit2);
             }
         }
         return sb.toString();
     }
 
+    /**
+     * Pass each range of set bits in this {@code RLEBitSet}, in order, to a consumer. The bit set
+     * is locked while this runs, so the consumer must not modify it.
+     *
+     * @param consumer the consumer of the ranges
+     */
+    public synchronized void forEachRange(RangeConsumer consumer) {
+        for (int idx = 0; idx < size; idx++) {
+            consumer.accept(starts[idx], ends[idx] - 1);
+        }
+    }
+
     /**
      * Return an Iterator which provides pairs of {@code Long}s representing the beginning and
-     * ending index of a range of set bits in this {@code RLEBitSet}.
+     * ending index of a range of set bits in this {@code RLEBitSet}. The Iterator works on a
+     * copy of the ranges taken when it is created.
      *
      * @return the Iterator
      */
     public Iterator<Long[]> getRangeIterator() {
+        RLEBitSet snapshot = copy();
         return new Iterator<Long[]>() {
-            private Iterator<RLE> iterator = bitsets.iterator();
+            private int idx = 0;
 
             @Override
             public boolean hasNext() {
-                return iterator.hasNext();
+                return idx < snapshot.size;
             }
 
             @Override
             public Long[] next() {
-                RLE bs = iterator.next();
-                return new Long[]{bs.firstBit(), bs.lastBit()};
+                if (idx >= snapshot.size) {
+                    throw new NoSuchElementException();
+                }
+                Long[] range = new Long[]{snapshot.starts[idx], snapshot.ends[idx] - 1};
+                idx++;
+                return range;
             }
 
             @Override
@@ -482,4 +440,56 @@ public class RLEBitSet {
             }
         };
     }
+
+    /**
+     * Returns the index of the first run whose end is at or after {@code bit}, or {@code size} if there is none.
+     */
+    private int firstEndAtLeast(long bit) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (ends[mid] < bit) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /**
+     * Returns the index of the last run that starts at or before {@code bit}, or -1 if there is none.
+     */
+    private int lastStartAtMost(long bit) {
+        int lo = 0;
+        int hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (starts[mid] <= bit) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo - 1;
+    }
+
+    /**
+     * Replace the runs from {@code from} (inclusive) to {@code to} (exclusive) with {@code count} runs, to be filled
+     * in by the caller, moving the runs after them up or down as needed.
+     */
+    private void replace(int from, int to, int count) {
+        int newSize = size - (to - from) + count;
+        if (newSize > starts.length) {
+            int capacity = Math.max(newSize, starts.length * 2);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+        }
+        if (to < size && count != to - from) {
+            System.arraycopy(starts, to, starts, from + count, size - to);
+            System.arraycopy(ends, to, ends, from + count, size - to);
+        }
+        size = newSize;
+    }
 }
@@ -28,9 +28,9 @@ import static org.onap.dmaap.datarouter.provisioning.BaseServlet.TEXT_CT;
 
 import com.att.eelf.configuration.EELFLogger;
 import com.att.eelf.configuration.EELFManager;
-import java.io.ByteArrayOutputStream;
 import java.io.FileInputStream;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
 import java.nio.file.Files;
@@ -44,12 +44,15 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.TreeSet;
+import java.util.zip.GZIPInputStream;
 import jakarta.servlet.http.HttpServletResponse;
+import org.apache.http.Header;
 import org.apache.http.HttpEntity;
 import org.apache.http.HttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -116,12 +119,17 @@ public class SynchronizerTask extends TimerTask {
 
     private static final String[] stnames = {"UNKNOWN_POD", "ACTIVE_POD", "STANDBY_POD"};
     private static final long ONE_HOUR = 60 * 60 * 1000L;
+    /**
+     * Cap on the span of record IDs in one replication window, so the active POD's keyset cursor stays short.
+     */
+    private static final long MAX_WINDOW_SPAN = 1000000L;
 
     private long nextMsg = 0;    // only display the "Current podState" msg every 5 mins.
 
     private final EELFLogger logger;
     private final Timer rolex;
     private final String spooldir;
+    private final long windowSize;
     private int podState;
     private boolean doFetch;
     private long nextsynctime;
@@ -132,6 +140,8 @@ public class SynchronizerTask extends TimerTask {
         logger = EELFManager.getInstance().getLogger("InternalLog");
         rolex = new Timer();
         spooldir = ProvRunner.getProvProperties().getProperty("org.onap.dmaap.datarouter.provserver.spooldir");
+        windowSize = Long.parseLong(ProvRunner.getProvProperties().getProperty(
+                "org.onap.dmaap.datarouter.provserver.logsync.window", "100000"));
         podState = UNKNOWN_POD;
         doFetch = true;        // start off with a fetch
         nextsynctime = 0;
@@ -253,6 +263,10 @@ public class SynchronizerTask extends TimerTask {
         JSONObject jo = readProvisioningJson();
         if (jo != null) {
             doFetch = false;
+            // Compare against what is really in the DB, not what this POD last cached
+            Feed.getCache().invalidate();
+            Subscription.getCache().invalidate();
+            Group.getCache().invalidate();
             syncFeeds(jo.getJSONArray("feeds"));
             syncSubs(jo.getJSONArray("subscriptions"));
             syncGroups(jo.getJSONArray("groups")); //Rally:US708115 - 1610
@@ -587,7 +601,7 @@ public class SynchronizerTask extends TimerTask {
         //End of fix.
 
         HttpGet get = new HttpGet(url);
-        try (ByteArrayOutputStream bos = new ByteArrayOutputStream()) {
+        try {
             HttpResponse response = httpclient.execute(get);
             int code = response.getStatusLine().getStatusCode();
             if (code != HttpServletResponse.SC_OK) {
@@ -600,13 +614,9 @@ public class SynchronizerTask extends TimerTask {
                 logger.warn("PROV5011: readRemoteLoglist failed, bad content type: " + ctype);
                 return bs;
             }
-            InputStream is = entity.getContent();
-            int ch;
-            while ((ch = is.read()) >= 0) {
-                bos.write(ch);
+            try (InputStream is = entity.getContent()) {
+                bs.set(new String(is.readAllBytes(), StandardCharsets.UTF_8));
             }
-            bs.set(bos.toString());
-            is.close();
         } catch (Exception e) {
             logger.warn("PROV5012: readRemoteLoglist failed, exception: " + e);
             return bs;
@@ -617,18 +627,70 @@ public class SynchronizerTask extends TimerTask {
     }
 
     /**
-     * Issue a POST on the peer POD's /internal/drlogs/ URL to fetch log records available in the remote database that
-     * we wish to copy to the local database.
+     * Fetch log records available in the remote database that we wish to copy to the local database. The records are
+     * requested in windows of at most {@code logsync.window} records, each fetched gzip compressed and spooled to its own
+     * file for the LogfileLoader. A window is only requested once the one before it has been spooled, so if replication
+     * fails part way through, the windows already loaded are not requested again on the next pass.
+     *
+     * <p>Replication progress is deliberately not checkpointed on its own. The LogfileLoader's record ID bit set, which
+     * it checkpoints to disk, already says which records are here, and a separate record of spooled windows could
+     * disagree with it. The cost is that a window spooled but not yet loaded when a pass fails is requested again; the
+     * loader drops the records it already has.
      *
      * @param bs the bitset (an RELBitSet) of log records to fetch
      */
     public void replicateDataRouterLogs(RLEBitSet bs) {
+        List<RLEBitSet> windows = splitIntoWindows(bs, windowSize, MAX_WINDOW_SPAN);
+        long stamp = System.currentTimeMillis();
+        for (int i = 0; i < windows.size(); i++) {
+            if (!replicateWindow(windows.get(i), stamp + "-" + i)) {
+                logger.warn("PROV5014: Log replication stopped after " + i + " of " + windows.size() + " windows");
+                return;
+            }
+        }
+    }
+
+    /**
+     * Split a bitset into consecutive windows of at most {@code maxRecords} records each, none spanning more than
+     * {@code maxSpan} record IDs.
+     */
+    static List<RLEBitSet> splitIntoWindows(RLEBitSet bs, long maxRecords, long maxSpan) {
+        List<RLEBitSet> windows = new ArrayList<>();
+        long[] window = {0, 0};    // count of records in, and first record ID of, the last window
+        bs.forEachRange((first, last) -> {
+            long from = first;
+            while (from <= last) {
+                if (windows.isEmpty() || window[0] >= maxRecords || from - window[1] >= maxSpan) {
+                    windows.add(new RLEBitSet());
+                    window[0] = 0;
+                    window[1] = from;
+                }
+                long to = Math.min(last, Math.min(from + maxRecords - window[0], window[1] + maxSpan) - 1);
+                windows.get(windows.size() - 1).set(from, to + 1);
+                window[0] += to - from + 1;
+                from = to + 1;
+            }
+        });
+        return windows;
+    }
+
+    /**
+     * Issue a POST on the peer POD's /internal/drlogs/ URL to fetch one window of log records, and spool them for the
+     * LogfileLoader.
+     *
+     * @param bs the bitset (an RELBitSet) of log records to fetch
+     * @param spoolname the name of the spool file
+     * @return true if the records were spooled
+     */
+    private boolean replicateWindow(RLEBitSet bs, String spoolname) {
         String url = URLUtilities.generatePeerLogsURL();
         HttpPost post = new HttpPost(url);
+        Path tmppath = Paths.get(spooldir, spoolname);
         try {
             String str = bs.toString();
             HttpEntity body = new ByteArrayEntity(str.getBytes(), ContentType.create(TEXT_CT));
             post.setEntity(body);
+            post.setHeader("Accept-Encoding", "gzip");
             if (logger.isDebugEnabled()) {
                 logger.debug("Requesting records: " + str);
             }
@@ -637,23 +699,31 @@ public class SynchronizerTask extends TimerTask {
             int code = response.getStatusLine().getStatusCode();
             if (code != HttpServletResponse.SC_OK) {
                 logger.warn("PROV5010: replicateDataRouterLogs failed, bad error code: " + code);
-                return;
+                return false;
             }
             HttpEntity entity = response.getEntity();
             String ctype = entity.getContentType().getValue().trim();
             if (!TEXT_CT.equals(ctype)) {
                 logger.warn("PROV5011: replicateDataRouterLogs failed, bad content type: " + ctype);
-                return;
+                return false;
             }
 
-            String spoolname = "" + System.currentTimeMillis();
-            Path tmppath = Paths.get(spooldir, spoolname);
-            Path donepath = Paths.get(spooldir, "IN." + spoolname);
-            Files.copy(entity.getContent(), Paths.get(spooldir, spoolname), StandardCopyOption.REPLACE_EXISTING);
-            Files.move(tmppath, donepath, StandardCopyOption.REPLACE_EXISTING);
+            Header encoding = response.getFirstHeader("Content-Encoding");
+            try (InputStream is = (encoding != null && "gzip".equalsIgnoreCase(encoding.getValue().trim()))
+                    ? new GZIPInputStream(entity.getContent(), 65536) : entity.getContent()) {
+                Files.copy(is, tmppath, StandardCopyOption.REPLACE_EXISTING);
+            }
+            Files.move(tmppath, Paths.get(spooldir, "IN." + spoolname), StandardCopyOption.REPLACE_EXISTING);
             logger.info("Approximately " + bs.cardinality() + " records replicated.");
+            return true;
         } catch (Exception e) {
             logger.warn("PROV5012: replicateDataRouterLogs failed, exception: " + e);
+            try {
+                Files.deleteIfExists(tmppath);
+            } catch (Exception e1) {
+                logger.warn("PROV5012: Could not remove " + tmppath + ": " + e1);
+            }
+            return false;
         } finally {
             post.releaseConnection();
         }
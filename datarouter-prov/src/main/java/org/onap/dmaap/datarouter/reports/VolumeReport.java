@@ -56,6 +56,7 @@ import org.onap.dmaap.datarouter.provisioning.utils.ProvDbUtils;
  * @version $Id: VolumeReport.java,v 1.3 2014/02/28 15:11:13 eby Exp $
  */
 public class VolumeReport extends ReportBase {
+    private static final long HOUR = 60 * 60 * 1000L;
     private EELFLogger loggerVolumeReport= EELFManager.getInstance().getLogger("ReportLog");
     private class Counters {
         int filespublished, filesdelivered, filesexpired;
@@ -74,50 +75,31 @@ public class VolumeReport extends ReportBase {
         Map<String, Counters> map = new HashMap<>();
         SimpleDateFormat sdf = new SimpleDateFormat("yyyy-MM-dd");
         long start = System.currentTimeMillis();
-        try (Connection conn = ProvDbUtils.getInstance().getConnection()) {
-            // We need to run this SELECT in stages, because otherwise we run out of memory!
-            final long stepsize = 6000000L;
-            boolean goAgain = true;
-            for (long i = 0; goAgain; i += stepsize) {
-                try (PreparedStatement ps = conn.prepareStatement(
-                    "select EVENT_TIME, TYPE, FEEDID, CONTENT_LENGTH, RESULT from LOG_RECORDS "
-                        + "where EVENT_TIME >= ? and EVENT_TIME <= ? LIMIT ?, ?")) {
-                    ps.setLong(1, from);
-                    ps.setLong(2, to);
-                    ps.setLong(3, i);
-                    ps.setLong(4, stepsize);
-                    try (ResultSet rs = ps.executeQuery()) {
-                        goAgain = false;
-                        while (rs.next()) {
-                            goAgain = true;
-                            long etime = rs.getLong("EVENT_TIME");
-                            String type = rs.getString("TYPE");
-                            int feed = rs.getInt("FEEDID");
-                            long clen = rs.getLong("CONTENT_LENGTH");
-                            String key = sdf.format(new Date(etime)) + ":" + feed;
-                            Counters c = map.get(key);
-                            if (c == null) {
-                                c = new Counters();
-                                map.put(key, c);
-                            }
-                            if (type.equalsIgnoreCase("pub")) {
-                                c.filespublished++;
-                                c.bytespublished += clen;
-                            } else if (type.equalsIgnoreCase("del")) {
-                                // Only count successful deliveries
-                                int statusCode = rs.getInt("RESULT");
-                                if (statusCode >= 200 && statusCode < 300) {
-                                    c.filesdelivered++;
-                                    c.bytesdelivered += clen;
-                                }
-                            } else if (type.equalsIgnoreCase("exp")) {
-                                c.filesexpired++;
-                                c.bytesexpired += clen;
-                            }
-                        }
+        // Sum the hourly rollups rather than scanning LOG_RECORDS; summing hours keeps the dates in the local
+        // time zone. Only successful deliveries are counted in the rollups.
+        try (Connection conn = ProvDbUtils.getInstance().getConnection();
+            PreparedStatement ps = conn.prepareStatement(
+                "select PERIOD_START, FEEDID, FILES_PUBLISHED, BYTES_PUBLISHED, FILES_DELIVERED, BYTES_DELIVERED, "
+                    + "FILES_EXPIRED, BYTES_EXPIRED from LOG_ROLLUP_HOURLY "
+                    + "where PERIOD_START >= ? and PERIOD_START <= ?")) {
+            ps.setLong(1, from - from % HOUR);
+            ps.setLong(2, to);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    long ptime = rs.getLong("PERIOD_START");
+                    int feed = rs.getInt("FEEDID");
+                    String key = sdf.format(new Date(ptime)) + ":" + feed;
+                    Counters c = map.get(key);
+                    if (c == null) {
+                        c = new Counters();
+                        map.put(key, c);
                     }
-                } catch (SQLException sqlException) {
-                    loggerVolumeReport.error("SqlException", sqlException);
+                    c.filespublished += rs.getInt("FILES_PUBLISHED");
+                    c.bytespublished += rs.getLong("BYTES_PUBLISHED");
+                    c.filesdelivered += rs.getInt("FILES_DELIVERED");
+                    c.bytesdelivered += rs.getLong("BYTES_DELIVERED");
+                    c.filesexpired += rs.getInt("FILES_EXPIRED");
+                    c.bytesexpired += rs.getLong("BYTES_EXPIRED");
                 }
             }
         } catch (SQLException e) {
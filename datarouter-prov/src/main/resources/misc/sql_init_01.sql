@@ -45,7 +45,8 @@ CREATE TABLE SUBSCRIPTIONS (
     SUSPENDED                   BOOLEAN DEFAULT FALSE,
     PRIVILEGED_SUBSCRIBER       BOOLEAN DEFAULT FALSE,
     CREATED_DATE                TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    DECOMPRESS                  BOOLEAN DEFAULT FALSE
+    DECOMPRESS                  BOOLEAN DEFAULT FALSE,
+    MAX_IN_FLIGHT               INT DEFAULT 1
 );
 
 CREATE TABLE PARAMETERS (
@@ -79,8 +80,8 @@ CREATE TABLE LOG_RECORDS (
     CONTENT_LENGTH_2 BIGINT,
     FILENAME       VARCHAR(256),        /* Name of the file being published on DR */
 
-    INDEX (FEEDID) USING BTREE,
-    INDEX (DELIVERY_SUBID) USING BTREE,
+    INDEX (FEEDID, TYPE, EVENT_TIME) USING BTREE,
+    INDEX (DELIVERY_SUBID, EVENT_TIME) USING BTREE,
     INDEX (RECORD_ID) USING BTREE
 ) ENGINE = MyISAM;
 
@@ -0,0 +1,2 @@
+-- MAX_IN_FLIGHT was added to SUBSCRIPTIONS after the first release; sql_init_01.sql creates it on a new database
+ALTER TABLE SUBSCRIPTIONS ADD COLUMN MAX_IN_FLIGHT INT DEFAULT 1;
@@ -22,6 +22,7 @@
  ******************************************************************************/
 package org.onap.dmaap.datarouter.provisioning;
 
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -35,25 +36,31 @@ import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.ServletOutputStream;
 import java.io.File;
 import java.net.InetAddress;
+import java.util.Collections;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.json.JSONObject;
 import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.onap.dmaap.datarouter.provisioning.beans.Deleteable;
 import org.onap.dmaap.datarouter.provisioning.beans.Insertable;
 import org.onap.dmaap.datarouter.provisioning.beans.LogRecord;
 import org.onap.dmaap.datarouter.provisioning.beans.Parameters;
 import org.onap.dmaap.datarouter.provisioning.beans.Updateable;
+import org.onap.dmaap.datarouter.provisioning.utils.AddressTrie;
+import org.onap.dmaap.datarouter.provisioning.utils.NodePoker;
 import org.onap.dmaap.datarouter.provisioning.utils.Poker;
+import org.onap.dmaap.datarouter.provisioning.utils.ProvisioningHistory;
 import org.powermock.api.mockito.PowerMockito;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.core.classloader.annotations.PrepareForTest;
@@ -200,6 +207,26 @@ public class InternalServletTest extends DrServletTestBase {
     verify(response).setStatus(eq(HttpServletResponse.SC_OK));
   }
 
+  @Test
+  public void Given_Request_Is_HTTP_GET_With_Pokes_In_Endpoint_Then_Poke_Stats_Are_Returned() throws Exception {
+    when(request.getPathInfo()).thenReturn("/pokes");
+    setPokerToNotCreateTimers();
+    when(Poker.getPoker().getPokeStats()).thenReturn(
+        Collections.singletonMap("http://dmaap-dr-node:8080/internal/fetchProv", new NodePoker.PokeStats()));
+    ServletOutputStream outStream = mock(ServletOutputStream.class);
+    when(response.getOutputStream()).thenReturn(outStream);
+    internalServlet.doGet(request, response);
+    verify(response).setStatus(eq(HttpServletResponse.SC_OK));
+    verify(response).setContentType("application/json");
+    ArgumentCaptor<String> body = ArgumentCaptor.forClass(String.class);
+    verify(outStream).print(body.capture());
+    JSONObject stats = new JSONObject(body.getValue()).getJSONObject("http://dmaap-dr-node:8080/internal/fetchProv");
+    Assert.assertEquals(0, stats.getLong("pokes"));
+    Assert.assertEquals(0, stats.getLong("failures"));
+    Assert.assertEquals(0, stats.getLong("lastLatency"));
+    Assert.assertEquals(0, stats.getLong("maxLatency"));
+  }
+
   @Test
   public void Given_Request_Is_HTTP_GET_With_Incorrect_Endpoint_Then_No_Content_Response_Is_Generated()
       throws Exception {
@@ -384,7 +411,7 @@ public class InternalServletTest extends DrServletTestBase {
   public void Given_Request_Is_HTTP_POST_To_Drlogs_And_Request_Succeeds() throws Exception {
     when(request.getPathInfo()).thenReturn("/drlogs/");
     ServletInputStream inStream = mock(ServletInputStream.class);
-    when(inStream.read()).thenReturn(1, -1);
+    when(inStream.readAllBytes()).thenReturn("1".getBytes());
     when(request.getInputStream()).thenReturn(inStream);
     PowerMockito.mockStatic(LogRecord.class);
     internalServlet.doPost(request, response);
@@ -418,9 +445,8 @@ public class InternalServletTest extends DrServletTestBase {
   private void setUpValidSecurityOnHttpRequest() throws Exception {
     when(request.isSecure()).thenReturn(true);
     when(request.getRemoteAddr()).thenReturn(InetAddress.getLocalHost().getHostAddress());
-    InetAddress[] nodeAddresses = new InetAddress[1];
-    nodeAddresses[0] = InetAddress.getLocalHost();
-    FieldUtils.writeDeclaredStaticField(BaseServlet.class, "nodeAddresses", nodeAddresses, true);
+    FieldUtils.writeDeclaredStaticField(BaseServlet.class, "internalAddresses",
+        AddressTrie.compile(InetAddress.getLocalHost()), true);
     FieldUtils.writeDeclaredStaticField(BaseServlet.class, "requireCert", false, true);
   }
 
@@ -434,6 +460,7 @@ public class InternalServletTest extends DrServletTestBase {
 
   private void setPokerToNotCreateTimers() throws Exception {
     Poker poker = mock(Poker.class);
+    when(poker.getProvisioningResponse(any(), any())).thenReturn(new ProvisioningHistory().getResponse(null, null));
     FieldUtils.writeDeclaredStaticField(Poker.class, "poker", poker, true);
   }
 
@@ -219,6 +219,68 @@ public class LogServletTest extends DrServletTestBase {
         verify(servletOutputStream, times(1)).print("[");
     }
 
+    @Test
+    public void Given_Request_Is_GetPublishRecordsForFeed_With_Limit_Then_Records_Carry_Cursor()
+            throws Exception {
+        when(request.getParameter("type")).thenReturn("pub");
+        when(request.getPathInfo()).thenReturn("/1");
+        when(request.getParameter("publishId")).thenReturn("ID");
+        when(request.getParameter("expiryReason")).thenReturn(null);
+        when(request.getParameter("statusCode")).thenReturn("success");
+        when(request.getParameter("fields")).thenReturn("publishId:fileName");
+        when(request.getParameter("limit")).thenReturn("10");
+        logServlet.doGet(request, response);
+        verify(response).setStatus(eq(HttpServletResponse.SC_OK));
+        verify(servletOutputStream, times(1)).print("\n{\"publishId\":\"ID\",\"fileName\":\"file123\",\"cursor\":\"2536159564422:1\"}");
+    }
+
+    @Test
+    public void Given_Request_Is_GetPublishRecordsForFeed_After_Last_Cursor_Then_Empty_Array_Returned()
+            throws Exception {
+        when(request.getParameter("type")).thenReturn("pub");
+        when(request.getPathInfo()).thenReturn("/1");
+        when(request.getParameter("publishId")).thenReturn("ID");
+        when(request.getParameter("expiryReason")).thenReturn(null);
+        when(request.getParameter("statusCode")).thenReturn(null);
+        when(request.getParameter("after")).thenReturn("2536159564422:1");
+        logServlet.doGet(request, response);
+        verify(response).setStatus(eq(HttpServletResponse.SC_OK));
+        verify(servletOutputStream, times(1)).print("[");
+        verify(servletOutputStream, times(1)).print("]");
+        verify(servletOutputStream, times(2)).print(anyString());
+    }
+
+    @Test
+    public void Given_Request_Is_GetPublishRecordsForFeed_After_Earlier_Event_With_Higher_RecordId_Then_Record_Is_Returned()
+            throws Exception {
+        when(request.getParameter("type")).thenReturn("pub");
+        when(request.getPathInfo()).thenReturn("/1");
+        when(request.getParameter("publishId")).thenReturn("ID");
+        when(request.getParameter("expiryReason")).thenReturn(null);
+        when(request.getParameter("statusCode")).thenReturn(null);
+        when(request.getParameter("fields")).thenReturn("publishId");
+        when(request.getParameter("after")).thenReturn("2536159564421:5");
+        logServlet.doGet(request, response);
+        verify(response).setStatus(eq(HttpServletResponse.SC_OK));
+        verify(servletOutputStream, times(1)).print("\n{\"publishId\":\"ID\",\"cursor\":\"2536159564422:1\"}");
+    }
+
+    @Test
+    public void Given_Request_Is_HTTP_GET_And_Has_After_Without_Event_Time_Then_Bad_Request_Response_Is_Generated()
+            throws Exception {
+        when(request.getParameter("after")).thenReturn("1");
+        logServlet.doGet(request, response);
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+    }
+
+    @Test
+    public void Given_Request_Is_HTTP_GET_And_Has_Bad_Limit_Then_Bad_Request_Response_Is_Generated()
+            throws Exception {
+        when(request.getParameter("limit")).thenReturn("0");
+        logServlet.doGet(request, response);
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+    }
+
     @Test
     public void Given_Request_Is_getDeliveryRecordsForFeed_And_Type_Is_Delivery_A_STATUS_OK_Response_Is_Generated()
             throws Exception {
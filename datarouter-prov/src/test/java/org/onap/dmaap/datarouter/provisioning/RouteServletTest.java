@@ -79,6 +79,7 @@ public class RouteServletTest {
     @Before
     public void setUp() throws Exception {
         routeServlet = new RouteServlet();
+        when(request.getRemoteAddr()).thenReturn("127.0.0.1");
     }
 
     @Test
@@ -30,10 +30,14 @@ import static org.mockito.Mockito.mock;
 import static org.powermock.api.mockito.PowerMockito.when;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.net.InetAddress;
 import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Base64;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -49,7 +53,9 @@ import org.junit.AfterClass;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -78,6 +84,9 @@ public class SynchronizerTaskTest {
     @Mock
     private CloseableHttpResponse response;
 
+    @Rule
+    public TemporaryFolder spool = new TemporaryFolder();
+
     private SynchronizerTask synchronizerTask;
 
     private static EntityManagerFactory emf;
@@ -178,6 +187,26 @@ public class SynchronizerTaskTest {
         synchronizerTask.replicateDataRouterLogs(rleBitSet);
     }
 
+    @Test
+    public void Given_Synch_Task_replicateDataRouterLogs_Called_With_Many_Records_Then_Gzipped_Windows_Are_Fetched()
+            throws IOException, IllegalAccessException {
+        mockHttpClientForGetRequest();
+        FieldUtils.writeField(synchronizerTask, "spooldir", spool.getRoot().getPath(), true);
+        Mockito.when(response.getStatusLine().getStatusCode()).thenReturn(200);
+        Mockito.when(httpEntity.getContentType()).thenReturn(new BasicHeader("header", "text/plain"));
+        Mockito.when(response.getFirstHeader("Content-Encoding"))
+                .thenReturn(new BasicHeader("Content-Encoding", "gzip"));
+        // "log records\n", gzipped ahead of time: PowerMock cannot intercept GZIPOutputStream under the surefire argLine
+        byte[] gzipped = Base64.getDecoder().decode("H4sIAAAAAAAAA8vJT1coSk3OL0op5gIAtbi97AwAAAA=");
+        Mockito.when(httpEntity.getContent()).thenAnswer(invocation -> new ByteArrayInputStream(gzipped));
+        synchronizerTask.replicateDataRouterLogs(new RLEBitSet("0-249999"));
+        Mockito.verify(httpClient, Mockito.times(3)).execute(anyObject());
+        File[] spooled = spool.getRoot().listFiles((dir, name) -> name.startsWith("IN."));
+        Assert.assertEquals(3, spooled.length);
+        Assert.assertEquals("log records\n",
+                new String(Files.readAllBytes(spooled[0].toPath()), StandardCharsets.UTF_8));
+    }
+
     @Test
     public void Given_Synch_Task_Is_Started_And_LogFileLoader_Is_Idle_Then_Standby_Pod_Synch_Is_Successful()
             throws IOException, IllegalAccessException {
@@ -0,0 +1,102 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.beans;
+
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class EntityCacheTest {
+
+    private Map<Integer, String[]> table;
+    private AtomicInteger tableLoads;
+    private EntityCache<String[]> cache;
+
+    @Before
+    public void setUp() {
+        table = new TreeMap<>();
+        table.put(1, new String[]{"1", "one"});
+        table.put(2, new String[]{"2", "two"});
+        tableLoads = new AtomicInteger();
+        cache = new EntityCache<>("rows", () -> {
+            tableLoads.incrementAndGet();
+            return table.values();
+        }, table::get, row -> Integer.parseInt(row[0]), String[]::clone);
+    }
+
+    @Test
+    public void Given_Table_Loaded_Then_Lookups_Are_Served_From_Memory() {
+        Assert.assertEquals("one", cache.get(1)[1]);
+        Assert.assertNull(cache.get(3));
+        Assert.assertEquals(2, cache.getAll().size());
+        Assert.assertEquals(1, tableLoads.get());
+        Assert.assertEquals(1, cache.getMisses());
+        Assert.assertEquals(2, cache.getHits());
+    }
+
+    @Test
+    public void Given_Returned_Bean_Is_Modified_Then_Cached_Bean_Is_Unchanged() {
+        cache.get(1)[1] = "uno";
+        Assert.assertEquals("one", cache.get(1)[1]);
+    }
+
+    @Test
+    public void Given_Row_Written_Then_Refresh_Updates_Cache() {
+        cache.get(1);
+        table.put(1, new String[]{"1", "uno"});
+        table.remove(2);
+        table.put(3, new String[]{"3", "three"});
+        cache.refresh(1);
+        cache.refresh(2);
+        cache.refresh(3);
+        Assert.assertEquals("uno", cache.get(1)[1]);
+        Assert.assertFalse(cache.contains(2));
+        Assert.assertEquals("three", cache.get(3)[1]);
+        Assert.assertEquals(1, tableLoads.get());
+    }
+
+    @Test
+    public void Given_Cache_Invalidated_Then_Table_Is_Reloaded() {
+        cache.get(1);
+        table.put(1, new String[]{"1", "uno"});
+        cache.invalidate();
+        Assert.assertEquals("uno", cache.get(1)[1]);
+        Assert.assertEquals(2, tableLoads.get());
+    }
+
+    @Test
+    public void Given_Table_Load_Fails_Then_Next_Lookup_Retries() {
+        AtomicInteger attempts = new AtomicInteger();
+        EntityCache<String[]> failing = new EntityCache<>("rows", () -> {
+            if (attempts.incrementAndGet() == 1) {
+                throw new SQLException("connection refused");
+            }
+            return table.values();
+        }, table::get, row -> Integer.parseInt(row[0]), String[]::clone);
+        Assert.assertNull(failing.get(1));
+        Assert.assertEquals("one", failing.get(1)[1]);
+        Assert.assertEquals(2, attempts.get());
+    }
+}
@@ -23,6 +23,7 @@
 
 package org.onap.dmaap.datarouter.provisioning.beans;
 
+import java.io.InvalidObjectException;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -31,6 +32,7 @@ import org.junit.Assert;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
+import org.json.JSONObject;
 import org.junit.runner.RunWith;
 import org.powermock.core.classloader.annotations.PowerMockIgnore;
 import org.powermock.modules.junit4.PowerMockRunner;
@@ -115,4 +117,31 @@ public class SubscriptionTest {
         Assert.assertNotNull(sub2.toString());
         sub2.hashCode();
     }
-}
\ No newline at end of file
+
+    @Test
+    public void validate_Max_In_Flight_Defaults_To_One_And_Is_Read_From_JSON() throws Exception {
+        Assert.assertEquals(1, subscription.getMaxInFlight());
+        Assert.assertEquals(1, new Subscription(createSubscriptionJson()).getMaxInFlight());
+        JSONObject jo = createSubscriptionJson().put("maxInFlight", 4);
+        Subscription sub = new Subscription(jo);
+        Assert.assertEquals(4, sub.getMaxInFlight());
+        Assert.assertEquals(4, sub.asJSONObject().getInt("maxInFlight"));
+    }
+
+    @Test(expected = InvalidObjectException.class)
+    public void validate_Max_In_Flight_Out_Of_Range_Is_Rejected() throws Exception {
+        new Subscription(createSubscriptionJson().put("maxInFlight", 0));
+    }
+
+    private JSONObject createSubscriptionJson() {
+        JSONObject delivery = new JSONObject();
+        delivery.put("url", "https://172.100.0.5:8080");
+        delivery.put("user", "user");
+        delivery.put("password", "password");
+        delivery.put("use100", true);
+        JSONObject jo = new JSONObject();
+        jo.put("delivery", delivery);
+        jo.put("metadataOnly", false);
+        return jo;
+    }
+}
@@ -0,0 +1,90 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.net.InetAddress;
+import java.util.Arrays;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class AddressTrieTest {
+
+    private final AddressTrie trie = AddressTrie.compile(Arrays.asList(
+        "10.1.0.0/16", "192.168.1.7", "172.16.0.0/0", "2001:db8:ab00::/40", "fe80::1", "bad/prefix", "1.2.3.4/x"));
+
+    @Test
+    public void Given_IPv4_Address_In_Network_Then_It_Is_Contained() {
+        Assert.assertTrue(trie.contains("10.1.0.0"));
+        Assert.assertTrue(trie.contains("10.1.255.254"));
+        Assert.assertTrue(trie.contains("192.168.1.7"));
+        Assert.assertFalse(trie.contains("10.2.0.1"));
+        Assert.assertFalse(trie.contains("192.168.1.8"));
+    }
+
+    @Test
+    public void Given_Zero_Prefix_Length_Then_Only_The_Address_Is_Contained() {
+        Assert.assertTrue(trie.contains("172.16.0.0"));
+        Assert.assertFalse(trie.contains("172.16.0.1"));
+    }
+
+    @Test
+    public void Given_IPv6_Address_In_Network_Then_It_Is_Contained() {
+        Assert.assertTrue(trie.contains("2001:db8:ab12:1::9"));
+        Assert.assertTrue(trie.contains("2001:0DB8:AB00:0:0:0:0:0"));
+        Assert.assertTrue(trie.contains("[fe80::1]"));
+        Assert.assertTrue(trie.contains("fe80:0:0:0:0:0:0:1%eth0"));
+        Assert.assertFalse(trie.contains("2001:db8:ac00::1"));
+        Assert.assertFalse(trie.contains("fe80::2"));
+    }
+
+    @Test
+    public void Given_IPv4_Mapped_Address_Then_It_Is_Matched_As_IPv4() {
+        Assert.assertTrue(trie.contains("::ffff:10.1.2.3"));
+        Assert.assertFalse(trie.contains("::10.1.2.3"));
+    }
+
+    @Test
+    public void Given_Address_Is_Not_A_Literal_Then_It_Is_Not_Contained() {
+        AddressTrie all = AddressTrie.compile(Arrays.asList("0.0.0.0/1", "128.0.0.0/1", "::/1", "8000::/1"));
+        Assert.assertTrue(all.contains("8.8.8.8"));
+        Assert.assertTrue(all.contains("::1"));
+        for (String addr : new String[]{null, "", "stub_addr", "1.2.3", "1.2.3.4.5", "256.1.1.1", "1..2.3", ":1",
+            "1:", "1:::2", "1::2::3", "12345::", "1:2:3:4:5:6:7:8:9"}) {
+            Assert.assertFalse(addr, all.contains(addr));
+        }
+    }
+
+    @Test
+    public void Given_Entries_Cannot_Be_Parsed_Then_They_Are_Skipped() {
+        Assert.assertEquals(5, trie.size());
+        Assert.assertFalse(AddressTrie.EMPTY.contains("127.0.0.1"));
+    }
+
+    @Test
+    public void Given_Addresses_Compiled_Then_Each_Is_Contained() throws Exception {
+        AddressTrie addresses = AddressTrie.compile(InetAddress.getByName("127.0.0.1"), null,
+            InetAddress.getByName("::1"));
+        Assert.assertTrue(addresses.contains("127.0.0.1"));
+        Assert.assertTrue(addresses.contains("0:0:0:0:0:0:0:1"));
+        Assert.assertFalse(addresses.contains("127.0.0.2"));
+        Assert.assertEquals(2, addresses.size());
+    }
+}
@@ -20,6 +20,10 @@
 
 package org.onap.dmaap.datarouter.provisioning.utils;
 
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -58,4 +62,19 @@ public class DbTest {
         Assert.assertTrue(ProvDbUtils.getInstance().initProvDB());
     }
 
+    @Test
+    public void Verify_Max_In_Flight_Column_Is_Added_To_Existing_Database() throws SQLException {
+        Assert.assertTrue(ProvDbUtils.getInstance().initProvDB());
+        try (Connection conn = ProvDbUtils.getInstance().getConnection();
+            Statement stmt = conn.createStatement()) {
+            stmt.execute("ALTER TABLE SUBSCRIPTIONS DROP COLUMN MAX_IN_FLIGHT");
+        }
+        Assert.assertTrue(ProvDbUtils.getInstance().initProvDB());
+        try (Connection conn = ProvDbUtils.getInstance().getConnection();
+            Statement stmt = conn.createStatement();
+            ResultSet rs = stmt.executeQuery("SELECT COUNT(*) FROM SUBSCRIPTIONS WHERE MAX_IN_FLIGHT = 1")) {
+            Assert.assertTrue(rs.next());
+        }
+    }
+
 }
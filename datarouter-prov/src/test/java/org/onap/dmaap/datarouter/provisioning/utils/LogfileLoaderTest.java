@@ -27,6 +27,10 @@ import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import javax.persistence.EntityManager;
 import javax.persistence.EntityManagerFactory;
 import javax.persistence.Persistence;
@@ -76,7 +80,9 @@ public class LogfileLoaderTest {
     }
 
     @AfterClass
-    public static void tearDownClass() {
+    public static void tearDownClass() throws IOException {
+        Files.deleteIfExists(new File("src/test/resources/RECORD_IDS.checkpoint").toPath());
+        Files.deleteIfExists(new File("src/test/resources/RECORD_IDS.checkpoint.log").toPath());
         em.clear();
         em.close();
         emf.close();
@@ -100,6 +106,201 @@ public class LogfileLoaderTest {
         assertFalse(lfl.pruneRecords());
     }
 
+    @Test
+    public void Verify_Large_File_Is_Loaded_In_Batches() throws IOException {
+        File largeLog = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_large");
+        int lines = 20000;
+        try (FileWriter fileWriter = new FileWriter(largeLog)) {
+            for (int i = 0; i < lines; i++) {
+                fileWriter.write("2018-08-29-10-10-10-543.|PUB|" + i + "|1|https://dmaap-dr-prov:8443/publish/1/file"
+                    + i + "/|POST|application/vnd.att-dr.feed|2|128.0.0.9|user123|200\n");
+            }
+        }
+        try {
+            Assert.assertArrayEquals(new int[]{lines, lines}, lfl.process(largeLog));
+        } finally {
+            Files.deleteIfExists(largeLog.toPath());
+        }
+    }
+
+    @Test
+    public void Verify_Rows_Kept_By_A_Failed_Batch_Are_Counted_As_Loaded() throws IOException, SQLException {
+        File log = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_partial");
+        try {
+            writeLogRecords(log, 900002);
+            Assert.assertArrayEquals(new int[]{1, 1}, lfl.process(log));
+            // As if a batch had failed after inserting the row, without the ID reaching the bit set
+            lfl.getBitSet().clear(900002, 900003);
+            writeLogRecords(log, 900001, 900002, 900003);
+            Assert.assertArrayEquals(new int[]{3, 3}, lfl.process(log));
+            for (long id = 900001; id <= 900003; id++) {
+                Assert.assertTrue(lfl.getBitSet().get(id));
+            }
+            try (Connection conn = ProvDbUtils.getInstance().getConnection();
+                PreparedStatement ps = conn.prepareStatement(
+                    "select count(*) from LOG_RECORDS where RECORD_ID between 900001 and 900003");
+                ResultSet rs = ps.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(3, rs.getLong(1));
+            }
+        } finally {
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    @Test
+    public void Verify_Checkpoint_Is_Used_Only_When_It_Matches_Log_Records() throws IOException {
+        File log = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_checkpoint");
+        prepFile(log);
+        try {
+            lfl.process(log);
+            lfl.writeCheckpoint();
+            RLEBitSet checkpointed = lfl.readCheckpoint();
+            Assert.assertNotNull(checkpointed);
+            Assert.assertEquals(lfl.getBitSet().toString(), checkpointed.toString());
+            lfl.process(log);
+            lfl.saveCheckpoint();
+            checkpointed = lfl.readCheckpoint();
+            Assert.assertNotNull(checkpointed);
+            Assert.assertEquals(lfl.getBitSet().toString(), checkpointed.toString());
+            Files.delete(new File("src/test/resources/RECORD_IDS.checkpoint.log").toPath());
+            Assert.assertNull(lfl.readCheckpoint());
+        } finally {
+            Files.deleteIfExists(log.toPath());
+            lfl.writeCheckpoint();
+        }
+    }
+
+    @Test
+    public void Verify_Checkpoint_With_Wrong_Count_Or_Highest_Id_Is_Not_Used() throws IOException {
+        File log = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_checkpoint");
+        prepFile(log);
+        try {
+            lfl.process(log);
+            lfl.writeCheckpoint();
+            Assert.assertNotNull(lfl.readCheckpoint());
+            // One ID too many, with the right highest ID
+            RLEBitSet extra = (RLEBitSet) lfl.getBitSet().clone();
+            long lowest = extra.getRangeIterator().next()[0];
+            Assert.assertTrue(lowest > 0);
+            extra.set(lowest - 1);
+            writeCheckpoint(extra);
+            Assert.assertNull(lfl.readCheckpoint());
+            // The right number of IDs, with the wrong highest ID
+            RLEBitSet moved = (RLEBitSet) lfl.getBitSet().clone();
+            long highest = moved.length() - 1;
+            moved.clear(highest);
+            moved.set(highest + 1);
+            writeCheckpoint(moved);
+            Assert.assertNull(lfl.readCheckpoint());
+        } finally {
+            Files.deleteIfExists(log.toPath());
+            lfl.writeCheckpoint();
+        }
+    }
+
+    private void writeCheckpoint(RLEBitSet bs) throws IOException {
+        Files.write(new File("src/test/resources/RECORD_IDS.checkpoint").toPath(),
+            (bs.cardinality() + " " + (bs.length() - 1) + "\n" + bs + "\n").getBytes());
+    }
+
+    @Test
+    public void Verify_Loaded_Records_Are_Added_To_Rollup_Tables() throws IOException, SQLException {
+        File log = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_rollup");
+        writeRollupRecords(log, 77);
+        try {
+            Assert.assertArrayEquals(new int[]{5, 5}, lfl.process(log));
+            verifyRollupTotals(77);
+        } finally {
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    @Test
+    public void Verify_Rollup_Totals_That_Cannot_Be_Written_Are_Rebuilt_From_Log_Records()
+        throws IOException, SQLException {
+        File log = new File(System.getProperty("user.dir") + "/src/test/resources/test_prov_logs_stale_rollup");
+        writeRollupRecords(log, 78);
+        try {
+            renameTable("LOG_ROLLUP_DAILY", "LOG_ROLLUP_DAILY_OFFLINE");
+            try {
+                Assert.assertArrayEquals(new int[]{5, 5}, lfl.process(log));
+            } finally {
+                renameTable("LOG_ROLLUP_DAILY_OFFLINE", "LOG_ROLLUP_DAILY");
+            }
+            try (Connection conn = ProvDbUtils.getInstance().getConnection();
+                PreparedStatement ps = conn.prepareStatement(
+                    "select count(*) from LOG_ROLLUP_HOURLY where FEEDID = 78");
+                ResultSet rs = ps.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(0, rs.getLong(1));
+            }
+            lfl.rebuildStaleRollup();
+            verifyRollupTotals(78);
+        } finally {
+            Files.deleteIfExists(log.toPath());
+        }
+    }
+
+    private void writeRollupRecords(File logFile, int feedid) throws IOException {
+        String pubid = "1535400000000.dmaap-dr-node";
+        try (FileWriter fileWriter = new FileWriter(logFile)) {
+            fileWriter.write("2018-08-29-10-10-10-543.|PUB|" + pubid + "|" + feedid
+                + "|https://dmaap-dr-prov:8443/publish/" + feedid + "/a"
+                + "|PUT|application/octet-stream|10|128.0.0.9|user123|204\n"
+                + "2018-08-29-10-10-10-543.|PUB|" + pubid + "|" + feedid
+                + "|https://dmaap-dr-prov:8443/publish/" + feedid + "/b"
+                + "|PUT|application/octet-stream|20|128.0.0.9|user123|204\n"
+                + "2018-08-29-10-10-10-543.|DEL|" + pubid + "|" + feedid + "|5|https://sub.example.com:8443/deliver/a"
+                + "|PUT|application/octet-stream|10|user123|204|" + pubid + "\n"
+                + "2018-08-29-10-10-10-543.|DEL|" + pubid + "|" + feedid + "|5|https://sub.example.com:8443/deliver/b"
+                + "|PUT|application/octet-stream|20|user123|500|" + pubid + "\n"
+                + "2018-08-29-10-10-10-543.|EXP|" + pubid + "|" + feedid + "|5|https://sub.example.com:8443/deliver/b"
+                + "|PUT|application/octet-stream|20|retriesExhausted|3\n");
+        }
+    }
+
+    private void verifyRollupTotals(int feedid) throws SQLException {
+        for (String table : new String[]{"LOG_ROLLUP_HOURLY", "LOG_ROLLUP_DAILY"}) {
+            try (Connection conn = ProvDbUtils.getInstance().getConnection();
+                PreparedStatement ps = conn.prepareStatement("select SUBID, FILES_PUBLISHED, BYTES_PUBLISHED, "
+                    + "FILES_DELIVERED, BYTES_DELIVERED, FILES_EXPIRED, BYTES_EXPIRED, DELAY_COUNT, SUBSCRIBER_URL "
+                    + "from " + table + " where FEEDID = " + feedid + " order by SUBID");
+                ResultSet rs = ps.executeQuery()) {
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(0, rs.getInt("SUBID"));
+                Assert.assertEquals(2, rs.getLong("FILES_PUBLISHED"));
+                Assert.assertEquals(30, rs.getLong("BYTES_PUBLISHED"));
+                Assert.assertTrue(rs.next());
+                Assert.assertEquals(5, rs.getInt("SUBID"));
+                Assert.assertEquals(1, rs.getLong("FILES_DELIVERED"));
+                Assert.assertEquals(10, rs.getLong("BYTES_DELIVERED"));
+                Assert.assertEquals(1, rs.getLong("FILES_EXPIRED"));
+                Assert.assertEquals(20, rs.getLong("BYTES_EXPIRED"));
+                Assert.assertEquals(1, rs.getLong("DELAY_COUNT"));
+                Assert.assertEquals("https://sub.example.com:8443", rs.getString("SUBSCRIBER_URL"));
+                Assert.assertFalse(rs.next());
+            }
+        }
+    }
+
+    private void renameTable(String from, String to) throws SQLException {
+        try (Connection conn = ProvDbUtils.getInstance().getConnection();
+            PreparedStatement ps = conn.prepareStatement("ALTER TABLE " + from + " RENAME TO " + to)) {
+            ps.executeUpdate();
+        }
+    }
+
+    private void writeLogRecords(File logFile, long... recordIds) throws IOException {
+        try (FileWriter fileWriter = new FileWriter(logFile)) {
+            for (long recordId : recordIds) {
+                fileWriter.write("2018-08-29-10-10-10-543.|LOG|1535400000000.dmaap-dr-node|1"
+                    + "|https://dmaap-dr-prov:8443/publish/1/file|PUT|text/plain|10|pub|file|128.0.0.9|user123|204"
+                    + "|0|file|0|0|none|" + recordId + "\n");
+            }
+        }
+    }
+
     private void prepFile(File logFile) {
         String testLogs =           "2018-08-29-10-10-10-543.|LOG|1|1|https://dmaap-dr-prov:/url/file123|POST|application/vnd.att-dr.feed|100|mockType|file123|https://dmaap-dr-prov|user123|200|1|1|200|2|2\n"
                                   + "2018-08-29-10-10-10-543.|EXP|1|1|1|'url/file123'|PUT|null|3|new reason|4\n"
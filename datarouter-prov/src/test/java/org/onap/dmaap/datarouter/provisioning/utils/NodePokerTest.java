@@ -0,0 +1,101 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NodePokerTest {
+
+    private static final String DEAD_NODE = "http://dead:8080/internal/fetchProv";
+    private static final String LIVE_NODE = "http://live:8080/internal/fetchProv";
+
+    @Test
+    public void Given_Dead_Node_Then_Other_Nodes_Are_Poked_Without_Waiting() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch livePoked = new CountDownLatch(1);
+        NodePoker poker = new NodePoker(2, 1000) {
+            @Override
+            void connect(String url) throws IOException {
+                if (DEAD_NODE.equals(url)) {
+                    await(release);
+                    throw new IOException("connect timed out");
+                }
+                livePoked.countDown();
+            }
+        };
+        poker.poke(DEAD_NODE);
+        poker.poke(LIVE_NODE);
+        Assert.assertTrue(livePoked.await(5, TimeUnit.SECONDS));
+        release.countDown();
+        waitForPokes(poker, DEAD_NODE, 1);
+        Assert.assertEquals(1, poker.getStats().get(DEAD_NODE).getFailures());
+        Assert.assertEquals(0, poker.getStats().get(LIVE_NODE).getFailures());
+    }
+
+    @Test
+    public void Given_Repeated_Pokes_While_Poking_Then_Node_Is_Poked_Once_More() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger calls = new AtomicInteger();
+        NodePoker poker = new NodePoker(2, 1000) {
+            @Override
+            void connect(String url) {
+                calls.incrementAndGet();
+                started.countDown();
+                await(release);
+            }
+        };
+        poker.poke(LIVE_NODE);
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            poker.poke(LIVE_NODE);
+        }
+        release.countDown();
+        waitForPokes(poker, LIVE_NODE, 2);
+        Thread.sleep(100);
+        Assert.assertEquals(2, calls.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void waitForPokes(NodePoker poker, String url, long pokes) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (System.currentTimeMillis() < deadline) {
+            NodePoker.PokeStats stats = poker.getStats().get(url);
+            if (stats != null && stats.getPokes() >= pokes) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        Assert.fail("Node at " + url + " was not poked " + pokes + " times");
+    }
+}
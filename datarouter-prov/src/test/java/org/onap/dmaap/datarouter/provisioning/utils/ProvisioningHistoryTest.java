@@ -0,0 +1,85 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ProvisioningHistoryTest {
+
+    private ProvisioningHistory history;
+    private Map<String, String> subs;
+    private Map<String, String> sections;
+
+    @Before
+    public void setUp() {
+        history = new ProvisioningHistory();
+        subs = new LinkedHashMap<>();
+        for (int i = 1; i <= 10; i++) {
+            subs.put(Integer.toString(i), "{\"subid\":" + i + "}");
+        }
+        sections = new LinkedHashMap<>();
+        sections.put("parameters", "{\"PROV_NAME\":\"prov\"}");
+        record();
+    }
+
+    @Test
+    public void Given_Subscription_Changed_Then_Delta_Contains_Only_That_Subscription() {
+        String instance = history.getResponse(null, null).getInstance();
+        subs.put("3", "{\"subid\":3,\"suspend\":true}");
+        subs.remove("4");
+        long version = record();
+        Assert.assertEquals(2, version);
+        ProvisioningHistory.Response response = history.getResponse(instance, "1");
+        Assert.assertTrue(response.isDelta());
+        Assert.assertEquals(2, response.getVersion());
+        JSONObject delta = new JSONObject(response.getBody());
+        JSONObject changes = delta.getJSONObject(ProvisioningHistory.SUBSCRIPTIONS);
+        Assert.assertEquals(1, changes.getJSONArray("changed").length());
+        Assert.assertTrue(changes.getJSONArray("changed").getJSONObject(0).getBoolean("suspend"));
+        Assert.assertEquals("4", changes.getJSONArray("deleted").getString(0));
+        Assert.assertFalse(delta.has("parameters"));
+    }
+
+    @Test
+    public void Given_Unknown_Instance_Or_Version_Then_Full_Document_Is_Returned() {
+        String instance = history.getResponse(null, null).getInstance();
+        sections.put("parameters", "{\"PROV_NAME\":\"prov2\"}");
+        record();
+        Assert.assertFalse(history.getResponse("other", "1").isDelta());
+        Assert.assertFalse(history.getResponse(instance, "5").isDelta());
+        Assert.assertFalse(history.getResponse(instance, "abc").isDelta());
+        ProvisioningHistory.Response response = history.getResponse(instance, "1");
+        Assert.assertTrue(response.isDelta());
+        Assert.assertEquals("prov2", new JSONObject(response.getBody()).getJSONObject("parameters")
+            .getString("PROV_NAME"));
+    }
+
+    private long record() {
+        Map<String, Map<String, String>> entities = new LinkedHashMap<>();
+        entities.put(ProvisioningHistory.SUBSCRIPTIONS, new LinkedHashMap<>(subs));
+        return history.record("{}", entities, new LinkedHashMap<>(sections));
+    }
+}
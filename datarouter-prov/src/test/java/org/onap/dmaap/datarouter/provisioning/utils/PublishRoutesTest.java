@@ -0,0 +1,97 @@
+/*-
+ * ============LICENSE_START=======================================================
+ *  Copyright (C) 2026 Nordix Foundation.
+ * ================================================================================
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ * ============LICENSE_END=========================================================
+ */
+
+package org.onap.dmaap.datarouter.provisioning.utils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.onap.dmaap.datarouter.provisioning.beans.Feed;
+import org.onap.dmaap.datarouter.provisioning.beans.IngressRoute;
+import org.onap.dmaap.datarouter.provisioning.beans.NodeClass;
+import org.powermock.core.classloader.annotations.PowerMockIgnore;
+import org.powermock.core.classloader.annotations.SuppressStaticInitializationFor;
+import org.powermock.modules.junit4.PowerMockRunner;
+
+@RunWith(PowerMockRunner.class)
+@SuppressStaticInitializationFor("org.onap.dmaap.datarouter.provisioning.beans.Feed")
+@PowerMockIgnore({"com.sun.org.apache.xerces.*", "javax.xml.*", "org.xml.*", "org.w3c.*"})
+public class PublishRoutesTest {
+
+    @Before
+    public void setUp() throws IllegalAccessException {
+        FieldUtils.writeDeclaredStaticField(NodeClass.class, "nodesMap", new HashMap<String, Integer>(), true);
+    }
+
+    @Test
+    public void Given_Snapshot_Then_Only_Provisioned_Feeds_Are_Found() {
+        PublishRoutes routes = new PublishRoutes(1, Arrays.asList(feed(1), feed(3)), Collections.emptyList());
+        Assert.assertTrue(routes.isFeed(1));
+        Assert.assertFalse(routes.isFeed(2));
+        Assert.assertTrue(routes.isFeed(3));
+        Assert.assertEquals(1, routes.getVersion());
+    }
+
+    @Test
+    public void Given_Routes_For_Feed_Then_First_Matching_Route_Is_Returned() {
+        IngressRoute otherUser = route(1, 1, "user2", "node1");
+        IngressRoute anyUser = route(2, 1, "", "node2");
+        IngressRoute otherFeed = route(3, 2, "", "node3");
+        PublishRoutes routes = new PublishRoutes(1, Arrays.asList(feed(1), feed(2)),
+            Arrays.asList(otherUser, anyUser, otherFeed));
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        when(request.getHeader("Authorization")).thenReturn("Basic dXNlcjE6cGFzc3dvcmQx");
+        Assert.assertSame(anyUser, routes.getRoute(1, request));
+        Assert.assertSame(otherFeed, routes.getRoute(2, request));
+        Assert.assertNull(routes.getRoute(4, request));
+    }
+
+    @Test
+    public void Given_Empty_Snapshot_Then_No_Feeds_Are_Found() {
+        Assert.assertFalse(PublishRoutes.empty().isFeed(1));
+        Assert.assertEquals(0, PublishRoutes.empty().getFeedCount());
+    }
+
+    private Feed feed(int feedid) {
+        Feed feed = mock(Feed.class);
+        when(feed.getFeedid()).thenReturn(feedid);
+        return feed;
+    }
+
+    private IngressRoute route(int seq, int feedid, String user, String node) {
+        JSONObject jo = new JSONObject();
+        jo.put("seq", seq);
+        jo.put("feedid", feedid);
+        jo.put("user", user);
+        jo.put("node", new JSONArray().put(node));
+        return new IngressRoute(jo);
+    }
+}
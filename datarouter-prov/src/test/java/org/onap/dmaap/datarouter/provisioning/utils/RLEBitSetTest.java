@@ -169,4 +169,23 @@ public class RLEBitSetTest {
     RLEBSet.set(2L, 9L);
     assertThat(RLEBSet.clone().toString(), is(RLEBSet.toString()));
   }
+
+  @Test
+  public void Given_Method_Is_Set_And_Range_Spans_Several_Ranges_Then_Merge_Them()
+      throws Exception {
+    RLEBSet.set("54-57,60,74-117");
+    RLEBSet.set(0L, 63L);
+    assertThat(RLEBSet.toString(), is("0-62,74-117"));
+    RLEBSet.set(63L, 74L);
+    assertThat(RLEBSet.toString(), is("0-117"));
+  }
+
+  @Test
+  public void Given_Method_Is_ForEachRange_Return_Each_Range_In_Order()
+      throws Exception {
+    RLEBSet.set("9, 2-6\n12-20");
+    StringBuilder ranges = new StringBuilder();
+    RLEBSet.forEachRange((first, last) -> ranges.append(first).append(':').append(last).append(' '));
+    assertThat(ranges.toString(), is("2:6 9:9 12:20 "));
+  }
 }
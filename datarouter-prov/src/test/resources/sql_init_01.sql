@@ -45,7 +45,8 @@ CREATE TABLE SUBSCRIPTIONS (
     SUSPENDED                   BOOLEAN DEFAULT FALSE,
     PRIVILEGED_SUBSCRIBER       BOOLEAN DEFAULT FALSE,
     CREATED_DATE                TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
-    DECOMPRESS                  BOOLEAN DEFAULT FALSE
+    DECOMPRESS                  BOOLEAN DEFAULT FALSE,
+    MAX_IN_FLIGHT               INT DEFAULT 1
 );
 
 CREATE TABLE PARAMETERS (
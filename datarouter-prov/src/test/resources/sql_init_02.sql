@@ -0,0 +1,37 @@
+CREATE TABLE LOG_ROLLUP_HOURLY (
+    PERIOD_START       BIGINT NOT NULL,           /* start of the hour, in ms */
+    FEEDID             INT UNSIGNED NOT NULL,     /* pointer to feed in FEEDS */
+    SUBID              INT UNSIGNED NOT NULL,     /* pointer to subscription in SUBSCRIPTIONS, 0 for publishes */
+    FILES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    BYTES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    FILES_DELIVERED    BIGINT NOT NULL DEFAULT 0, /* successful deliveries only */
+    BYTES_DELIVERED    BIGINT NOT NULL DEFAULT 0,
+    FILES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    BYTES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    DELAY_SUM          BIGINT NOT NULL DEFAULT 0, /* total ms from publish to delivery */
+    DELAY_COUNT        BIGINT NOT NULL DEFAULT 0,
+    LAST_PUBLISH_TIME  BIGINT NOT NULL DEFAULT 0,
+    LAST_DELIVERY_TIME BIGINT NOT NULL DEFAULT 0,
+    SUBSCRIBER_URL     VARCHAR(256),
+
+    PRIMARY KEY (FEEDID, SUBID, PERIOD_START)
+);
+
+CREATE TABLE LOG_ROLLUP_DAILY (
+    PERIOD_START       BIGINT NOT NULL,           /* start of the UTC day, in ms */
+    FEEDID             INT UNSIGNED NOT NULL,     /* pointer to feed in FEEDS */
+    SUBID              INT UNSIGNED NOT NULL,     /* pointer to subscription in SUBSCRIPTIONS, 0 for publishes */
+    FILES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    BYTES_PUBLISHED    BIGINT NOT NULL DEFAULT 0,
+    FILES_DELIVERED    BIGINT NOT NULL DEFAULT 0, /* successful deliveries only */
+    BYTES_DELIVERED    BIGINT NOT NULL DEFAULT 0,
+    FILES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    BYTES_EXPIRED      BIGINT NOT NULL DEFAULT 0,
+    DELAY_SUM          BIGINT NOT NULL DEFAULT 0, /* total ms from publish to delivery */
+    DELAY_COUNT        BIGINT NOT NULL DEFAULT 0,
+    LAST_PUBLISH_TIME  BIGINT NOT NULL DEFAULT 0,
+    LAST_DELIVERY_TIME BIGINT NOT NULL DEFAULT 0,
+    SUBSCRIBER_URL     VARCHAR(256),
+
+    PRIMARY KEY (FEEDID, SUBID, PERIOD_START)
+);